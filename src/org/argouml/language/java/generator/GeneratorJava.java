@@ -97,6 +97,12 @@ public class GeneratorJava implements CodeGenerator, ModuleInterface {
 
     private static final String LANG_PACKAGE = "java.lang";
 
+    /**
+     * The tag with the place of a javadoc comment that the import left in
+     * the source file. It is not a tag of the code.
+     */
+    private static final String JAVADOC_SOURCE_TAG = "javadoc-source";
+
     private static final Set<String> JAVA_TYPES;
     static {
         Set<String> types = new HashSet<String>();
@@ -1338,7 +1344,8 @@ public class GeneratorJava implements CodeGenerator, ModuleInterface {
             return "";
         }
         String t = Model.getFacade().getTagOfTag(tv);
-        if (Argo.DOCUMENTATION_TAG.equals(t)) {
+        if (Argo.DOCUMENTATION_TAG.equals(t)
+                || JAVADOC_SOURCE_TAG.equals(t)) {
             return "";
         }
         return generateName(t) + "=" + s;
@@ -38,7 +38,11 @@
 
 package org.argouml.language.java.profile;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.argouml.model.Model;
 
@@ -48,8 +52,25 @@ import org.argouml.model.Model;
  * @author maurelio1234
  */
 public class ModelUtils {
+
     /**
-     * Finds a type in a model by name
+     * The indexes of the models that were searched. The models are weakly
+     * referenced, and the indexes only weakly reference the classifiers,
+     * which reference their model, so the index of a model that is unloaded
+     * goes away, too.
+     */
+    private static final Map<Object, TypeIndex> TYPE_INDEX =
+        new WeakHashMap<Object, TypeIndex>();
+
+    /**
+     * Finds a type in a model by name.
+     * <p>
+     * The classifiers of the model are indexed by name on the first search,
+     * so later searches are a hash lookup. A type that is not in the index
+     * is searched for in the model again, in case it was added later. The
+     * names that are not found are not remembered, since the model events
+     * that would tell when they are added may be suspended during an
+     * import.
      *
      * @param s the type name
      * @param model the model
@@ -64,19 +85,68 @@ public class ModelUtils {
                     + ". A namespace was expected.");
         }
 
-        Collection allClassifiers =
-            Model.getModelManagementHelper()
-                .getAllModelElementsOfKind(model,
-                        Model.getMetaTypes().getClassifier());
+        if (s == null) {
+            return null;
+        }
 
-        for (Object classifier : allClassifiers) {
-            if (Model.getFacade().getName(classifier) != null
-                        && Model.getFacade().getName(classifier).equals(s)) {
-                return classifier;
+        synchronized (TYPE_INDEX) {
+            TypeIndex index = TYPE_INDEX.get(model);
+            if (index == null) {
+                index = new TypeIndex();
+                for (Object classifier : getAllClassifiers(model)) {
+                    String name = Model.getFacade().getName(classifier);
+                    if (name != null && !index.types.containsKey(name)) {
+                        index.put(name, classifier);
+                    }
+                }
+                TYPE_INDEX.put(model, index);
+            }
+            Object type = index.get(s);
+            if (type != null) {
+                return type;
+            }
+            for (Object classifier : getAllClassifiers(model)) {
+                if (s.equals(Model.getFacade().getName(classifier))) {
+                    index.put(s, classifier);
+                    return classifier;
+                }
             }
         }
 
         return null;
     }
 
+    private static Collection getAllClassifiers(Object model) {
+        return Model.getModelManagementHelper().getAllModelElementsOfKind(
+                model, Model.getMetaTypes().getClassifier());
+    }
+
+    /**
+     * The classifiers of a model by name.
+     */
+    private static final class TypeIndex {
+
+        private final Map<String, WeakReference<Object>> types =
+            new HashMap<String, WeakReference<Object>>();
+
+        void put(String name, Object classifier) {
+            types.put(name, new WeakReference<Object>(classifier));
+        }
+
+        /**
+         * @param name the name
+         * @return the classifier of the name, or null if it isn't known or
+         *         isn't valid anymore
+         */
+        Object get(String name) {
+            WeakReference<Object> ref = types.get(name);
+            Object type = (ref == null) ? null : ref.get();
+            if (type != null && !Model.getUmlFactory().isRemoved(type)
+                    && name.equals(Model.getFacade().getName(type))) {
+                return type;
+            }
+            types.remove(name);
+            return null;
+        }
+    }
 }
@@ -64,6 +64,12 @@ class ClassifierContext extends Context {
         this.mClassifier = classifier;
     }
 
+    @Override
+    protected ResolutionCache.Scope createScope(
+            ResolutionCache.Scope parent) {
+        return new ResolutionCache.Scope(this, mClassifier, null, parent);
+    }
+
     /**
      * Get the classifier for a given name
      * 
@@ -0,0 +1,397 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the classes on the import classpath, to find out whether a
+ * class exists, and whether it is an interface, without loading it.
+ * <p>
+ * The index is built once per import session from the jars and directories
+ * of the path list of the {@link JavaImportSettings}. It only reads the
+ * central directories of the jars and the file names in the directories.
+ * Whether a class is an interface is read from the header of its class file
+ * when it's first asked for.
+ * <p>
+ * The classes of the Java platform are not in the index. They are looked up
+ * as resources of the class loader of the module, which doesn't load or
+ * initialize them either.
+ */
+public final class ClasspathIndex {
+
+    /** Logger. */
+    private static final Logger LOG =
+        Logger.getLogger(ClasspathIndex.class.getName());
+
+    /** The kind of a name that isn't a class. */
+    public static final int NOT_FOUND = 0;
+
+    /** The kind of a class that is not an interface. */
+    public static final int CLASS = 1;
+
+    /** The kind of an interface. */
+    public static final int INTERFACE = 2;
+
+    private static final int MAGIC = 0xcafebabe;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final String SUFFIX = ".class";
+
+    /**
+     * The index of the current import session.
+     */
+    private static ClasspathIndex current;
+
+    /**
+     * The kinds of the platform classes that were looked up, including the
+     * names that were not found. Cleared at the end of each session, so
+     * the unresolved names of an import don't pile up.
+     */
+    private static final Map<String, Integer> PLATFORM_KINDS =
+        new HashMap<String, Integer>();
+
+    /**
+     * The jars and directories of the classpath.
+     */
+    private final List<File> roots = new ArrayList<File>();
+
+    /**
+     * The jars that were opened to read class headers, by index of their
+     * root.
+     */
+    private final Map<Integer, ZipFile> openJars =
+        new HashMap<Integer, ZipFile>();
+
+    /**
+     * The index of the root of each class, by fully qualified name.
+     */
+    private final Map<String, Integer> classes =
+        new HashMap<String, Integer>();
+
+    /**
+     * The kinds of the classes that were looked up.
+     */
+    private final Map<String, Integer> kinds = new HashMap<String, Integer>();
+
+    /**
+     * Build an index of a classpath. Paths that don't exist are ignored. If
+     * a class is in several paths, the first one is used.
+     *
+     * @param paths the jars and directories of the classpath
+     */
+    public ClasspathIndex(List<String> paths) {
+        for (String path : paths) {
+            File root = new File(path);
+            int index = roots.size();
+            roots.add(root);
+            if (root.isDirectory()) {
+                indexDirectory(root, "", index);
+            } else if (root.isFile()) {
+                indexJar(root, index);
+            }
+        }
+        LOG.log(Level.INFO, "Indexed {0} classes on the import classpath",
+                classes.size());
+    }
+
+    /**
+     * Start a new import session, for which the index is built again from
+     * the current path list.
+     */
+    public static synchronized void startSession() {
+        startSession(JavaImportSettings.getInstance().getPathList());
+    }
+
+    /**
+     * Start a new import session with the index of the given classpath.
+     *
+     * @param paths the jars and directories of the classpath
+     */
+    static synchronized void startSession(List<String> paths) {
+        endSession();
+        current = new ClasspathIndex(paths);
+    }
+
+    /**
+     * End the import session and release the index, and the kinds of the
+     * platform classes that were looked up.
+     */
+    public static synchronized void endSession() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        synchronized (PLATFORM_KINDS) {
+            PLATFORM_KINDS.clear();
+        }
+    }
+
+    /**
+     * Get the index of the current import session. If no session was
+     * started, one is started now.
+     *
+     * @return the index
+     */
+    public static synchronized ClasspathIndex getInstance() {
+        if (current == null) {
+            startSession();
+        }
+        return current;
+    }
+
+    /**
+     * Find out whether a class is on the classpath, and whether it is an
+     * interface.
+     *
+     * @param name the fully qualified name of the class, with '$' between
+     *            the names of outer and inner classes
+     * @return {@link #NOT_FOUND}, {@link #CLASS} or {@link #INTERFACE}
+     */
+    public synchronized int getKind(String name) {
+        Integer kind = kinds.get(name);
+        if (kind == null) {
+            Integer root = classes.get(name);
+            kind = (root == null) ? NOT_FOUND : readKind(name, root);
+            kinds.put(name, kind);
+        }
+        return kind;
+    }
+
+    /**
+     * Find out whether a class of the Java platform, or of ArgoUML, exists,
+     * and whether it is an interface.
+     *
+     * @param name the fully qualified name of the class
+     * @return {@link #NOT_FOUND}, {@link #CLASS} or {@link #INTERFACE}
+     */
+    public static int getPlatformKind(String name) {
+        synchronized (PLATFORM_KINDS) {
+            Integer kind = PLATFORM_KINDS.get(name);
+            if (kind == null) {
+                kind = readPlatformKind(name);
+                PLATFORM_KINDS.put(name, kind);
+            }
+            return kind;
+        }
+    }
+
+    /**
+     * @return the number of platform classes that were looked up in the
+     *         current session
+     */
+    static int getPlatformKindCount() {
+        synchronized (PLATFORM_KINDS) {
+            return PLATFORM_KINDS.size();
+        }
+    }
+
+    /**
+     * @return the number of classes in the index
+     */
+    public synchronized int size() {
+        return classes.size();
+    }
+
+    /**
+     * Close the jars that were opened to read class headers.
+     */
+    public synchronized void close() {
+        for (ZipFile jar : openJars.values()) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "Cannot close " + jar.getName(), e);
+            }
+        }
+        openJars.clear();
+    }
+
+    private void indexDirectory(File dir, String packagePrefix, int index) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String fileName = f.getName();
+            if (f.isDirectory()) {
+                indexDirectory(f, packagePrefix + fileName + ".", index);
+            } else if (fileName.endsWith(SUFFIX)) {
+                addClass(packagePrefix + fileName.substring(0,
+                        fileName.length() - SUFFIX.length()), index);
+            }
+        }
+    }
+
+    private void indexJar(File file, int index) {
+        try {
+            ZipFile jar = new ZipFile(file);
+            try {
+                Enumeration<? extends ZipEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entryName = entries.nextElement().getName();
+                    if (entryName.endsWith(SUFFIX)
+                            && !entryName.startsWith("META-INF/")) {
+                        addClass(entryName.substring(0,
+                                entryName.length() - SUFFIX.length())
+                                .replace('/', '.'), index);
+                    }
+                }
+            } finally {
+                jar.close();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot index classpath entry " + file, e);
+        }
+    }
+
+    private void addClass(String name, int index) {
+        if (!classes.containsKey(name)) {
+            classes.put(name, index);
+        }
+    }
+
+    private int readKind(String name, int index) {
+        File root = roots.get(index);
+        String path = name.replace('.', '/') + SUFFIX;
+        try {
+            InputStream in;
+            if (root.isDirectory()) {
+                in = new FileInputStream(new File(root, path));
+            } else {
+                ZipFile jar = openJars.get(index);
+                if (jar == null) {
+                    jar = new ZipFile(root);
+                    openJars.put(index, jar);
+                }
+                ZipEntry entry = jar.getEntry(path);
+                if (entry == null) {
+                    return NOT_FOUND;
+                }
+                in = jar.getInputStream(entry);
+            }
+            try {
+                return readKind(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot read the class file of " + name
+                    + " in " + root, e);
+            return NOT_FOUND;
+        }
+    }
+
+    private static int readPlatformKind(String name) {
+        ClassLoader loader = ClasspathIndex.class.getClassLoader();
+        String path = name.replace('.', '/') + SUFFIX;
+        URL url = (loader == null) ? ClassLoader.getSystemResource(path)
+                : loader.getResource(path);
+        if (url == null) {
+            return NOT_FOUND;
+        }
+        try {
+            InputStream in = url.openStream();
+            try {
+                return readKind(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot read the class file of " + name, e);
+            return NOT_FOUND;
+        }
+    }
+
+    /**
+     * Read the kind of a class from its class file. The access flags
+     * follow the constant pool, so the constant pool is skipped.
+     *
+     * @param stream the class file
+     * @return {@link #CLASS} or {@link #INTERFACE}, or {@link #NOT_FOUND}
+     *         if it's not a class file
+     * @throws IOException if the class file can't be read
+     */
+    static int readKind(InputStream stream) throws IOException {
+        DataInputStream in =
+            new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            return NOT_FOUND;
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        int count = in.readUnsignedShort();
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case 1: // Utf8
+                skip(in, in.readUnsignedShort());
+                break;
+            case 7: // Class
+            case 8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: // Package
+                skip(in, 2);
+                break;
+            case 15: // MethodHandle
+                skip(in, 3);
+                break;
+            case 3: // Integer
+            case 4: // Float
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                skip(in, 4);
+                break;
+            case 5: // Long
+            case 6: // Double
+                skip(in, 8);
+                i++;
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        int access = in.readUnsignedShort();
+        return (access & ACC_INTERFACE) != 0 ? INTERFACE : CLASS;
+    }
+
+    private static void skip(DataInputStream in, int n) throws IOException {
+        int skipped = in.skipBytes(n);
+        while (skipped < n) {
+            in.readByte();
+            skipped++;
+        }
+    }
+}
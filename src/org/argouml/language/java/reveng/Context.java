@@ -43,13 +43,8 @@
 
 package org.argouml.language.java.reveng;
 
-import java.net.MalformedURLException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
 import org.argouml.model.Model;
 import org.argouml.profile.Profile;
-import org.argouml.uml.reveng.ImportClassLoader;
 
 /**
  * The context is the current available namespaces via import in the class that
@@ -57,12 +52,12 @@ import org.argouml.uml.reveng.ImportClassLoader;
  * current context with an additional namespace.
  */
 abstract class Context {
-    private static final Logger LOG =
-        Logger.getLogger(Context.class.getName());
-
     /** The parent context. May be null. */
     private Context context;
 
+    /** The scope of this context. Created when it is first needed. */
+    private ResolutionCache.Scope scope;
+
     /**
      * Create a new context.
      * 
@@ -112,6 +107,7 @@ abstract class Context {
      */
     protected void setContext(Context c) {
         this.context = c;
+        scope = null;
     }
 
     /**
@@ -121,41 +117,51 @@ abstract class Context {
         return context;
     }
 
-    protected Class<?> findClass(String name, boolean interfacesOnly) {
+    /**
+     * Get the scope of this context, i.e. the value of the chain of
+     * contexts that ends here, to cache the resolution of names in.
+     *
+     * @return the scope
+     */
+    ResolutionCache.Scope getScope() {
+        if (scope == null) {
+            scope = createScope(context == null ? null : context.getScope());
+        }
+        return scope;
+    }
+
+    /**
+     * Create the scope of this context.
+     *
+     * @param parent the scope of the parent context, or null
+     * @return the scope
+     */
+    protected abstract ResolutionCache.Scope createScope(
+            ResolutionCache.Scope parent);
+
+    /**
+     * Look up a class on the import classpath, and on the Java platform if
+     * it isn't there.
+     *
+     * @param name the fully qualified name of the class
+     * @param interfacesOnly Filter for interfaces only.
+     * @return {@link ClasspathIndex#CLASS}, {@link ClasspathIndex#INTERFACE}
+     *         or {@link ClasspathIndex#NOT_FOUND}
+     */
+    protected int findClass(String name, boolean interfacesOnly) {
         // Classpath lookup was inherited from the program JavaRE from Marcus
         // Andersson, which was the basis for the Java RE in ArgoUML. JavaRE
         // had no configurable user classpath and thus had to find the class
-        // or interface via Class.forName(name) (catching
-        // ClassNotFoundException and LinkageError, and the case that a class
-        // is returned but interfacesOnly==true, in all these cases the
-        // following method call is made anyway). For a very long time, the
-        // lookup in the ArgoUML classpath via Class.forName(name) was left
-        // in the code, but it was not needed because a user classpath can be
-        // configured, so only this is looked up, and all that remains is:
-        return findClassOnUserClasspath(name, interfacesOnly);
-    }
-
-    private Class<?> findClassOnUserClasspath(String name,
-            boolean interfacesOnly) {
-        Class<?> clazz = null;
-        try {
-            clazz = ImportClassLoader.getInstance().loadClass(name);
-        } catch (MalformedURLException e) {
-            // TODO: Need to make this visible to the user
-            LOG.log(Level.WARNING, "Classpath configuration error", e);
-        } catch (ClassNotFoundException e) {
-            return null;
-        } catch (LinkageError e) {
-            // We found the class, but we couldn't load it for some reason
-            // most likely a missing dependency on the class path
-            // TODO: Need to make this visible to the user
-            LOG.log(Level.WARNING,
-                    "Linkage error loading found class " + name, e);
-            return null;
+        // or interface via Class.forName(name). Now the user classpath is
+        // looked up in an index of its class files, and then the platform
+        // classes, without loading any classes.
+        int kind = ClasspathIndex.getInstance().getKind(name);
+        if (kind == ClasspathIndex.NOT_FOUND) {
+            kind = ClasspathIndex.getPlatformKind(name);
         }
-        if (clazz != null && interfacesOnly && !clazz.isInterface()) {
-            return null;
+        if (interfacesOnly && kind != ClasspathIndex.INTERFACE) {
+            return ClasspathIndex.NOT_FOUND;
         }
-        return clazz;
+        return kind;
     }
 }
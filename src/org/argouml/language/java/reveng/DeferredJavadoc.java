@@ -0,0 +1,241 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.argouml.model.Model;
+import org.argouml.ui.targetmanager.TargetEvent;
+import org.argouml.ui.targetmanager.TargetListener;
+import org.argouml.ui.targetmanager.TargetManager;
+
+/**
+ * Javadoc comments whose documentation is added to the model elements only
+ * when it is needed. This is the {@link ModellerSession#JAVADOC_DEFERRED}
+ * mode of the import.
+ * <p>
+ * While importing, a model element only gets a tagged value
+ * {@link #SOURCE_TAG} with the place of its javadoc comment in the source
+ * file. The comment is read again and added as documentation and tagged
+ * values as in an eager import when the element, or the classifier it
+ * belongs to, becomes a target, so before its documentation is shown or
+ * code is generated for it. If the source file changed in between, the
+ * element stays without documentation: the reference holds the length and
+ * hash of the text, so a comment of another element that happens to be at
+ * the place now isn't taken.
+ * <p>
+ * An instance finds the comments in the text of one source file, for the
+ * modeller that imports it.
+ */
+public final class DeferredJavadoc {
+
+    private static final Logger LOG =
+        Logger.getLogger(DeferredJavadoc.class.getName());
+
+    /**
+     * The name of the tagged value with the place of the javadoc comment:
+     * its start and end offset, the length and hash of the source text, the
+     * encoding and the path of the source file, separated by colons.
+     */
+    public static final String SOURCE_TAG = "javadoc-source";
+
+    private final File file;
+
+    private final String encoding;
+
+    private final CharSequence text;
+
+    /**
+     * The part of the references that is the same for all comments of the
+     * file, computed on the first comment.
+     */
+    private String fileReference;
+
+    /**
+     * The offset after the last comment that was found. Comments are
+     * mostly passed in source order.
+     */
+    private int cursor;
+
+    /**
+     * Create a finder for the comments of a source file.
+     *
+     * @param sourceFile the source file
+     * @param sourceEncoding the encoding of the source file
+     * @param sourceText the text of the source file, as read by
+     *            {@link JavaSourceReader}
+     */
+    DeferredJavadoc(File sourceFile, String sourceEncoding,
+            CharSequence sourceText) {
+        file = sourceFile;
+        encoding = sourceEncoding;
+        text = sourceText;
+    }
+
+    /**
+     * Find a comment in the source.
+     *
+     * @param javadoc the comment as passed in by the parser
+     * @return the value of the {@link #SOURCE_TAG}, or null if the comment
+     *         is not in the source
+     */
+    String getReference(String javadoc) {
+        int start = indexOf(javadoc, cursor);
+        if (start < 0) {
+            start = indexOf(javadoc, 0);
+        }
+        if (start < 0) {
+            return null;
+        }
+        cursor = start + javadoc.length();
+        if (fileReference == null) {
+            fileReference = text.length() + ":" + JavaSourceReader.hash(text) + ":"
+                + encoding + ":" + file.getAbsolutePath();
+        }
+        return start + ":" + cursor + ":" + fileReference;
+    }
+
+    private int indexOf(String javadoc, int from) {
+        int length = javadoc.length();
+        for (int i = from; i <= text.length() - length; i++) {
+            int j = 0;
+            while (j < length && text.charAt(i + j) == javadoc.charAt(j)) {
+                j++;
+            }
+            if (j == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read a comment again from its source file.
+     *
+     * @param reference the value of the {@link #SOURCE_TAG}
+     * @return the comment, or null if it isn't found at its place anymore
+     */
+    static String read(String reference) {
+        String[] parts = (reference == null) ? null : reference.split(":", 6);
+        if (parts == null || parts.length != 6) {
+            LOG.warning("Bad javadoc reference " + reference);
+            return null;
+        }
+        try {
+            int start = Integer.parseInt(parts[0]);
+            int end = Integer.parseInt(parts[1]);
+            int length = Integer.parseInt(parts[2]);
+            int hash = Integer.parseInt(parts[3]);
+            CharBuffer source =
+                JavaSourceReader.read(new File(parts[5]), parts[4]);
+            if (source.limit() != length
+                    || JavaSourceReader.hash(source) != hash) {
+                LOG.fine("Source changed, no javadoc at " + reference);
+                return null;
+            }
+            if (start < 0 || end > length || end - start < 5) {
+                LOG.warning("Bad javadoc reference " + reference);
+                return null;
+            }
+            String javadoc = new String(source.array(), start, end - start);
+            if (!javadoc.startsWith("/**") || !javadoc.endsWith("*/")) {
+                LOG.fine("Source changed, no javadoc at " + reference);
+                return null;
+            }
+            return javadoc;
+        } catch (NumberFormatException e) {
+            LOG.warning("Bad javadoc reference " + reference);
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Can't read javadoc at " + reference, e);
+        }
+        return null;
+    }
+
+    /**
+     * Add the documentation of a model element that was deferred while
+     * importing. Nothing is done if it isn't deferred, or if it was added
+     * before.
+     *
+     * @param modelElement the model element
+     * @return true if documentation was added
+     */
+    static boolean resolve(Object modelElement) {
+        if (!Model.getFacade().isAModelElement(modelElement)) {
+            return false;
+        }
+        Object tv = Model.getFacade().getTaggedValue(modelElement, SOURCE_TAG);
+        if (tv == null) {
+            return false;
+        }
+        String javadoc = read(Model.getFacade().getValueOfTag(tv));
+        Model.getUmlFactory().delete(tv);
+        if (javadoc == null) {
+            return false;
+        }
+        Modeller.addDeferredDocumentation(modelElement, javadoc);
+        return true;
+    }
+
+    /**
+     * Add the deferred documentation of a model element, and of the
+     * features and nested classifiers of a classifier, which are shown and
+     * generated with it.
+     *
+     * @param modelElement the model element
+     */
+    static void resolveContents(Object modelElement) {
+        resolve(modelElement);
+        if (Model.getFacade().isAClassifier(modelElement)) {
+            for (Object feature : Model.getFacade().getFeatures(
+                    modelElement)) {
+                resolve(feature);
+            }
+            for (Object owned : Model.getFacade().getOwnedElements(
+                    modelElement)) {
+                resolveContents(owned);
+            }
+        }
+    }
+
+    /**
+     * Add the deferred documentation of the targets and their contents,
+     * when they become targets. Code is generated for targets, so their
+     * documentation is in the model before the generator reads it.
+     */
+    static class TargetResolver implements TargetListener {
+
+        public void targetAdded(TargetEvent e) {
+            resolveTargets();
+        }
+
+        public void targetRemoved(TargetEvent e) {
+            // nothing to add
+        }
+
+        public void targetSet(TargetEvent e) {
+            resolveTargets();
+        }
+
+        private void resolveTargets() {
+            for (Object target : TargetManager.getInstance()
+                    .getModelTargets()) {
+                resolveContents(target);
+            }
+        }
+    }
+}
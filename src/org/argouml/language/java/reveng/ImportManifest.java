@@ -0,0 +1,354 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.argouml.model.Model;
+
+/**
+ * The manifest of the source files that were imported into a model, for an
+ * incremental import.
+ * <p>
+ * The path, last modification time and content hash of each imported file
+ * are tagged values of the artifact (or component in UML 1.4) that the
+ * {@link Modeller} creates for the file. The manifest is read from these
+ * tagged values, so that a later import can skip the files that didn't
+ * change, and remove the classifiers of files that were deleted.
+ * <p>
+ * The modellers only tell the manifest the artifact of each file. The
+ * tagged values are written by {@link #commit()} when the import is done,
+ * and not for the files that failed, so a file that wasn't imported
+ * completely is imported again the next time.
+ */
+class ImportManifest {
+
+    /** Logger. */
+    private static final Logger LOG =
+        Logger.getLogger(ImportManifest.class.getName());
+
+    /**
+     * The name of the {@link Modeller} attribute that holds the
+     * {@link Entry} of the file that is imported.
+     */
+    static final String ATTRIBUTE = "manifest";
+
+    /** Tag for the absolute path of the source file. */
+    static final String PATH_TAG = "src_file";
+
+    /** Tag for the last modification time of the source file. */
+    static final String MODIFIED_TAG = "src_lastmodified";
+
+    /** Tag for the hash of the content of the source file. */
+    static final String HASH_TAG = "src_hash";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The artifacts with a manifest entry, by path.
+     */
+    private final Map<String, Object> artifacts =
+        new HashMap<String, Object>();
+
+    /**
+     * The entries of the files of this import, by path.
+     */
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    /**
+     * Read the manifest from the artifacts of a model.
+     *
+     * @param model the model to read the manifest from
+     */
+    ImportManifest(Object model) {
+        Collection classifiers = Model.getModelManagementHelper()
+                .getAllModelElementsOfKind(model,
+                        Model.getMetaTypes().getClassifier());
+        for (Object classifier : classifiers) {
+            if (Model.getFacade().isAComponent(classifier)
+                    || Model.getFacade().isAArtifact(classifier)) {
+                Object path = Model.getFacade().getTaggedValueValue(
+                        classifier, PATH_TAG);
+                if (path != null && path.toString().length() > 0) {
+                    artifacts.put(path.toString(), classifier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Select the files that need to be imported, i.e. the files that are not
+     * in the manifest, or that changed since they were imported. A file
+     * with a different modification time is only imported if its content
+     * changed, too.
+     *
+     * @param files the files to import
+     * @return the files that need to be imported, in the same order
+     */
+    Collection<File> getChangedFiles(Collection<File> files) {
+        Collection<File> changed = new ArrayList<File>();
+        for (File f : files) {
+            String path = f.getAbsolutePath();
+            Object artifact = artifacts.get(path);
+            if (artifact == null) {
+                changed.add(f);
+                continue;
+            }
+            Object modified = Model.getFacade().getTaggedValueValue(artifact,
+                    MODIFIED_TAG);
+            if (modified != null
+                    && String.valueOf(f.lastModified()).equals(
+                            modified.toString())) {
+                continue;
+            }
+            Object hash = Model.getFacade().getTaggedValueValue(artifact,
+                    HASH_TAG);
+            Entry entry = getEntry(f);
+            if (hash == null || entry.getHash().length() == 0
+                    || !hash.toString().equals(entry.getHash())) {
+                changed.add(f);
+            } else {
+                // only touched, the new modification time is committed
+                entry.setArtifact(artifact);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Remove the artifacts of the source files that don't exist anymore,
+     * together with the classifiers that are manifested by them. Only the
+     * files below the source roots of the imported files are considered,
+     * the other parts of the model are left alone. So a deleted package
+     * directory is found next to the packages that are still imported.
+     *
+     * @param files the files to import
+     * @return the number of removed artifacts
+     */
+    int removeDeletedFiles(Collection<File> files) {
+        Set<File> roots = new HashSet<File>();
+        for (File f : files) {
+            File dir = getSourceRoot(f);
+            if (dir != null) {
+                roots.add(dir);
+            }
+        }
+        int removed = 0;
+        for (Map.Entry<String, Object> e : artifacts.entrySet()) {
+            File f = new File(e.getKey());
+            if (f.exists() || !isUnder(f, roots)) {
+                continue;
+            }
+            Object artifact = e.getValue();
+            LOG.info("Removing the model elements of deleted file "
+                    + e.getKey());
+            for (Object classifier : getManifestedElements(artifact)) {
+                Model.getUmlFactory().delete(classifier);
+            }
+            Model.getUmlFactory().delete(artifact);
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Find the source root of an imported file: the directory above the
+     * directories of its package. If the file wasn't imported before, or
+     * its directories don't match its package, that is its directory.
+     *
+     * @param f the imported file
+     * @return the source root, or null if the file has no directory
+     */
+    private File getSourceRoot(File f) {
+        File dir = f.getAbsoluteFile().getParentFile();
+        Object artifact = artifacts.get(f.getAbsolutePath());
+        if (artifact == null) {
+            return dir;
+        }
+        File root = dir;
+        Object ns = Model.getFacade().getNamespace(artifact);
+        while (ns != null && !Model.getFacade().isAModel(ns)) {
+            if (root == null
+                    || !root.getName().equals(Model.getFacade().getName(ns))) {
+                return dir;
+            }
+            root = root.getParentFile();
+            ns = Model.getFacade().getNamespace(ns);
+        }
+        return root;
+    }
+
+    private static boolean isUnder(File f, Set<File> roots) {
+        for (File dir = f.getParentFile(); dir != null;
+                dir = dir.getParentFile()) {
+            if (roots.contains(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Collection<Object> getManifestedElements(Object artifact) {
+        Collection<Object> elements = new ArrayList<Object>();
+        if (Model.getFacade().isAComponent(artifact)) {
+            for (Object residence
+                    : Model.getFacade().getResidentElements(artifact)) {
+                elements.add(Model.getFacade().getResident(residence));
+            }
+        } else {
+            elements.addAll(
+                    Model.getCoreHelper().getUtilizedElements(artifact));
+        }
+        return elements;
+    }
+
+    /**
+     * Get the entry of a source file, as it is now.
+     *
+     * @param f the source file
+     * @return the entry
+     */
+    Entry getEntry(File f) {
+        String path = f.getAbsolutePath();
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            entry = new Entry(path, f.lastModified(), hash(f));
+            entries.put(path, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Remember that a file couldn't be imported, so its entry isn't
+     * committed.
+     *
+     * @param f the source file
+     */
+    void setFailed(File f) {
+        Entry entry = entries.get(f.getAbsolutePath());
+        if (entry != null) {
+            entry.failed = true;
+        }
+    }
+
+    /**
+     * Write the entries of the files that were imported to their artifacts.
+     * This is done once at the end of an import that wasn't canceled.
+     *
+     * @return the number of entries that were written
+     */
+    int commit() {
+        int committed = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.artifact == null || entry.failed) {
+                continue;
+            }
+            Modeller.buildTaggedValue(entry.artifact, PATH_TAG,
+                    new String[] {entry.getPath()});
+            Modeller.buildTaggedValue(entry.artifact, MODIFIED_TAG,
+                    new String[] {String.valueOf(entry.getModified())});
+            Modeller.buildTaggedValue(entry.artifact, HASH_TAG,
+                    new String[] {entry.getHash()});
+            committed++;
+        }
+        return committed;
+    }
+
+    private static String hash(File f) {
+        MessageDigest digest = ParseCache.createDigest();
+        try {
+            InputStream in = new FileInputStream(f);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, n);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // the file will be imported, and the problem reported there
+            LOG.log(Level.FINE, "Cannot hash " + f, e);
+            return "";
+        }
+        return ParseCache.toHex(digest.digest());
+    }
+
+    /**
+     * The manifest entry of a single source file.
+     */
+    static class Entry {
+        private final String path;
+
+        private final long modified;
+
+        private final String hash;
+
+        private Object artifact;
+
+        private boolean failed;
+
+        /**
+         * @param thePath the absolute path of the file
+         * @param theModified the last modification time of the file
+         * @param theHash the hash of the content of the file
+         */
+        Entry(String thePath, long theModified, String theHash) {
+            path = thePath;
+            modified = theModified;
+            hash = theHash;
+        }
+
+        /**
+         * @return the absolute path of the file
+         */
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the last modification time of the file
+         */
+        long getModified() {
+            return modified;
+        }
+
+        /**
+         * @return the hash of the content of the file
+         */
+        String getHash() {
+            return hash;
+        }
+
+        /**
+         * @param theArtifact the artifact of the file in the model
+         */
+        void setArtifact(Object theArtifact) {
+            artifact = theArtifact;
+        }
+    }
+}
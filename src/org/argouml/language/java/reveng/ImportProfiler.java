@@ -0,0 +1,463 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.argouml.kernel.Project;
+
+/**
+ * Measures where the time of an import goes. For each file and each phase
+ * of the import it adds up the wall time, the CPU time and, if the JVM can
+ * tell, the bytes allocated by the thread that did the work.
+ * <p>
+ * The phases are reading the file, lexing, parsing, resolving type names
+ * and updating the model. Resolving is part of updating the model, or of
+ * parsing when the parser updates the model directly, so it isn't counted
+ * in the total of a file.
+ * <p>
+ * A thread first tells which file it works on with {@link #begin(String)},
+ * then measures each phase with {@link #start()} and
+ * {@link #stop(int, long[])}. The parser threads and the thread that
+ * updates the model can do so at the same time.
+ * <p>
+ * The profiler is only used if it is switched on in the
+ * {@link JavaImportSettings}, because measuring the CPU time and the
+ * allocations costs time of its own.
+ */
+public final class ImportProfiler {
+
+    private static final Logger LOG =
+        Logger.getLogger(ImportProfiler.class.getName());
+
+    /**
+     * Phase: reading a source file or a classfile.
+     */
+    public static final int READ = 0;
+
+    /**
+     * Phase: lexing a source file.
+     */
+    public static final int LEX = 1;
+
+    /**
+     * Phase: parsing a source file or a classfile.
+     */
+    public static final int PARSE = 2;
+
+    /**
+     * Phase: resolving a type name that isn't in the resolution cache.
+     */
+    public static final int RESOLVE = 3;
+
+    /**
+     * Phase: updating the model.
+     */
+    public static final int MODEL = 4;
+
+    private static final String[] PHASES = {
+        "read", "lex", "parse", "resolve", "model",
+    };
+
+    /**
+     * The measures of a phase: wall time, CPU time and allocated bytes.
+     */
+    private static final int MEASURES = 3;
+
+    private static final String[] MEASURE_NAMES = {
+        "wallNanos", "cpuNanos", "allocatedBytes",
+    };
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final boolean cpuTime;
+
+    /**
+     * The method of the JVM that tells the bytes a thread allocated, or
+     * null if there is none.
+     */
+    private final Method allocatedBytes;
+
+    private final Map<String, FileProfile> files =
+        new LinkedHashMap<String, FileProfile>();
+
+    private final ThreadLocal<FileProfile> currentFile =
+        new ThreadLocal<FileProfile>();
+
+    /**
+     * Create a profiler for an import.
+     */
+    public ImportProfiler() {
+        cpuTime = threads.isCurrentThreadCpuTimeSupported();
+        allocatedBytes = findAllocatedBytes(threads);
+    }
+
+    private static Method findAllocatedBytes(ThreadMXBean bean) {
+        try {
+            Class< ? > type = Class.forName("com.sun.management.ThreadMXBean");
+            if (!type.isInstance(bean)) {
+                return null;
+            }
+            Method enabled = type.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!Boolean.TRUE.equals(enabled.invoke(bean))) {
+                return null;
+            }
+            return type.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception e) {
+            // not supported by this JVM
+            return null;
+        }
+    }
+
+    /**
+     * Set the file that the current thread works on.
+     *
+     * @param file the path or name of the file
+     */
+    public void begin(String file) {
+        FileProfile profile;
+        synchronized (files) {
+            profile = files.get(file);
+            if (profile == null) {
+                profile = new FileProfile(file);
+                files.put(file, profile);
+            }
+        }
+        currentFile.set(profile);
+    }
+
+    /**
+     * Start measuring a phase on the current thread.
+     *
+     * @return the start of the measures, to pass to {@link #stop}
+     */
+    public long[] start() {
+        long[] start = new long[MEASURES];
+        measure(start);
+        return start;
+    }
+
+    /**
+     * Stop measuring a phase on the current thread, and add the measures
+     * to the file that the thread works on.
+     *
+     * @param phase the phase, like {@link #PARSE}
+     * @param start the result of {@link #start()}
+     */
+    public void stop(int phase, long[] start) {
+        long[] end = new long[MEASURES];
+        measure(end);
+        FileProfile profile = currentFile.get();
+        if (profile == null) {
+            return;
+        }
+        synchronized (profile) {
+            for (int i = 0; i < MEASURES; i++) {
+                profile.measures[phase][i] += end[i] - start[i];
+            }
+        }
+    }
+
+    private void measure(long[] measures) {
+        measures[0] = System.nanoTime();
+        if (cpuTime) {
+            measures[1] = threads.getCurrentThreadCpuTime();
+        }
+        if (allocatedBytes != null) {
+            try {
+                measures[2] = ((Long) allocatedBytes.invoke(threads, Long
+                        .valueOf(Thread.currentThread().getId())))
+                        .longValue();
+            } catch (Exception e) {
+                measures[2] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return true if the CPU time is measured
+     */
+    public boolean isCpuTimeMeasured() {
+        return cpuTime;
+    }
+
+    /**
+     * @return true if the allocated bytes are measured
+     */
+    public boolean isAllocationMeasured() {
+        return allocatedBytes != null;
+    }
+
+    /**
+     * @param n the maximum number of files
+     * @return the paths or names of the files with the longest wall time,
+     *         the slowest first
+     */
+    public List<String> getSlowest(int n) {
+        List<FileProfile> sorted = getSortedFiles();
+        List<String> slowest = new ArrayList<String>();
+        for (int i = 0; i < Math.min(n, sorted.size()); i++) {
+            slowest.add(sorted.get(i).name);
+        }
+        return slowest;
+    }
+
+    /**
+     * @param n the number of the slowest files to list
+     * @return the totals of the phases and the slowest files, as text
+     */
+    public String getReport(int n) {
+        long[][] totals = new long[PHASES.length][MEASURES];
+        List<FileProfile> sorted = getSortedFiles();
+        for (FileProfile profile : sorted) {
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                for (int i = 0; i < MEASURES; i++) {
+                    totals[phase][i] += profile.measures[phase][i];
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Import profile of ").append(sorted.size())
+            .append(" files, ms wall / ms CPU / KB allocated:\n");
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            sb.append("  ").append(PHASES[phase]).append(": ");
+            appendMeasures(sb, totals[phase]);
+            sb.append('\n');
+        }
+        sb.append("Slowest files:\n");
+        for (int i = 0; i < Math.min(n, sorted.size()); i++) {
+            FileProfile profile = sorted.get(i);
+            sb.append("  ").append(profile.name).append(": ");
+            appendMeasures(sb, profile.getTotal());
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void appendMeasures(StringBuilder sb, long[] measures) {
+        sb.append(measures[0] / 1000000).append(" / ");
+        sb.append(measures[1] / 1000000).append(" / ");
+        sb.append(measures[2] / 1024);
+    }
+
+    /**
+     * Log the report of the import, with as many of the slowest files as
+     * the {@link JavaImportSettings} tell, and export the measures next to
+     * the project.
+     *
+     * @param p the project
+     * @param kind the kind of import, used in the names of the exported
+     *            files
+     */
+    public void report(Project p, String kind) {
+        LOG.info(getReport(
+                JavaImportSettings.getInstance().getProfilerSlowest()));
+        File dir = getReportDirectory(p.getURI());
+        String name = p.getName() + "-" + kind + "-import-profile";
+        try {
+            File[] written = export(dir, name);
+            LOG.info("Import profile written to "
+                    + written[0].getAbsolutePath() + " and "
+                    + written[1].getAbsolutePath());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Can't write the import profile to "
+                    + dir.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Write the measures of all files as JSON and as CSV.
+     *
+     * @param directory the directory to write to
+     * @param baseName the name of the files, without extension
+     * @return the files that were written
+     * @throws IOException if a file can't be written
+     */
+    public File[] export(File directory, String baseName)
+        throws IOException {
+        File json = new File(directory, baseName + ".json");
+        File csv = new File(directory, baseName + ".csv");
+        Writer out = new OutputStreamWriter(new FileOutputStream(json),
+                "UTF-8");
+        try {
+            writeJson(out);
+        } finally {
+            out.close();
+        }
+        out = new OutputStreamWriter(new FileOutputStream(csv), "UTF-8");
+        try {
+            writeCsv(out);
+        } finally {
+            out.close();
+        }
+        return new File[] {json, csv};
+    }
+
+    /**
+     * Write the measures of all files as a JSON object, with an array of
+     * files that have an object of measures for each phase.
+     *
+     * @param out the writer to write to
+     * @throws IOException if the writer fails
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\n  \"cpuTime\": " + cpuTime
+                + ",\n  \"allocations\": " + (allocatedBytes != null)
+                + ",\n  \"files\": [");
+        boolean firstFile = true;
+        for (FileProfile profile : getSortedFiles()) {
+            out.write(firstFile ? "\n" : ",\n");
+            firstFile = false;
+            out.write("    {\"file\": \"" + escapeJson(profile.name) + "\"");
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                out.write(", \"" + PHASES[phase] + "\": {");
+                for (int i = 0; i < MEASURES; i++) {
+                    out.write((i == 0 ? "\"" : ", \"") + MEASURE_NAMES[i]
+                            + "\": " + profile.measures[phase][i]);
+                }
+                out.write("}");
+            }
+            out.write("}");
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Write the measures of all files as CSV, with a line for each file
+     * and a column for each measure of each phase.
+     *
+     * @param out the writer to write to
+     * @throws IOException if the writer fails
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("file");
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            for (int i = 0; i < MEASURES; i++) {
+                out.write("," + PHASES[phase] + "." + MEASURE_NAMES[i]);
+            }
+        }
+        out.write("\n");
+        for (FileProfile profile : getSortedFiles()) {
+            out.write(escapeCsv(profile.name));
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                for (int i = 0; i < MEASURES; i++) {
+                    out.write("," + profile.measures[phase][i]);
+                }
+            }
+            out.write("\n");
+        }
+    }
+
+    /**
+     * Find the directory for the reports of a project: the directory of
+     * the project file, or the temporary directory if the project wasn't
+     * saved.
+     *
+     * @param projectUri the location of the project, or null
+     * @return the directory
+     */
+    public static File getReportDirectory(URI projectUri) {
+        if (projectUri != null && "file".equals(projectUri.getScheme())) {
+            File dir = new File(projectUri).getParentFile();
+            if (dir != null && dir.isDirectory()) {
+                return dir;
+            }
+        }
+        return new File(System.getProperty("java.io.tmpdir"));
+    }
+
+    private List<FileProfile> getSortedFiles() {
+        List<FileProfile> sorted;
+        synchronized (files) {
+            sorted = new ArrayList<FileProfile>(files.values());
+        }
+        Collections.sort(sorted, new Comparator<FileProfile>() {
+            public int compare(FileProfile a, FileProfile b) {
+                long wallA = a.getTotal()[0];
+                long wallB = b.getTotal()[0];
+                return wallA > wallB ? -1 : (wallA < wallB ? 1 : 0);
+            }
+        });
+        return sorted;
+    }
+
+    private static String escapeJson(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", Integer.valueOf(c)));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escapeCsv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0
+                && s.indexOf('\n') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * The measures of one file.
+     */
+    private static final class FileProfile {
+
+        private final String name;
+
+        private final long[][] measures = new long[PHASES.length][MEASURES];
+
+        FileProfile(String theName) {
+            name = theName;
+        }
+
+        /**
+         * @return the measures of all phases, except resolving, which is
+         *         part of other phases
+         */
+        synchronized long[] getTotal() {
+            long[] total = new long[MEASURES];
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                if (phase != RESOLVE) {
+                    for (int i = 0; i < MEASURES; i++) {
+                        total[i] += measures[phase][i];
+                    }
+                }
+            }
+            return total;
+        }
+    }
+}
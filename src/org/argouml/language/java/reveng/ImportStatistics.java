@@ -0,0 +1,219 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counts what an import session did, per file and in total, instead of
+ * logging each model element. The modellers count the classifiers and
+ * features, the importer measures the time of each file.
+ * <p>
+ * With the level FINE, a line of <code>key=value</code> pairs is logged at
+ * the end of each file. The totals are logged once at the end of the
+ * import, see {@link #getSummary()}.
+ * <p>
+ * An import of two passes models each file twice. Only the files,
+ * classifiers and features of the last pass are counted in the totals,
+ * see {@link #setCounting(boolean)}, the times of both passes add up.
+ * <p>
+ * The statistics are not thread safe. They are only used by the thread
+ * that updates the model, parser threads measure their time themselves.
+ */
+final class ImportStatistics {
+
+    private static final Logger LOG =
+        Logger.getLogger(ImportStatistics.class.getName());
+
+    private final ResolutionCache resolutionCache;
+
+    private String fileName;
+
+    private int files;
+
+    private int fileClassifiers;
+
+    private int fileFeatures;
+
+    private long fileResolutionsStart;
+
+    private long fileParseNanos;
+
+    private long fileModelNanos;
+
+    private long fileParseAndModelNanos;
+
+    private int classifiers;
+
+    private int features;
+
+    private long parseNanos;
+
+    private long modelNanos;
+
+    private long parseAndModelNanos;
+
+    private boolean counting = true;
+
+    /**
+     * Create the statistics of a session.
+     *
+     * @param cache the resolution cache of the session, which counts the
+     *            resolved types
+     */
+    ImportStatistics(ResolutionCache cache) {
+        resolutionCache = cache;
+    }
+
+    /**
+     * Count the following files, classifiers and features in the totals, or
+     * only per file. The totals are counted by default.
+     *
+     * @param count false for the passes of an import that are followed by
+     *            another one
+     */
+    void setCounting(boolean count) {
+        counting = count;
+    }
+
+    /**
+     * Start counting for a file.
+     *
+     * @param name the name of the file
+     */
+    void startFile(String name) {
+        fileName = name;
+        fileClassifiers = 0;
+        fileFeatures = 0;
+        fileParseNanos = 0;
+        fileModelNanos = 0;
+        fileParseAndModelNanos = 0;
+        fileResolutionsStart = getResolutions();
+    }
+
+    /**
+     * Count a classifier that was added or updated.
+     */
+    void classifier() {
+        fileClassifiers++;
+        if (counting) {
+            classifiers++;
+        }
+    }
+
+    /**
+     * Count an operation or attribute that was added or updated.
+     */
+    void feature() {
+        fileFeatures++;
+        if (counting) {
+            features++;
+        }
+    }
+
+    /**
+     * @param nanos the time it took to lex and parse the file, without
+     *            updating the model
+     */
+    void addParseTime(long nanos) {
+        fileParseNanos += nanos;
+        parseNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time it took to update the model for the file
+     */
+    void addModelTime(long nanos) {
+        fileModelNanos += nanos;
+        modelNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time it took to parse the file while updating the
+     *            model
+     */
+    void addParseAndModelTime(long nanos) {
+        fileParseAndModelNanos += nanos;
+        parseAndModelNanos += nanos;
+    }
+
+    /**
+     * Stop counting for the current file.
+     */
+    void endFile() {
+        if (counting) {
+            files++;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("file=" + fileName
+                    + " classifiers=" + fileClassifiers
+                    + " features=" + fileFeatures
+                    + " types=" + (getResolutions() - fileResolutionsStart)
+                    + " parse=" + millis(fileParseNanos)
+                    + " model=" + millis(fileModelNanos)
+                    + " parseAndModel=" + millis(fileParseAndModelNanos));
+        }
+        fileName = null;
+    }
+
+    /**
+     * @return the number of files that were counted
+     */
+    int getFiles() {
+        return files;
+    }
+
+    /**
+     * @return the number of classifiers that were added or updated
+     */
+    int getClassifiers() {
+        return classifiers;
+    }
+
+    /**
+     * @return the number of operations and attributes that were added or
+     *         updated
+     */
+    int getFeatures() {
+        return features;
+    }
+
+    /**
+     * @return the totals of the session, as one line
+     */
+    String getSummary() {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("Imported ").append(files).append(" files: ");
+        sb.append(classifiers).append(" classifiers, ");
+        sb.append(features).append(" features, ");
+        sb.append(getResolutions()).append(" types resolved (");
+        sb.append(resolutionCache.getHits()).append(" cache hits); ");
+        sb.append("parse ").append(millis(parseNanos)).append(" ms, ");
+        sb.append("model ").append(millis(modelNanos)).append(" ms");
+        if (parseAndModelNanos > 0) {
+            sb.append(", parse and model ");
+            sb.append(millis(parseAndModelNanos)).append(" ms");
+        }
+        return sb.toString();
+    }
+
+    private long getResolutions() {
+        return resolutionCache.getHits() + resolutionCache.getMisses();
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1000000;
+    }
+}
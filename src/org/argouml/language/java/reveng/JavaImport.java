@@ -39,22 +39,30 @@
 package org.argouml.language.java.reveng;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.antlr.runtime.ANTLRReaderStream;
+import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
 import org.argouml.i18n.Translator;
 import org.argouml.kernel.Project;
 import org.argouml.language.java.JavaModuleGlobals;
@@ -62,6 +70,7 @@ import org.argouml.model.IllegalModelElementConnectionException;
 import org.argouml.moduleloader.ModuleInterface;
 import org.argouml.profile.Profile;
 import org.argouml.taskmgmt.ProgressMonitor;
+import org.argouml.ui.targetmanager.TargetManager;
 import org.argouml.uml.reveng.FileImportUtils;
 import org.argouml.uml.reveng.ImportClassLoader;
 import org.argouml.uml.reveng.ImportInterface;
@@ -93,6 +102,28 @@ public class JavaImport implements ModuleInterface, ImportInterface {
      */
     private Collection<Object> newElements;
 
+    /**
+     * The cache for parsed source files, or null.
+     */
+    private ParseCache parseCache;
+
+    /**
+     * The manifest of the imported files for an incremental import, or
+     * null.
+     */
+    private ImportManifest manifest;
+
+    /**
+     * The state of the import session, shared by its modellers.
+     */
+    private ModellerSession session;
+
+    /**
+     * The number of files per parser thread that may be parsed ahead of the
+     * file that is being modelled.
+     */
+    private static final int PARSE_AHEAD = 4;
+
     /*
      * @see org.argouml.uml.reveng.ImportInterface#parseFiles(org.argouml.kernel.Project,
      *      java.util.Collection, org.argouml.uml.reveng.ImportSettings,
@@ -104,31 +135,98 @@ public class JavaImport implements ModuleInterface, ImportInterface {
 
         JavaImportSettings.getInstance().saveSettings();
         updateImportClassloader();
+        ClasspathIndex.startSession();
         newElements = new HashSet<Object>();
         monitor.updateMainTask(Translator.localize("dialog.import.pass1"));
 
         // get the Java profile from project, if available
         javaProfile = getJavaProfile(p);
 
+        File cacheDirectory =
+            JavaImportSettings.getInstance().getParseCacheDirectory();
+        if (cacheDirectory != null) {
+            parseCache = new ParseCache(cacheDirectory, JavaImportSettings
+                    .getInstance().getParseCacheSize());
+        }
+
+        session = new ModellerSession(p.getUserDefinedModelList().get(0),
+                javaProfile,
+                JavaImportSettings.getInstance().isAttributeSelected(),
+                JavaImportSettings.getInstance().isDatatypeSelected());
+        session.setJavadocMode(
+                JavaImportSettings.getInstance().getJavadocMode());
+        if (JavaImportSettings.getInstance().isProfilerSelected()) {
+            session.setProfiler(new ImportProfiler());
+        }
+
+        Collection<File> toImport = files;
+        if (JavaImportSettings.getInstance().isIncrementalSelected()) {
+            manifest = new ImportManifest(p.getUserDefinedModelList().get(0));
+            int removed = manifest.removeDeletedFiles(files);
+            toImport = manifest.getChangedFiles(files);
+            LOG.info("Incremental import: " + toImport.size() + " of "
+                    + files.size() + " files changed, " + removed
+                    + " deleted files removed");
+        }
+
+        session.beginBatch(
+                JavaImportSettings.getInstance().isModelEventsSuspended());
         try {
-            if ((settings.getImportLevel() 
+            boolean twoPasses = (settings.getImportLevel() 
                     == ImportSettings.DETAIL_CLASSIFIER_FEATURE)
-                || settings.getImportLevel() == ImportSettings.DETAIL_FULL) {
-                monitor.setMaximumProgress(files.size() * 2);
-                doImportPass(p, files, settings, monitor, 0, 0);
+                || settings.getImportLevel() == ImportSettings.DETAIL_FULL;
+            if (twoPasses
+                    && JavaImportSettings.getInstance().isSingleParseSelected()) {
+                monitor.setMaximumProgress(toImport.size() * 2);
+                List<RecordingModeller> recordings =
+                    new ArrayList<RecordingModeller>(toImport.size());
+                // each file is counted once, in the last pass
+                session.getStatistics().setCounting(false);
+                doRecordingImportPass(p, toImport, settings, monitor, 0, 0,
+                        recordings);
+                if (!monitor.isCanceled()) {
+                    monitor.updateMainTask(Translator
+                            .localize("dialog.import.pass2"));
+                    session.getStatistics().setCounting(true);
+                    doReplayImportPass(p, toImport, settings, monitor,
+                            toImport.size(), recordings);
+                }
+            } else if (twoPasses) {
+                monitor.setMaximumProgress(toImport.size() * 2);
+                session.getStatistics().setCounting(false);
+                doImportPass(p, toImport, settings, monitor, 0, 0);
                 if (!monitor.isCanceled()) {
                     monitor.updateMainTask(Translator
                             .localize("dialog.import.pass2"));
-                    doImportPass(p, files, settings, monitor, files.size(), 1);
+                    session.getStatistics().setCounting(true);
+                    doImportPass(p, toImport, settings, monitor,
+                            toImport.size(), 1);
                 }
             } else {
-                monitor.setMaximumProgress(files.size() * 2);
-                doImportPass(p, files, settings, monitor, 0, 0);
+                monitor.setMaximumProgress(toImport.size() * 2);
+                doImportPass(p, toImport, settings, monitor, 0, 0);
             }
             
+            if (manifest != null && !monitor.isCanceled()) {
+                manifest.commit();
+            }
             ModelUtil.generatePackageDependencies(p);
         } catch (IllegalModelElementConnectionException e) {
         } finally {
+            session.endBatch();
+            if (parseCache != null) {
+                LOG.info("Parse cache: " + parseCache.getHits()
+                        + " files found, " + parseCache.getMisses()
+                        + " files parsed");
+                parseCache = null;
+            }
+            manifest = null;
+            LOG.info(session.getStatistics().getSummary());
+            if (session.getProfiler() != null) {
+                session.getProfiler().report(p, "java");
+            }
+            session = null;
+            ClasspathIndex.endSession();
             //this prevents parse problems to be displayed, so I disabled it:
             // --thn
             //monitor.close();
@@ -140,6 +238,14 @@ public class JavaImport implements ModuleInterface, ImportInterface {
             ImportSettings settings, ProgressMonitor monitor, int startCount,
             int pass) {
 
+        // the cache is only used for recorded parses
+        int threads = JavaImportSettings.getInstance().getParserThreads();
+        if (parseCache != null || (threads > 1 && files.size() > 1)) {
+            doRecordingImportPass(p, files, settings, monitor, startCount,
+                    pass, null);
+            return;
+        }
+
         int count = startCount;
         for (File file : files) {
             if (monitor.isCanceled()) {
@@ -150,17 +256,149 @@ public class JavaImport implements ModuleInterface, ImportInterface {
             try {
                 parseFile(p, file, settings, pass);
             } catch (Exception e) {
-                StringWriter sw = new StringWriter();
-                PrintWriter pw = new java.io.PrintWriter(sw);
-                e.printStackTrace(pw);
-                monitor.notifyMessage(
-                    Translator.localize(
-                            "dialog.title.import-problems"), //$NON-NLS-1$
-                    Translator.localize("label.import-problems"), //$NON-NLS-1$
-                    sw.toString());
+                setFailed(file);
+                reportProblem(monitor, e);
+                if (monitor.isCanceled()) {
+                    break;
+                }
+            }
+            monitor.updateProgress(count++);
+            monitor.updateSubTask(Translator.localize(
+                    "dialog.import.parsingAction", 
+                    new Object[] { 
+                        file.getAbsolutePath() 
+                    }));
+        }
+    }
+
+    /**
+     * Do a single import pass with parser threads. The files are lexed and
+     * parsed concurrently, each one into a {@link RecordingModeller}. The
+     * calling thread is the only one that touches the model: it replays the
+     * recorded parser callbacks into a real {@link Modeller}, one file at a
+     * time and in the order of <code>files</code>, so the resulting model is
+     * the same as with a single thread.
+     * <p>
+     * At most <code>threads * PARSE_AHEAD</code> files are parsed ahead of
+     * the file that is modelled, to limit the memory used for recordings.
+     * <p>
+     * If <code>recordings</code> is given, this is the first of two passes,
+     * but each file is parsed for the second pass. The recordings are
+     * replayed as the first pass would have parsed them, and kept for
+     * {@link #doReplayImportPass}, so no file needs to be parsed twice.
+     * 
+     * @param p the project
+     * @param files the source files
+     * @param settings the user provided import settings
+     * @param monitor the progress monitor
+     * @param startCount the progress count at the start of this pass
+     * @param pass current import pass
+     * @param recordings the list to add the recordings to in file order, or
+     *            null if they are not needed after this pass
+     */
+    private void doRecordingImportPass(Project p, Collection<File> files,
+            ImportSettings settings, ProgressMonitor monitor, int startCount,
+            int pass, List<RecordingModeller> recordings) {
+
+        // Read the settings here, they might not be thread safe
+        String encoding = settings.getInputSourceEncoding();
+        int parsePass = (recordings == null) ? pass : 1;
+        int parserMode = getParserMode(parsePass);
+        int parseLevel = getLevel(settings, parsePass);
+        int level = getLevel(settings, pass);
+        int threads = JavaImportSettings.getInstance().getParserThreads();
+
+        int total = files.size();
+        AtomicInteger parsed = new AtomicInteger();
+        int modelled = 0;
+        Iterator<File> toParse = files.iterator();
+        LinkedList<Future<RecordingModeller>> pending =
+            new LinkedList<Future<RecordingModeller>>();
+        LinkedList<File> pendingFiles = new LinkedList<File>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            while (toParse.hasNext() || !pending.isEmpty()) {
+                while (toParse.hasNext()
+                        && pending.size() < threads * PARSE_AHEAD) {
+                    File file = toParse.next();
+                    pending.add(executor.submit(createParseTask(file,
+                            encoding, parserMode, parseLevel, parsed)));
+                    pendingFiles.add(file);
+                }
+                if (monitor.isCanceled()) {
+                    monitor.updateSubTask(Translator
+                            .localize("dialog.import.cancelled"));
+                    return;
+                }
+                File file = pendingFiles.removeFirst();
+                try {
+                    RecordingModeller recorder = getResult(pending
+                            .removeFirst());
+                    if (recordings != null) {
+                        recordings.add(recorder);
+                    }
+                    applyRecording(p, file, recorder, encoding, level,
+                            recordings != null);
+                } catch (Exception e) {
+                    setFailed(file);
+                    reportProblem(monitor, e);
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                }
+                modelled++;
+                monitor.updateProgress(startCount + modelled);
+                monitor.updateSubTask(Translator.localize(
+                        "java.import.parallel-progress",
+                        new Object[] {
+                            Integer.valueOf(parsed.get()),
+                            Integer.valueOf(modelled),
+                            Integer.valueOf(total),
+                            file.getAbsolutePath()
+                        }));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Do the second of two import passes by replaying the recordings of
+     * {@link #doRecordingImportPass}, without parsing the files again.
+     * 
+     * @param p the project
+     * @param files the source files
+     * @param settings the user provided import settings
+     * @param monitor the progress monitor
+     * @param startCount the progress count at the start of this pass
+     * @param recordings the recordings of the files, in file order
+     */
+    private void doReplayImportPass(Project p, Collection<File> files,
+            ImportSettings settings, ProgressMonitor monitor, int startCount,
+            List<RecordingModeller> recordings) {
+
+        String encoding = settings.getInputSourceEncoding();
+        int level = getLevel(settings, 1);
+        int count = startCount;
+        int i = 0;
+        for (File file : files) {
+            if (monitor.isCanceled()) {
+                monitor.updateSubTask(Translator
+                        .localize("dialog.import.cancelled"));
+                return;
+            }
+            try {
+                applyRecording(p, file, recordings.get(i), encoding, level,
+                        false);
+            } catch (Exception e) {
+                setFailed(file);
+                reportProblem(monitor, e);
                 if (monitor.isCanceled()) {
                     break;
                 }
+            } finally {
+                // not needed anymore
+                recordings.set(i++, null);
             }
             monitor.updateProgress(count++);
             monitor.updateSubTask(Translator.localize(
@@ -171,6 +409,197 @@ public class JavaImport implements ModuleInterface, ImportInterface {
         }
     }
 
+    /**
+     * Create a task that parses a single file into a recording, without
+     * touching the model. If the file is in the parse cache, the recording
+     * is loaded from there instead.
+     */
+    private Callable<RecordingModeller> createParseTask(final File f,
+            final String encoding, final int parserMode, final int level,
+            final AtomicInteger parsed) {
+        final ParseCache cache = parseCache;
+        final ImportProfiler profiler = session.getProfiler();
+        return new Callable<RecordingModeller>() {
+            public RecordingModeller call() {
+                long start = System.nanoTime();
+                RecordingModeller recorder =
+                    new RecordingModeller(f.getName());
+                try {
+                    long[] read = null;
+                    if (profiler != null) {
+                        profiler.begin(f.getPath());
+                        read = profiler.start();
+                    }
+                    CharBuffer source = JavaSourceReader.read(f, encoding);
+                    String key = null;
+                    RecordingModeller cached = null;
+                    if (cache != null) {
+                        key = cache.getKey(source, parserMode, level);
+                        cached = cache.load(key, f.getName());
+                    }
+                    if (profiler != null) {
+                        // loading from the parse cache counts as reading
+                        profiler.stop(ImportProfiler.READ, read);
+                    }
+                    if (cached != null) {
+                        recorder = cached;
+                        recorder.setSource(source.array(), source.limit());
+                    } else {
+                        recorder.setSource(source.array(), source.limit());
+                        parse(source, parserMode, level, recorder,
+                                profiler);
+                        if (cache != null) {
+                            cache.store(key, recorder);
+                        }
+                    }
+                } catch (Exception e) {
+                    // keep what was recorded so far, it is modelled
+                    // before the problem is reported, as with one thread
+                    recorder.setFailure(e);
+                } finally {
+                    recorder.setParseTime(System.nanoTime() - start);
+                    parsed.incrementAndGet();
+                }
+                return recorder;
+            }
+        };
+    }
+
+    private RecordingModeller getResult(Future<RecordingModeller> future)
+        throws ImportException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            throw new ImportException("Parser thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * Replay the recorded parse of a single file into the model.
+     * 
+     * @param p the project
+     * @param f the source file
+     * @param recorder the recorded parser callbacks
+     * @param encoding the source file encoding
+     * @param level the import level, see {@link #getLevel}
+     * @param firstPass true to replay the recording of a parse for the
+     *            second pass as the first pass, the source text is released
+     *            afterwards. If the file changed when it is read again for
+     *            the second pass, it is parsed again instead of replayed.
+     */
+    private void applyRecording(Project p, File f, RecordingModeller recorder,
+            String encoding, int level, boolean firstPass)
+        throws ImportException {
+
+        Modeller modeller = createModeller(p, f);
+        modeller.setAttribute("level", Integer.valueOf(level));
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Modelling " + f.getAbsolutePath());
+        }
+        ImportStatistics statistics = session.getStatistics();
+        statistics.startFile(f.getName());
+        // the parse is counted when the recording is replayed first
+        statistics.addParseTime(recorder.getParseTime());
+        recorder.setParseTime(0);
+        ImportProfiler profiler = session.getProfiler();
+        long[] modelStart = null;
+        if (profiler != null) {
+            profiler.begin(f.getPath());
+            modelStart = profiler.start();
+        }
+        long start = System.nanoTime();
+        try {
+            char[] source = recorder.getSource();
+            int length = recorder.getSourceLength();
+            boolean needed = session.getJavadocMode()
+                == ModellerSession.JAVADOC_DEFERRED
+                || (!firstPass && recorder.isSourceNeeded());
+            boolean changed = false;
+            if (source == null && needed) {
+                CharBuffer text = JavaSourceReader.read(f, encoding);
+                source = text.array();
+                length = text.limit();
+                changed = !recorder.isSameSource(source, length);
+            }
+            setDeferredJavadoc(modeller, f, encoding, source, length);
+            Exception failure = null;
+            if (firstPass) {
+                recorder.replayFirstPass(modeller, level > 0);
+                recorder.releaseSource();
+                failure = recorder.getFailure();
+            } else if (changed) {
+                // The file was saved since the first pass, the recording
+                // doesn't fit the text anymore.
+                LOG.warning(f.getAbsolutePath()
+                        + " changed during the import, parsing it again");
+                parse(CharBuffer.wrap(source, 0, length), getParserMode(1),
+                        level, modeller, profiler);
+            } else {
+                recorder.replay(modeller, source);
+                failure = recorder.getFailure();
+            }
+            if (failure instanceof IOException) {
+                throw new ImportException(buildErrorString(f), failure);
+            } else if (failure != null) {
+                throw failure;
+            }
+        } catch (ImportException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new ImportException(buildErrorString(f), e);
+        } catch (Exception e) {
+            String errorString = buildErrorString(f);
+            LOG.log(Level.SEVERE, 
+                    e.getClass().getName() + errorString,
+                    e);
+            throw new ImportException(errorString, e);
+        } finally {
+            statistics.addModelTime(System.nanoTime() - start);
+            statistics.endFile();
+            if (profiler != null) {
+                profiler.stop(ImportProfiler.MODEL, modelStart);
+            }
+            newElements.addAll(modeller.getNewElements());
+        }
+    }
+
+    /**
+     * Let a modeller find the javadoc comments in the source text, if the
+     * import defers them.
+     */
+    private void setDeferredJavadoc(Modeller modeller, File f,
+            String encoding, char[] source, int length) {
+        if (source != null && session.getJavadocMode()
+                == ModellerSession.JAVADOC_DEFERRED) {
+            modeller.setDeferredJavadoc(new DeferredJavadoc(f, encoding,
+                    CharBuffer.wrap(source, 0, length)));
+        }
+    }
+
+    /**
+     * Keep a file that failed out of the manifest of an incremental import,
+     * so it is imported again the next time.
+     */
+    private void setFailed(File f) {
+        if (manifest != null) {
+            manifest.setFailed(f);
+        }
+    }
+
+    private void reportProblem(ProgressMonitor monitor, Exception e) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new java.io.PrintWriter(sw);
+        e.printStackTrace(pw);
+        monitor.notifyMessage(
+            Translator.localize(
+                    "dialog.title.import-problems"), //$NON-NLS-1$
+            Translator.localize("label.import-problems"), //$NON-NLS-1$
+            sw.toString());
+    }
+
     /**
      * Do a single import pass of a single file.
      * 
@@ -183,70 +612,135 @@ public class JavaImport implements ModuleInterface, ImportInterface {
     private void parseFile(Project p, File f, ImportSettings settings, int pass)
         throws ImportException {
 
+        // Create a modeller for the parser
+        Modeller modeller = createModeller(p, f);
+
+        // The problems name the file, so its name is only traced.
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Parsing " + f.getAbsolutePath());
+        }
+
+        ImportStatistics statistics = session.getStatistics();
+        statistics.startFile(f.getName());
+        ImportProfiler profiler = session.getProfiler();
+        long start = System.nanoTime();
         try {
-            // Create a scanner that reads from the input stream
             String encoding = settings.getInputSourceEncoding();
-            FileInputStream in = new FileInputStream(f);
-            InputStreamReader isr;
-            try {
-                isr = new InputStreamReader(in, encoding);
-            } catch (UnsupportedEncodingException e) {
-                // fall back to default encoding
-                isr = new InputStreamReader(in);
-            }
-            JavaLexer lexer = new JavaLexer(new ANTLRReaderStream(isr));
-
-            // Create a parser that reads from the scanner
-            JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
-
-            // Pass == 0 means single pass recognition
-            int parserMode = JavaParser.MODE_IMPORT_PASS1
-                    | JavaParser.MODE_IMPORT_PASS2;
-            if (pass == 0) {
-                parserMode = JavaParser.MODE_IMPORT_PASS1;
-            } else if (pass == 1) {
-                parserMode = JavaParser.MODE_IMPORT_PASS2;
+            long[] read = null;
+            if (profiler != null) {
+                profiler.begin(f.getPath());
+                read = profiler.start();
             }
-            parser.setParserMode(parserMode);
-
-            // Create a modeller for the parser
-            Modeller modeller = new Modeller(
-                    p.getUserDefinedModelList().get(0), javaProfile,
-                    JavaImportSettings.getInstance().isAttributeSelected(),
-                    JavaImportSettings.getInstance().isDatatypeSelected(), f
-                            .getName());
-
-            // Print the name of the current file, so we can associate
-            // exceptions to the file.
-            LOG.info("Parsing " + f.getAbsolutePath());
-
-            // Calculate the import level
-            int level = 0;
-            int importlevel = settings.getImportLevel();
-            if (importlevel == ImportSettings.DETAIL_CLASSIFIER_FEATURE) {
-                level = 1;
-            } else if (importlevel == ImportSettings.DETAIL_FULL) {
-                // full level only needed for the second pass
-                level = (pass == 0) ? 0 : 2;
-            }
-            modeller.setAttribute("level", Integer.valueOf(level));
-
-            try {
-                // start parsing at the compilationUnit rule
-                parser.compilationUnit(modeller, lexer);
-            } catch (Exception e) {
-                String errorString = buildErrorString(f);
-                LOG.log(Level.SEVERE, 
-                        e.getClass().getName() + errorString,
-                        e);
-                throw new ImportException(errorString, e);
-            } finally {
-                newElements.addAll(modeller.getNewElements());
-                in.close();
+            CharBuffer source = JavaSourceReader.read(f, encoding);
+            if (profiler != null) {
+                profiler.stop(ImportProfiler.READ, read);
             }
+            setDeferredJavadoc(modeller, f, encoding, source.array(),
+                    source.limit());
+            parse(source, getParserMode(pass), getLevel(settings, pass),
+                    modeller, profiler);
         } catch (IOException e) {
             throw new ImportException(buildErrorString(f), e);
+        } catch (Exception e) {
+            String errorString = buildErrorString(f);
+            LOG.log(Level.SEVERE, 
+                    e.getClass().getName() + errorString,
+                    e);
+            throw new ImportException(errorString, e);
+        } finally {
+            statistics.addParseAndModelTime(System.nanoTime() - start);
+            statistics.endFile();
+            newElements.addAll(modeller.getNewElements());
+        }
+    }
+
+    /**
+     * Lex and parse a single file. Everything the parser finds is passed to
+     * the given modeller, this method itself doesn't touch the model.
+     * 
+     * @param source the source text, as read by {@link JavaSourceReader}
+     * @param parserMode the parser mode
+     * @param level the import level, see {@link #getLevel}
+     * @param modeller the modeller for the parser
+     * @param profiler the profiler of the import, or null
+     */
+    private void parse(CharBuffer source, int parserMode, int level,
+            Modeller modeller, ImportProfiler profiler)
+        throws RecognitionException {
+
+        // Create a scanner that reads directly from the source text
+        JavaLexer lexer = new JavaLexer(
+                new ANTLRStringStream(source.array(), source.limit()));
+
+        // Create a parser that reads from the scanner
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        JavaParser parser = new JavaParser(tokens);
+        parser.setParserMode(parserMode);
+
+        modeller.setAttribute("level", Integer.valueOf(level));
+
+        if (profiler == null) {
+            // start parsing at the compilationUnit rule
+            parser.compilationUnit(modeller, lexer);
+            return;
+        }
+        // The token stream lexes the whole source when the parser asks for
+        // the first token, doing it here measures it apart. If the modeller
+        // updates the model directly, that is measured as parsing.
+        long[] start = profiler.start();
+        tokens.getTokens();
+        profiler.stop(ImportProfiler.LEX, start);
+        start = profiler.start();
+        try {
+            parser.compilationUnit(modeller, lexer);
+        } finally {
+            profiler.stop(ImportProfiler.PARSE, start);
+        }
+    }
+
+    private Modeller createModeller(Project p, File f) {
+        Modeller modeller = new Modeller(session, f.getName());
+        if (manifest != null) {
+            modeller.setAttribute(ImportManifest.ATTRIBUTE,
+                    manifest.getEntry(f));
+        }
+        return modeller;
+    }
+
+    /**
+     * @param pass current import pass
+     * @return the parser mode for the given pass
+     */
+    private int getParserMode(int pass) {
+        // Pass == 0 means single pass recognition
+        int parserMode = JavaParser.MODE_IMPORT_PASS1
+                | JavaParser.MODE_IMPORT_PASS2;
+        if (pass == 0) {
+            parserMode = JavaParser.MODE_IMPORT_PASS1;
+        } else if (pass == 1) {
+            parserMode = JavaParser.MODE_IMPORT_PASS2;
+        }
+        return parserMode;
+    }
+
+    /**
+     * Calculate the import level. 0 = classifiers only, 1 = classifiers and
+     * features, 2 = full import including method bodies.
+     * 
+     * @param settings the user provided import settings
+     * @param pass current import pass
+     * @return the level the parser and modeller work at
+     */
+    private int getLevel(ImportSettings settings, int pass) {
+        int level = 0;
+        int importlevel = settings.getImportLevel();
+        if (importlevel == ImportSettings.DETAIL_CLASSIFIER_FEATURE) {
+            level = 1;
+        } else if (importlevel == ImportSettings.DETAIL_FULL) {
+            // full level only needed for the second pass
+            level = (pass == 0) ? 0 : 2;
         }
+        return level;
     }
 
     private String buildErrorString(File f) {
@@ -318,6 +812,8 @@ public class JavaImport implements ModuleInterface, ImportInterface {
      */
     public boolean enable() {
         ImporterManager.getInstance().addImporter(this);
+        TargetManager.getInstance().addTargetListener(
+                new DeferredJavadoc.TargetResolver());
         return true;
     }
 
@@ -38,6 +38,7 @@
 
 package org.argouml.language.java.reveng;
 
+import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -75,6 +76,32 @@ public class JavaImportSettings {
 
     private SettingsTypes.PathListSelection pathlistSetting;
 
+    private SettingsTypes.UserString2 parserThreadsSetting;
+
+    private SettingsTypes.UniqueSelection2 singleParseSetting;
+
+    private SettingsTypes.UserString2 parseCacheSetting;
+
+    private SettingsTypes.UniqueSelection2 incrementalSetting;
+
+    private SettingsTypes.UserString2 parseCacheSizeSetting;
+
+    private SettingsTypes.UniqueSelection2 javadocSetting;
+
+    private SettingsTypes.UserString2 classfileIncludeSetting;
+
+    private SettingsTypes.UserString2 classfileExcludeSetting;
+
+    private SettingsTypes.UniqueSelection2 classfileVisibilitySetting;
+
+    private SettingsTypes.UniqueSelection2 classfileGeneratedSetting;
+
+    private SettingsTypes.UniqueSelection2 modelEventsSetting;
+
+    private SettingsTypes.UniqueSelection2 profilerSetting;
+
+    private SettingsTypes.UserString2 profilerSlowestSetting;
+
     /**
      * Key for RE extended settings: model attributes as: 0: attributes 1:
      * associations
@@ -129,6 +156,128 @@ public class JavaImportSettings {
         Configuration
             .makeKey("import", "extended", "java", "orderedcolls", "list");
 
+    /**
+     * Key for RE extended settings: number of threads that lex and parse
+     * source files. 1 means parsing on the import thread.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PARSER_THREADS =
+        Configuration
+            .makeKey("import", "extended", "java", "parser", "threads");
+
+    /**
+     * Key for RE extended settings: source files in a two pass import are
+     * parsed: 0: once, and the result is kept for the second pass 1: again
+     * in each pass
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PARSER_PASSES =
+        Configuration
+            .makeKey("import", "extended", "java", "parser", "passes");
+
+    /**
+     * Key for RE extended settings: directory of the cache for parsed source
+     * files, empty for no cache.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PARSER_CACHE =
+        Configuration
+            .makeKey("import", "extended", "java", "parser", "cache");
+
+    /**
+     * Key for RE extended settings: maximum size of the cache for parsed
+     * source files in MB.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PARSER_CACHESIZE =
+        Configuration
+            .makeKey("import", "extended", "java", "parser", "cachesize");
+
+    private static final int DEFAULT_PARSE_CACHE_SIZE = 64;
+
+    /**
+     * Key for RE extended settings: import 0: all files 1: only the files
+     * that changed since the last import
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_INCREMENTAL =
+        Configuration
+            .makeKey("import", "extended", "java", "incremental", "flag");
+
+    /**
+     * Key for RE extended settings: javadoc comments are 0: added as
+     * documentation 1: ignored 2: added when they are needed
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_JAVADOC =
+        Configuration
+            .makeKey("import", "extended", "java", "javadoc", "mode");
+
+    /**
+     * Key for RE extended settings: globs of the classes to import from
+     * classfiles, separated by commas, empty for all classes.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_CLASSFILE_INCLUDE =
+        Configuration
+            .makeKey("import", "extended", "java", "classfile", "include");
+
+    /**
+     * Key for RE extended settings: globs of the classes not to import from
+     * classfiles, separated by commas.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_CLASSFILE_EXCLUDE =
+        Configuration
+            .makeKey("import", "extended", "java", "classfile", "exclude");
+
+    /**
+     * Key for RE extended settings: import from classfiles 0: all classes
+     * 1: only public classes
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_CLASSFILE_VISIBILITY =
+        Configuration
+            .makeKey("import", "extended", "java", "classfile", "visibility");
+
+    /**
+     * Key for RE extended settings: classes that the compiler generated are
+     * 0: imported 1: skipped
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_CLASSFILE_GENERATED =
+        Configuration
+            .makeKey("import", "extended", "java", "classfile", "generated");
+
+    /**
+     * Key for RE extended settings: model events are 0: sent for each
+     * change 1: suspended until the end of the import
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_MODEL_EVENTS =
+        Configuration
+            .makeKey("import", "extended", "java", "model", "events");
+
+    /**
+     * Key for RE extended settings: the import is 0: not profiled
+     * 1: profiled, see {@link ImportProfiler}
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PROFILER =
+        Configuration
+            .makeKey("import", "extended", "java", "profiler", "flag");
+
+    /**
+     * Key for RE extended settings: the number of the slowest files in the
+     * report of a profiled import.
+     */
+    private static final ConfigurationKey
+    KEY_IMPORT_EXTENDED_PROFILER_SLOWEST =
+        Configuration
+            .makeKey("import", "extended", "java", "profiler", "slowest");
+
+    private static final int DEFAULT_PROFILER_SLOWEST = 20;
+
     /**
      * Gets the singleton instance.
      * 
@@ -175,6 +324,247 @@ public class JavaImportSettings {
         return pathlistSetting.getPathList();
     }
 
+    /**
+     * Returns the number of threads that lex and parse source files. The
+     * model is always updated from a single thread.
+     * 
+     * @return the number of parser threads, at least 1
+     */
+    public int getParserThreads() {
+        String threads;
+        if (parserThreadsSetting == null) {
+            threads = Configuration.getString(
+                    KEY_IMPORT_EXTENDED_PARSER_THREADS, "1");
+        } else {
+            threads = parserThreadsSetting.getUserString();
+        }
+        try {
+            return Math.max(1, Integer.parseInt(threads.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Returns if source files should be parsed only once in a two pass
+     * import. The result of the parse is kept in memory and replayed for
+     * the second pass. By default, the files are parsed in each pass.
+     * 
+     * @return true if source files should be parsed only once
+     */
+    public boolean isSingleParseSelected() {
+        if (singleParseSetting == null) {
+            return "0".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_PARSER_PASSES, "1"));
+        }
+        return singleParseSetting.getSelection() == 0;
+    }
+
+    /**
+     * Returns if only the source files that changed since the last import
+     * should be imported. Model elements of source files that were deleted
+     * are removed.
+     * 
+     * @return true for an incremental import
+     */
+    public boolean isIncrementalSelected() {
+        if (incrementalSetting == null) {
+            return "1".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_INCREMENTAL, "0"));
+        }
+        return incrementalSetting.getSelection() == 1;
+    }
+
+    /**
+     * Returns the directory of the cache for parsed source files. Unchanged
+     * source files that are found in the cache don't need to be parsed
+     * again.
+     * 
+     * @return the directory, or null if parsed files should not be cached
+     */
+    public File getParseCacheDirectory() {
+        String dir;
+        if (parseCacheSetting == null) {
+            dir = Configuration.getString(KEY_IMPORT_EXTENDED_PARSER_CACHE,
+                    "");
+        } else {
+            dir = parseCacheSetting.getUserString();
+        }
+        if (dir == null || dir.trim().length() == 0) {
+            return null;
+        }
+        return new File(dir.trim());
+    }
+
+    /**
+     * Returns the maximum size of the cache for parsed source files.
+     * 
+     * @return the maximum size in bytes
+     */
+    public long getParseCacheSize() {
+        String mb;
+        if (parseCacheSizeSetting == null) {
+            mb = Configuration.getString(KEY_IMPORT_EXTENDED_PARSER_CACHESIZE,
+                    String.valueOf(DEFAULT_PARSE_CACHE_SIZE));
+        } else {
+            mb = parseCacheSizeSetting.getUserString();
+        }
+        long size;
+        try {
+            size = Math.max(0, Long.parseLong(mb.trim()));
+        } catch (NumberFormatException e) {
+            size = DEFAULT_PARSE_CACHE_SIZE;
+        }
+        return size * 1024 * 1024;
+    }
+
+    /**
+     * Returns how javadoc comments are imported: as documentation and tagged
+     * values of the model elements, not at all, or only when the
+     * documentation is needed.
+     * 
+     * @return {@link ModellerSession#JAVADOC_EAGER},
+     *         {@link ModellerSession#JAVADOC_OFF} or
+     *         {@link ModellerSession#JAVADOC_DEFERRED}
+     */
+    public int getJavadocMode() {
+        int mode;
+        if (javadocSetting == null) {
+            try {
+                mode = Integer.parseInt(Configuration.getString(
+                        KEY_IMPORT_EXTENDED_JAVADOC, "0"));
+            } catch (NumberFormatException e) {
+                mode = ModellerSession.JAVADOC_EAGER;
+            }
+        } else {
+            mode = javadocSetting.getSelection();
+        }
+        if (mode == ModellerSession.JAVADOC_OFF
+                || mode == ModellerSession.JAVADOC_DEFERRED) {
+            return mode;
+        }
+        return ModellerSession.JAVADOC_EAGER;
+    }
+
+    /**
+     * Returns the globs of the classes to import from classfiles, like
+     * <code>com.example.api.**</code>.
+     * 
+     * @return the globs, empty to import all classes
+     */
+    public List<String> getClassfileIncludes() {
+        if (classfileIncludeSetting == null) {
+            return splitGlobs(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_CLASSFILE_INCLUDE, ""));
+        }
+        return splitGlobs(classfileIncludeSetting.getUserString());
+    }
+
+    /**
+     * Returns the globs of the classes not to import from classfiles.
+     * 
+     * @return the globs
+     */
+    public List<String> getClassfileExcludes() {
+        if (classfileExcludeSetting == null) {
+            return splitGlobs(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_CLASSFILE_EXCLUDE, ""));
+        }
+        return splitGlobs(classfileExcludeSetting.getUserString());
+    }
+
+    /**
+     * Returns if only the public classes should be imported from
+     * classfiles.
+     * 
+     * @return true to import only public classes
+     */
+    public boolean isPublicClassesSelected() {
+        if (classfileVisibilitySetting == null) {
+            return "1".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_CLASSFILE_VISIBILITY, "0"));
+        }
+        return classfileVisibilitySetting.getSelection() == 1;
+    }
+
+    /**
+     * Returns if the classes that the compiler generated should be skipped
+     * when importing classfiles. These are synthetic and anonymous
+     * classes, and the module-info and package-info classfiles.
+     * 
+     * @return true to skip generated classes
+     */
+    public boolean isGeneratedClassesSkipped() {
+        if (classfileGeneratedSetting == null) {
+            return "1".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_CLASSFILE_GENERATED, "0"));
+        }
+        return classfileGeneratedSetting.getSelection() == 1;
+    }
+
+    /**
+     * Returns if the model events should be suspended while importing. The
+     * explorer, the diagrams, the properties and the critics are told about
+     * the changes once, at the end of the import.
+     * 
+     * @return true to suspend the model events
+     */
+    public boolean isModelEventsSuspended() {
+        if (modelEventsSetting == null) {
+            return "1".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_MODEL_EVENTS, "0"));
+        }
+        return modelEventsSetting.getSelection() == 1;
+    }
+
+    /**
+     * Returns if the time and the allocations of the import should be
+     * measured, see {@link ImportProfiler}.
+     * 
+     * @return true to profile the import
+     */
+    public boolean isProfilerSelected() {
+        if (profilerSetting == null) {
+            return "1".equals(Configuration.getString(
+                    KEY_IMPORT_EXTENDED_PROFILER, "0"));
+        }
+        return profilerSetting.getSelection() == 1;
+    }
+
+    /**
+     * Returns how many of the slowest files the report of a profiled import
+     * lists.
+     * 
+     * @return the number of files
+     */
+    public int getProfilerSlowest() {
+        String slowest;
+        if (profilerSlowestSetting == null) {
+            slowest = Configuration.getString(
+                    KEY_IMPORT_EXTENDED_PROFILER_SLOWEST,
+                    String.valueOf(DEFAULT_PROFILER_SLOWEST));
+        } else {
+            slowest = profilerSlowestSetting.getUserString();
+        }
+        try {
+            return Math.max(0, Integer.parseInt(slowest.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PROFILER_SLOWEST;
+        }
+    }
+
+    private static List<String> splitGlobs(String globs) {
+        List<String> result = new ArrayList<String>();
+        if (globs != null) {
+            for (String glob : globs.split("[,;\\s]+")) {
+                if (glob.length() > 0) {
+                    result.add(glob);
+                }
+            }
+        }
+        return result;
+    }
+
     /*
      * Provides the implementation of
      * org.argouml.uml.reveng.ImportInterface#getImportSettings() for
@@ -227,6 +617,129 @@ public class JavaImportSettings {
                 .localize("dialog.import.classpath.text"), paths);
         settingsList.add(pathlistSetting);
 
+        parserThreadsSetting = new Setting.UserString(Translator
+                .localize("java.import.parser-threads"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_PARSER_THREADS, "1"));
+        settingsList.add(parserThreadsSetting);
+
+        options.clear();
+        options.add(Translator.localize("java.import.parser-passes.once"));
+        options.add(Translator.localize("java.import.parser-passes.each"));
+
+        String passes = Configuration.getString(
+                KEY_IMPORT_EXTENDED_PARSER_PASSES, "1");
+        selected = Integer.parseInt(passes);
+
+        singleParseSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.parser-passes"), options, selected);
+        settingsList.add(singleParseSetting);
+
+        options.clear();
+        options.add(Translator.localize("java.import.incremental.all"));
+        options.add(Translator.localize("java.import.incremental.changed"));
+
+        String incremental = Configuration.getString(
+                KEY_IMPORT_EXTENDED_INCREMENTAL, "0");
+        selected = Integer.parseInt(incremental);
+
+        incrementalSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.incremental"), options, selected);
+        settingsList.add(incrementalSetting);
+
+        parseCacheSetting = new Setting.UserString(Translator
+                .localize("java.import.parser-cache"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_PARSER_CACHE, ""));
+        settingsList.add(parseCacheSetting);
+
+        parseCacheSizeSetting = new Setting.UserString(Translator
+                .localize("java.import.parser-cache-size"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_PARSER_CACHESIZE,
+                        String.valueOf(DEFAULT_PARSE_CACHE_SIZE)));
+        settingsList.add(parseCacheSizeSetting);
+
+        options.clear();
+        options.add(Translator.localize("java.import.javadoc.eager"));
+        options.add(Translator.localize("java.import.javadoc.off"));
+        options.add(Translator.localize("java.import.javadoc.deferred"));
+
+        String javadoc = Configuration.getString(
+                KEY_IMPORT_EXTENDED_JAVADOC, "0");
+        selected = Integer.parseInt(javadoc);
+
+        javadocSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.javadoc"), options, selected);
+        settingsList.add(javadocSetting);
+
+        classfileIncludeSetting = new Setting.UserString(Translator
+                .localize("java.import.classfile-include"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_CLASSFILE_INCLUDE, ""));
+        settingsList.add(classfileIncludeSetting);
+
+        classfileExcludeSetting = new Setting.UserString(Translator
+                .localize("java.import.classfile-exclude"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_CLASSFILE_EXCLUDE, ""));
+        settingsList.add(classfileExcludeSetting);
+
+        options.clear();
+        options.add(Translator
+                .localize("java.import.classfile-visibility.all"));
+        options.add(Translator
+                .localize("java.import.classfile-visibility.public"));
+
+        String visibility = Configuration.getString(
+                KEY_IMPORT_EXTENDED_CLASSFILE_VISIBILITY, "0");
+        selected = Integer.parseInt(visibility);
+
+        classfileVisibilitySetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.classfile-visibility"), options,
+                selected);
+        settingsList.add(classfileVisibilitySetting);
+
+        options.clear();
+        options.add(Translator
+                .localize("java.import.classfile-generated.import"));
+        options.add(Translator
+                .localize("java.import.classfile-generated.skip"));
+
+        String generated = Configuration.getString(
+                KEY_IMPORT_EXTENDED_CLASSFILE_GENERATED, "0");
+        selected = Integer.parseInt(generated);
+
+        classfileGeneratedSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.classfile-generated"), options,
+                selected);
+        settingsList.add(classfileGeneratedSetting);
+
+        options.clear();
+        options.add(Translator.localize("java.import.model-events.each"));
+        options.add(Translator.localize("java.import.model-events.suspend"));
+
+        String modelEvents = Configuration.getString(
+                KEY_IMPORT_EXTENDED_MODEL_EVENTS, "0");
+        selected = Integer.parseInt(modelEvents);
+
+        modelEventsSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.model-events"), options, selected);
+        settingsList.add(modelEventsSetting);
+
+        options.clear();
+        options.add(Translator.localize("java.import.profiler.off"));
+        options.add(Translator.localize("java.import.profiler.on"));
+
+        String profiler = Configuration.getString(
+                KEY_IMPORT_EXTENDED_PROFILER, "0");
+        selected = Integer.parseInt(profiler);
+
+        profilerSetting = new Setting.UniqueSelection(Translator
+                .localize("java.import.profiler"), options, selected);
+        settingsList.add(profilerSetting);
+
+        profilerSlowestSetting = new Setting.UserString(Translator
+                .localize("java.import.profiler-slowest"), Configuration
+                .getString(KEY_IMPORT_EXTENDED_PROFILER_SLOWEST,
+                        String.valueOf(DEFAULT_PROFILER_SLOWEST)));
+        settingsList.add(profilerSlowestSetting);
+
         return settingsList;
     }
 
@@ -242,6 +755,59 @@ public class JavaImportSettings {
             Configuration.setString(KEY_IMPORT_EXTENDED_MODEL_ARRAYS, String
                 .valueOf(datatypeSetting.getSelection()));
         }
+        if (singleParseSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_PARSER_PASSES, String
+                .valueOf(singleParseSetting.getSelection()));
+        }
+        if (incrementalSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_INCREMENTAL, String
+                .valueOf(incrementalSetting.getSelection()));
+        }
+        if (parseCacheSetting != null) {
+            File dir = getParseCacheDirectory();
+            Configuration.setString(KEY_IMPORT_EXTENDED_PARSER_CACHE,
+                dir == null ? "" : dir.getPath());
+        }
+        if (parseCacheSizeSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_PARSER_CACHESIZE,
+                String.valueOf(getParseCacheSize() / (1024 * 1024)));
+        }
+        if (parserThreadsSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_PARSER_THREADS,
+                String.valueOf(getParserThreads()));
+        }
+        if (javadocSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_JAVADOC,
+                String.valueOf(javadocSetting.getSelection()));
+        }
+        if (classfileIncludeSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_CLASSFILE_INCLUDE,
+                classfileIncludeSetting.getUserString().trim());
+        }
+        if (classfileExcludeSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_CLASSFILE_EXCLUDE,
+                classfileExcludeSetting.getUserString().trim());
+        }
+        if (classfileVisibilitySetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_CLASSFILE_VISIBILITY,
+                String.valueOf(classfileVisibilitySetting.getSelection()));
+        }
+        if (classfileGeneratedSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_CLASSFILE_GENERATED,
+                String.valueOf(classfileGeneratedSetting.getSelection()));
+        }
+        if (modelEventsSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_MODEL_EVENTS,
+                String.valueOf(modelEventsSetting.getSelection()));
+        }
+        if (profilerSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_PROFILER,
+                String.valueOf(profilerSetting.getSelection()));
+        }
+        if (profilerSlowestSetting != null) {
+            Configuration.setString(KEY_IMPORT_EXTENDED_PROFILER_SLOWEST,
+                String.valueOf(getProfilerSlowest()));
+        }
     }
 
 }
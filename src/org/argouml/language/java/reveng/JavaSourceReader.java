@@ -0,0 +1,155 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+/**
+ * Reads the text of a Java source file in one go. The bytes of the file are
+ * decoded once into a char array that is sized up front, and that array can
+ * be given to the lexer as it is, with
+ * <code>new ANTLRStringStream(text.array(), text.limit())</code>.
+ * <p>
+ * Large files are memory mapped instead of copied into the heap before they
+ * are decoded. Malformed input is replaced, just like an
+ * {@link java.io.InputStreamReader} does.
+ */
+final class JavaSourceReader {
+
+    /**
+     * Files smaller than this are read instead of mapped, mapping them is
+     * slower.
+     */
+    private static final int MAP_THRESHOLD = 64 * 1024;
+
+    private JavaSourceReader() {
+    }
+
+    /**
+     * Read the complete text of a source file.
+     *
+     * @param f the source file
+     * @param encoding the name of the encoding of the file; if it is not
+     *            supported, the default encoding is used
+     * @return the text, from position 0 up to the limit of the buffer, which
+     *         is backed by an array
+     * @throws IOException if the file can't be read
+     */
+    static CharBuffer read(File f, String encoding) throws IOException {
+        FileInputStream in = new FileInputStream(f);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + f);
+            }
+            ByteBuffer bytes;
+            if (size >= MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) != -1) {
+                    // keep reading
+                }
+                bytes.flip();
+            }
+            return decode(bytes, getCharset(encoding));
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Decode bytes into a buffer that is backed by an array.
+     *
+     * @param bytes the bytes to decode
+     * @param charset the charset of the bytes
+     * @return the text, from position 0 up to the limit of the buffer
+     * @throws CharacterCodingException never, malformed input is replaced
+     */
+    static CharBuffer decode(ByteBuffer bytes, Charset charset)
+        throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(
+                (int) (bytes.remaining() * decoder.maxCharsPerByte()) + 1);
+        for (;;) {
+            CoderResult result = bytes.hasRemaining()
+                ? decoder.decode(bytes, chars, true) : CoderResult.UNDERFLOW;
+            if (result.isUnderflow()) {
+                result = decoder.flush(chars);
+            }
+            if (result.isUnderflow()) {
+                break;
+            }
+            if (result.isOverflow()) {
+                CharBuffer larger = CharBuffer.allocate(
+                        chars.capacity() * 2 + 1);
+                chars.flip();
+                larger.put(chars);
+                chars = larger;
+            } else {
+                result.throwException();
+            }
+        }
+        chars.flip();
+        return chars;
+    }
+
+    /**
+     * Hash a source text, to find out whether a file that is read again
+     * still has the text that was parsed.
+     *
+     * @param text the source text
+     * @return the hash of the text, as {@link String#hashCode()}
+     */
+    static int hash(CharSequence text) {
+        int h = 0;
+        for (int i = 0; i < text.length(); i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        return h;
+    }
+
+    /**
+     * @param encoding the name of a charset
+     * @return the charset, or the default charset if the name is not
+     *         supported
+     */
+    static Charset getCharset(String encoding) {
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalCharsetNameException e) {
+                // fall back to default encoding
+            } catch (UnsupportedCharsetException e) {
+                // fall back to default encoding
+            }
+        }
+        return Charset.defaultCharset();
+    }
+}
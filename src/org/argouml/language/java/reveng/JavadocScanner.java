@@ -0,0 +1,212 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a javadoc comment into its text and its block tags, in one pass
+ * over the comment. The text and the tag contents are appended to buffers
+ * that are reused for the next comment, so a comment is not copied line by
+ * line.
+ * <p>
+ * The text is the comment without the comment delimiters and the leading
+ * asterisks of the lines, and it includes the lines of the block tags. The
+ * contents of a tag are the rest of its line after the tag name, and the
+ * lines that follow up to the next tag, each joined with a space.
+ * <p>
+ * A scanner is not thread safe. The {@link Modeller}s of an import session
+ * share the scanner of the {@link ModellerSession}.
+ */
+class JavadocScanner {
+
+    private final StringBuilder text = new StringBuilder(256);
+
+    private final List<String> tagNames = new ArrayList<String>();
+
+    /**
+     * The contents of the tags, the buffers of more tags than
+     * {@link #tagCount} are kept for reuse.
+     */
+    private final List<StringBuilder> tagData =
+        new ArrayList<StringBuilder>();
+
+    private int tagCount;
+
+    /**
+     * Scan a javadoc comment. The results replace those of the previous
+     * comment.
+     *
+     * @param javadoc the comment, starting with <code>/**</code>
+     */
+    void scan(CharSequence javadoc) {
+        text.setLength(0);
+        tagNames.clear();
+        tagCount = 0;
+
+        int length = javadoc.length();
+        // a tag name at the very end stops before the comment delimiter
+        int nameLimit = endsWith(javadoc, "*/") ? length - 2 : length;
+        StringBuilder data = null;
+        int pos = 3; // skip the leading /**
+        boolean hadAsterisk = true;
+        while (pos < length) {
+            char c = javadoc.charAt(pos);
+            if (c == '*') {
+                hadAsterisk = true;
+                pos++;
+                continue;
+            }
+            if ((c == ' ' || c == '\t') && !hadAsterisk) {
+                // white space before the first asterisk of a line
+                pos++;
+                continue;
+            }
+            hadAsterisk = false;
+            int start = skipBlanks(javadoc, pos);
+            if (start == length) {
+                continue;
+            }
+            if (javadoc.charAt(start) == '@') {
+                int newline = indexOf(javadoc, '\n', start);
+                int lineEnd = newline < 0 ? length : newline + 1;
+                // the last line still ends with the comment delimiter
+                text.append(javadoc, start, newline < 0
+                        ? Math.max(start, length - 2) : lineEnd);
+                int nameEnd = start + 1;
+                while (nameEnd < nameLimit
+                        && !Character.isWhitespace(javadoc.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                data = startTag(javadoc.subSequence(start + 1, nameEnd)
+                        .toString());
+                if (nameEnd < lineEnd && javadoc.charAt(nameEnd) != '\n') {
+                    // the blank after the name
+                    nameEnd++;
+                }
+                if (nameEnd < lineEnd) {
+                    data.append(javadoc, nameEnd, lineEnd);
+                }
+                pos = Math.max(lineEnd, nameEnd);
+            } else {
+                // continue the text or the tag
+                int newline = indexOf(javadoc, '\n', pos);
+                int lineEnd = newline < 0 ? length : newline + 1;
+                text.append(javadoc, pos, lineEnd);
+                if (data != null) {
+                    data.append(' ').append(javadoc, pos, lineEnd);
+                }
+                pos = lineEnd;
+            }
+        }
+
+        // The text or the last tag still ends with the closing slash.
+        removeTrailingSlash(text);
+        if (data != null) {
+            removeTrailingSlash(data);
+        }
+    }
+
+    /**
+     * @return the text of the comment, with the lines of the tags
+     */
+    String getText() {
+        return text.toString();
+    }
+
+    /**
+     * @return the number of block tags of the comment
+     */
+    int getTagCount() {
+        return tagCount;
+    }
+
+    /**
+     * @param index the index of a tag, in the order of the comment
+     * @return the name of the tag, without the <code>@</code>
+     */
+    String getTagName(int index) {
+        return tagNames.get(index);
+    }
+
+    /**
+     * @param index the index of a tag, in the order of the comment
+     * @return the contents of the tag
+     */
+    String getTagData(int index) {
+        return tagData.get(index).toString();
+    }
+
+    private StringBuilder startTag(String name) {
+        tagNames.add(name);
+        StringBuilder data;
+        if (tagCount < tagData.size()) {
+            data = tagData.get(tagCount);
+            data.setLength(0);
+        } else {
+            data = new StringBuilder(64);
+            tagData.add(data);
+        }
+        tagCount++;
+        return data;
+    }
+
+    private static int skipBlanks(CharSequence s, int from) {
+        int i = from;
+        while (i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOf(CharSequence s, char c, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean endsWith(CharSequence s, String suffix) {
+        int offset = s.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (s.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove a trailing slash, including the entire line if it's the only
+     * thing on the line, or the comment delimiter.
+     */
+    private static void removeTrailingSlash(StringBuilder s) {
+        int length = s.length();
+        if (length == 0 || s.charAt(length - 1) != '/') {
+            return;
+        }
+        if (length >= 2 && (s.charAt(length - 2) == '\n'
+                || s.charAt(length - 2) == '*')) {
+            s.setLength(length - 2);
+        } else {
+            s.setLength(length - 1);
+        }
+    }
+}
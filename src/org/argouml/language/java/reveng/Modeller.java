@@ -68,8 +68,11 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.logging.Level;
@@ -183,6 +186,27 @@ public class Modeller {
      */
     private Collection<Object> newElements;
 
+    /**
+     * The state that is shared by the modellers of an import session.
+     */
+    private ModellerSession session;
+
+    /**
+     * The resolutions of type names to classifiers of the session.
+     */
+    private ResolutionCache resolutionCache;
+
+    /**
+     * The classes of the namespaces by name of the session.
+     */
+    private NamespaceIndex namespaceIndex;
+
+    /**
+     * Finds the javadoc comments in the source if they are deferred, or
+     * null.
+     */
+    private DeferredJavadoc deferredJavadoc;
+
     /**
      * Flag to control generation of artificial names for associations. If true,
      * generate names of form "From->To". If false, set name to null.
@@ -219,13 +243,34 @@ public class Modeller {
     public Modeller(Object theModel, Profile theJavaProfile,
             boolean attributeSelected, boolean datatypeSelected,
             String theFileName) {
-        model = theModel;
-        javaProfile = theJavaProfile;
-        noAssociations = attributeSelected;
-        arraysAsDatatype = datatypeSelected;
+        this(new ModellerSession(theModel, theJavaProfile, attributeSelected,
+                datatypeSelected), theFileName);
+    }
+
+    /**
+     * Create a new modeller for a file of an import session. The modellers
+     * of a session share the packages, stereotypes and types they looked
+     * up, so each file doesn't need to look them up again.
+     * 
+     * @param theSession The session with the model and the settings.
+     * @param theFileName the current file name
+     */
+    public Modeller(ModellerSession theSession, String theFileName) {
+        setSession(theSession);
+        model = session.getModel();
+        javaProfile = session.getJavaProfile();
+        noAssociations = session.isAttributeSelected();
+        arraysAsDatatype = session.isDatatypeSelected();
         currentPackage = this.model;
         newElements = new HashSet<Object>();
-        parseState = new ParseState(this.model, getPackage(JAVA_PACKAGE, true));
+        Context baseContext = session.getBaseContext();
+        if (baseContext == null) {
+            baseContext = new PackageContext(
+                    new PackageContext(null, this.model),
+                    getPackage(JAVA_PACKAGE, true));
+            session.setBaseContext(baseContext);
+        }
+        parseState = new ParseState(baseContext);
         parseStateStack = new Stack<ParseState>();
         fileName = theFileName;
         if (javaProfile == null) {
@@ -234,6 +279,28 @@ public class Modeller {
         }
     }
 
+    /**
+     * Create a modeller that is not connected to any model. This is only
+     * meant for subclasses that intercept the parser callbacks instead of
+     * mapping them to model elements, so it must not touch the model
+     * repository (it may be called from a thread other than the one that
+     * owns the model).
+     *
+     * @param theFileName the current file name
+     */
+    Modeller(String theFileName) {
+        setSession(new ModellerSession(null, null, false, false));
+        newElements = new HashSet<Object>();
+        parseStateStack = new Stack<ParseState>();
+        fileName = theFileName;
+    }
+
+    private void setSession(ModellerSession theSession) {
+        session = theSession;
+        resolutionCache = session.getResolutionCache();
+        namespaceIndex = session.getNamespaceIndex();
+    }
+
     /**
      * @param key the key of the attribute to get
      * @return the value of the attribute
@@ -250,6 +317,16 @@ public class Modeller {
         attributes.put(key, value);
     }
 
+    /**
+     * Set where the javadoc comments are found if the session defers them.
+     * Without it, the comments are added as if they were not deferred.
+     *
+     * @param javadocs the finder of the comments in the source file
+     */
+    void setDeferredJavadoc(DeferredJavadoc javadocs) {
+        deferredJavadoc = javadocs;
+    }
+
     /**
      * This is a mapping from a Java compilation Unit -> a UML artifact.
      * Classes are resident in a component in UML1, and realizing classifiers
@@ -310,12 +387,28 @@ public class Modeller {
         }
 
         parseState.setArtifact(artifact);
+        addManifestEntry(artifact);
 
         // set the namespace of the component, in the event
         // that the source file does not have a package stmt
         Model.getCoreHelper().setNamespace(parseState.getArtifact(), model);
     }
 
+    /**
+     * Tell the manifest entry of the source file its artifact, if the entry
+     * is given as the {@link ImportManifest#ATTRIBUTE} attribute. The
+     * entry is written to the artifact when the import is done, see
+     * {@link ImportManifest#commit()}.
+     * 
+     * @param artifact the artifact of the source file
+     */
+    private void addManifestEntry(Object artifact) {
+        Object attribute = getAttribute(ImportManifest.ATTRIBUTE);
+        if (attribute instanceof ImportManifest.Entry) {
+            ((ImportManifest.Entry) attribute).setArtifact(artifact);
+        }
+    }
+
     /**
      * Called from the parser when a package clause is found.
      * 
@@ -376,6 +469,7 @@ public class Modeller {
             newElements.remove(oldArtifact);
             // change the parse state to the existing one.
             parseState.setArtifact(artifact);
+            addManifestEntry(artifact);
         }
     }
 
@@ -464,7 +558,7 @@ public class Modeller {
                         // this until we can determine what it is
                         mClassifier = Model.getCoreFactory().buildClass(
                                 classifierName, mPackage);
-                        newElements.add(mClassifier);
+                        addNewClassifier(mClassifier);
                     }
                 } else {
                     warnClassifierNotFound(classifierName,
@@ -554,7 +648,7 @@ public class Modeller {
             // TODO: support for stereotypes in eUML
             Model.getCoreHelper().addStereotype(dependency,
                     getUML1Stereotype(stereoname));
-            ProjectManager.getManager().updateRoots();
+            session.updateRoots();
         }
         String newName = makeDependencyName(client, supplier);
         Model.getCoreHelper().setName(dependency, newName);
@@ -655,8 +749,7 @@ public class Modeller {
         if (superclassName != null) {
             Object parentClass = null;
             try {
-                parentClass = getContext(superclassName).get(
-                        getClassifierName(superclassName), false, javaProfile);
+                parentClass = resolve(superclassName, false);
                 getGeneralization(currentPackage, parentClass, mClass);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && superclassName != null && model != null) {
@@ -674,7 +767,7 @@ public class Modeller {
                     if (parentClass == null) {
                         parentClass = Model.getCoreFactory().buildClass(
                                 classifierName, mPackage);
-                        newElements.add(parentClass);
+                        addNewClassifier(parentClass);
                     }
                     getGeneralization(currentPackage, parentClass, mClass);
                 } else {
@@ -706,8 +799,7 @@ public class Modeller {
     void addAnonymousClass(String type, boolean forceIt) {
         String name = parseState.anonymousClass();
         try {
-            Object mClassifier = getContext(type).get(getClassifierName(type),
-                    false, javaProfile);
+            Object mClassifier = resolve(type, false);
             List<String> interfaces = new ArrayList<String>();
             if (Model.getFacade().isAInterface(mClassifier)) {
                 interfaces.add(type);
@@ -773,8 +865,7 @@ public class Modeller {
         for (String interfaceName : interfaces) {
             Object parentInterface = null;
             try {
-                parentInterface = getContext(interfaceName).get(
-                        getClassifierName(interfaceName), true, javaProfile);
+                parentInterface = resolve(interfaceName, true);
                 getGeneralization(currentPackage, parentInterface, mInterface);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && interfaceName != null && model != null) {
@@ -793,7 +884,7 @@ public class Modeller {
                     if (parentInterface == null) {
                         parentInterface = Model.getCoreFactory()
                                 .buildInterface(classifierName, mPackage);
-                        newElements.add(parentInterface);
+                        addNewClassifier(parentInterface);
                     }
                     getGeneralization(currentPackage, parentInterface,
                             mInterface);
@@ -824,7 +915,7 @@ public class Modeller {
                                                               // for now
             Model.getCoreHelper().addStereotype(mEnum,
                     getUML1Stereotype("enumeration"));
-            ProjectManager.getManager().updateRoots();
+            session.updateRoots();
         } else {
             // TODO: always use UML Enumerations, like this:
             mEnum = Model.getCoreFactory().createEnumeration();
@@ -838,11 +929,13 @@ public class Modeller {
                 mNamespace = currentPackage;
             }
 
-            LOG.log(Level.INFO, "Created new enumeration for {0}", name);
+            LOG.log(Level.FINE, "Created new enumeration for {0}", name);
+            session.getStatistics().classifier();
+            session.changed(mEnum);
 
             Model.getCoreHelper().setName(mEnum, name);
             Model.getCoreHelper().setNamespace(mEnum, mNamespace);
-            newElements.add(mEnum);
+            addNewClassifier(mEnum);
 
             parseState.innerClassifier(mEnum);
             // change the parse state to a classifier parse state
@@ -897,8 +990,7 @@ public class Modeller {
         for (String interfaceName : interfaces) {
             Object mInterface = null;
             try {
-                mInterface = getContext(interfaceName).get(
-                        getClassifierName(interfaceName), true, javaProfile);
+                mInterface = resolve(interfaceName, true);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && interfaceName != null && model != null) {
                     LOG.info("Modeller.java: "
@@ -916,7 +1008,7 @@ public class Modeller {
                     if (mInterface == null) {
                         mInterface = Model.getCoreFactory().buildInterface(
                                 classifierName, mPackage);
-                        newElements.add(mInterface);
+                        addNewClassifier(mInterface);
                     }
                 } else {
                     warnClassifierNotFound(interfaceName, "an abstraction");
@@ -934,7 +1026,7 @@ public class Modeller {
                         .setNamespace(mAbstraction, currentPackage);
                     Model.getCoreHelper().addStereotype(mAbstraction,
                         getUML1Stereotype(CoreFactory.REALIZE_STEREOTYPE));
-                    ProjectManager.getManager().updateRoots();
+                    session.updateRoots();
                 }
                 newElements.add(mAbstraction);
             }
@@ -1072,19 +1164,21 @@ public class Modeller {
 
         if (mClassifier == null) {
             // if the classifier could not be found in the model
-            LOG.log(Level.INFO, "Created new classifier for {0}", name);
+            LOG.log(Level.FINE, "Created new classifier for {0}", name);
 
             mClassifier = newClassifier;
             Model.getCoreHelper().setName(mClassifier, name);
             Model.getCoreHelper().setNamespace(mClassifier, mNamespace);
-            newElements.add(mClassifier);
+            addNewClassifier(mClassifier);
         } else {
             // it was found and we delete any existing tagged values.
-            LOG.log(Level.INFO, "Found existing classifier for {0}", name);
+            LOG.log(Level.FINE, "Found existing classifier for {0}", name);
 
             // TODO: Rewrite existing elements instead? - tfm
             cleanModelElement(mClassifier);
         }
+        session.getStatistics().classifier();
+        session.changed(mClassifier);
 
         parseState.innerClassifier(mClassifier);
 
@@ -1154,6 +1248,13 @@ public class Modeller {
         parseState.removeObsoleteFeatures();
 
         // Remove inner classes not in source
+        Collection<String> obsolete = parseState.getObsoleteInnerClassNames();
+        for (String name : obsolete) {
+            resolutionCache.invalidate(name);
+        }
+        if (!obsolete.isEmpty()) {
+            namespaceIndex.clear();
+        }
         parseState.removeObsoleteInnerClasses();
 
         parseState = parseStateStack.pop();
@@ -1197,6 +1298,7 @@ public class Modeller {
         }
         Object mOperation = getOperation(name);
         parseState.feature(mOperation);
+        session.getStatistics().feature();
 
         Model.getCoreHelper().setAbstract(mOperation,
                 (modifiers & JavaParser.ACC_ABSTRACT) > 0);
@@ -1230,14 +1332,13 @@ public class Modeller {
             // Constructor
             Model.getCoreHelper().addStereotype(mOperation,
                     getStereotype(mOperation, "create", "BehavioralFeature"));
-            ProjectManager.getManager().updateRoots();
+            session.updateRoots();
         } else {
             try {
                 mClassifier =
                     // FIXME: This can't throw away the fully qualified
                     // name before starting the search!
-                    getContext(returnType).get(getClassifierName(returnType),
-                        false, javaProfile);
+                    resolve(returnType, false);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && returnType != null && model != null) {
                     LOG.info("Modeller.java: "
@@ -1255,7 +1356,7 @@ public class Modeller {
                     if (mClassifier == null) {
                         mClassifier = Model.getCoreFactory().buildClass(
                                 classifierName, mPackage);
-                        newElements.add(mClassifier);
+                        addNewClassifier(mClassifier);
                     }
                 } else {
                     warnClassifierNotFound(returnType, "operation return type");
@@ -1279,8 +1380,7 @@ public class Modeller {
             }
             mClassifier = null;
             try {
-                mClassifier = getContext(typeName).get(
-                        getClassifierName(typeName), false, javaProfile);
+                mClassifier = resolve(typeName, false);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && model != null) {
                     LOG.info("Modeller.java: "
@@ -1298,7 +1398,7 @@ public class Modeller {
                     if (mClassifier == null) {
                         mClassifier = Model.getCoreFactory().buildClass(
                                 classifierName, mPackage);
-                        newElements.add(mClassifier);
+                        addNewClassifier(mClassifier);
                     }
                 } else {
                     warnClassifierNotFound(typeName, "operation params");
@@ -1445,6 +1545,7 @@ public class Modeller {
      */
     void addAttribute(short modifiers, String typeSpec, String name,
             String initializer, String javadoc, boolean forceIt) {
+        session.getStatistics().feature();
         String multiplicity = "1_1";
         Object mClassifier = null;
 
@@ -1457,8 +1558,7 @@ public class Modeller {
             // the attribute type
             try {
                 // get the attribute type
-                mClassifier = getContext(typeSpec).get(
-                        getClassifierName(typeSpec), false, javaProfile);
+                mClassifier = resolve(typeSpec, false);
             } catch (ClassifierNotFoundException e) {
                 if (forceIt && typeSpec != null && model != null) {
                     LOG.info("Modeller.java: forced creation of"
@@ -1475,7 +1575,7 @@ public class Modeller {
                     if (mClassifier == null) {
                         mClassifier = Model.getCoreFactory().buildClass(
                                 classifierName, mPackage);
-                        newElements.add(mClassifier);
+                        addNewClassifier(mClassifier);
                     }
                 } else {
                     warnClassifierNotFound(typeSpec, "an attribute");
@@ -1631,16 +1731,11 @@ public class Modeller {
      * @return The class found or created.
      */
     private Object getClass(Object mPackage, String name) {
-        Object mClass = null;
-        for (Object c : Model.getCoreHelper().getAllClasses(mPackage)) {
-            if (name.equals(Model.getFacade().getName(c))) {
-                mClass = c;
-                break;
-            }
-        }
+        Object mClass = namespaceIndex.getClass(mPackage, name);
         if (mClass == null) {
             mClass = Model.getCoreFactory().buildClass(name, mPackage);
-            newElements.add(mClass);
+            addNewClassifier(mClass);
+            namespaceIndex.add(mPackage, mClass);
         }
         return mClass;
     }
@@ -1654,7 +1749,11 @@ public class Modeller {
      * @return The package found or created.
      */
     private Object getPackage(String name, boolean useProfile) {
-        Object mPackage = searchPackageInModel(name, useProfile);
+        Object mPackage = session.getPackage(name, useProfile);
+        if (mPackage != null) {
+            return mPackage;
+        }
+        mPackage = searchPackageInModel(name, useProfile);
         if (mPackage == null) {
             // whole or part of the package path need to be built in model:
             Object currentNs = model;
@@ -1674,6 +1773,7 @@ public class Modeller {
                 currentNs = mPackage;
             }
         }
+        session.putPackage(name, useProfile, mPackage);
         return mPackage;
     }
 
@@ -1692,13 +1792,14 @@ public class Modeller {
     private Object searchPackageInModel(String name, boolean useProfile) {
         Object ret = null;
         if ("".equals(getPackageName(name))) {
-            if (useProfile && javaProfile != null) {
-                try {
-                    Object m = javaProfile.getProfilePackages().iterator()
-                            .next();
-                    ret = Model.getFacade().lookupIn(m, name);
-                } catch (Exception e) {
-                    ret = null;
+            if (useProfile) {
+                Object m = session.getProfileModel();
+                if (m != null) {
+                    try {
+                        ret = Model.getFacade().lookupIn(m, name);
+                    } catch (Exception e) {
+                        ret = null;
+                    }
                 }
             }
             if (ret == null) {
@@ -1721,9 +1822,9 @@ public class Modeller {
     private Object getOperation(String name) {
         Object mOperation = parseState.getOperation(name);
         if (mOperation != null) {
-            LOG.info("Getting the existing operation " + name);
+            LOG.log(Level.FINE, "Getting the existing operation {0}", name);
         } else {
-            LOG.info("Creating a new operation " + name);
+            LOG.log(Level.FINE, "Creating a new operation {0}", name);
             Object cls = parseState.getClassifier();
             Object returnType = ProjectManager.getManager().getCurrentProject()
                     .getDefaultReturnType();
@@ -1744,9 +1845,9 @@ public class Modeller {
     private Object getMethod(String name) {
         Object method = parseState.getMethod(name);
         if (method != null) {
-            LOG.info("Getting the existing method " + name);
+            LOG.log(Level.FINE, "Getting the existing method {0}", name);
         } else {
-            LOG.info("Creating a new method " + name);
+            LOG.log(Level.FINE, "Creating a new method {0}", name);
             method = Model.getCoreFactory().buildMethod(name);
             newElements.add(method);
             if (Model.getFacade().getUmlVersion().charAt(0) == '1') {
@@ -1831,7 +1932,23 @@ public class Modeller {
      * @return The stereotype.
      */
     private Object getUML1Stereotype(String name) {
-        LOG.fine("Trying to find a stereotype of name <<" + name + ">>");
+        Object stereotype = session.getStereotype(name);
+        if (stereotype == null) {
+            stereotype = findUML1Stereotype(name);
+            session.putStereotype(name, stereotype);
+        }
+        return stereotype;
+    }
+
+    /**
+     * Find or create the stereotype with a specific name. UML 1.x only.
+     * 
+     * @param name The name of the stereotype.
+     * @return The stereotype.
+     */
+    private Object findUML1Stereotype(String name) {
+        LOG.log(Level.FINE, "Trying to find a stereotype of name <<{0}>>",
+                name);
         // Is this line really safe wouldn't it just return the first
         // model element of the same name whether or not it is a stereotype
         Object stereotype = Model.getFacade().lookupIn(model, name);
@@ -1867,6 +1984,20 @@ public class Modeller {
      *             created. No stereotype is created.
      */
     private Object getStereotype(Object me, String name, String baseClass) {
+        String key = name + ' ' + baseClass;
+        Object stereotype = session.getStereotype(key);
+        if (stereotype == null) {
+            stereotype = findStereotype(me, name, baseClass);
+            session.putStereotype(key, stereotype);
+        }
+        return stereotype;
+    }
+
+    /**
+     * Find the first suitable stereotype with baseclass for a given object,
+     * or create it in UML 1.x.
+     */
+    private Object findStereotype(Object me, String name, String baseClass) {
         Collection models = ProjectManager.getManager().getCurrentProject()
                 .getModels();
         Collection stereos = Model.getExtensionMechanismsHelper()
@@ -1878,8 +2009,10 @@ public class Modeller {
                 stereotype = iter.next();
                 if (Model.getExtensionMechanismsHelper().isStereotypeInh(
                         stereotype, name, baseClass)) {
-                    LOG.info("Returning the existing stereotype of <<"
+                    if (LOG.isLoggable(Level.FINE)) {
+                        LOG.fine("Returning the existing stereotype of <<"
                             + Model.getFacade().getName(stereotype) + ">>");
+                    }
                     return stereotype;
                 }
             }
@@ -2043,6 +2176,56 @@ public class Modeller {
                 (modifiers & JavaParser.ACC_STATIC) > 0);
     }
 
+    /**
+     * Resolve a classifier name that may or may not be fully qualified in
+     * the current context. The result is cached in the resolution cache.
+     *
+     * @param name the classifier name
+     * @param interfacesOnly true if only interfaces are looked for
+     * @return the classifier
+     * @throws ClassifierNotFoundException if the classifier can't be found
+     */
+    private Object resolve(String name, boolean interfacesOnly)
+        throws ClassifierNotFoundException {
+        String typeName = stripVarargAndGenerics(name);
+        ResolutionCache.Scope scope = parseState.getContext().getScope();
+        Object cached = resolutionCache.get(scope, typeName, interfacesOnly);
+        if (cached == ResolutionCache.NOT_FOUND) {
+            throw new ClassifierNotFoundException(getClassifierName(name));
+        } else if (cached != null) {
+            return cached;
+        }
+        Object classifier;
+        ImportProfiler profiler = session.getProfiler();
+        long[] start = profiler != null ? profiler.start() : null;
+        try {
+            classifier = getContext(name).get(getClassifierName(name),
+                    interfacesOnly, javaProfile);
+        } catch (ClassifierNotFoundException e) {
+            resolutionCache.put(scope, typeName, interfacesOnly, null);
+            throw e;
+        } finally {
+            if (profiler != null) {
+                profiler.stop(ImportProfiler.RESOLVE, start);
+            }
+        }
+        if (classifier != null) {
+            resolutionCache.put(scope, typeName, interfacesOnly, classifier);
+        }
+        return classifier;
+    }
+
+    /**
+     * Add a classifier that was created to the new elements, and remove the
+     * resolutions that it may change from the resolution cache.
+     *
+     * @param classifier the new classifier
+     */
+    private void addNewClassifier(Object classifier) {
+        newElements.add(classifier);
+        resolutionCache.invalidate(Model.getFacade().getName(classifier));
+    }
+
     /**
      * Get the context for a classifier name that may or may not be fully
      * qualified. The context contains either the user model, or a package
@@ -2079,86 +2262,129 @@ public class Modeller {
     }
 
     /**
-     * Add the contents of a single standard javadoc tag to the model element.
-     * Usually this will be added as a tagged value.
+     * Add the contents of the standard javadoc tags of a model element.
+     * Usually these will be added as tagged values, one for each tag name,
+     * with the contents of the last tag of that name. All stereotype tags
+     * are merged into one tagged value, and named invariants, pre- and
+     * post-conditions are added as OCL constraints.
      * 
      * This is called from {@link #addDocumentationTag} only.
      * 
      * @param me the model element to add to
-     * @param sTagName the name of the javadoc tag
-     * @param sTagData the contents of the javadoc tag
-     */
-    private void addJavadocTagContents(Object me, String sTagName,
-            String[] sTagData) {
-        if (sTagData != null 
-            && (sTagData.length == 0 || sTagData[0] == null)) {
-            LOG.fine("Called addJavadocTagContents with no tag data!");
-            return;
-        }
-        int colonPos = (sTagData != null) ? sTagData[0].indexOf(':') : -1;
-        if (colonPos != -1
-                && (("invariant".equals(sTagName))
-                        || ("pre-condition".equals(sTagName))
-                        || ("post-condition".equals(sTagName)))) {
-
-            // add as OCL constraint
-            String sContext = OCLUtil.getContextString(me);
-            String name = sTagData[0].substring(0, colonPos);
-            String body = null;
-            if (sTagName.equals("invariant")) {
-                // add as invariant constraint Note that no checking
-                // of constraint syntax is performed... BAD!
-                body = sContext + " inv " + sTagData;
-            } else if (sTagName.equals("pre-condition")) {
-                body = sContext + " pre " + sTagData;
+     * @param scanner the scanner that read the javadoc of the element
+     */
+    private void addJavadocTags(Object me, JavadocScanner scanner) {
+        Map<String, String> tags = new LinkedHashMap<String, String>();
+        StringBuilder stereotypes = null;
+        for (int i = 0; i < scanner.getTagCount(); i++) {
+            String sTagName = scanner.getTagName(i);
+            String sTagData = scanner.getTagData(i);
+            if (sTagData.indexOf(':') != -1
+                    && ("invariant".equals(sTagName)
+                            || "pre-condition".equals(sTagName)
+                            || "post-condition".equals(sTagName))) {
+                addConstraint(me, sTagName, sTagData);
+            } else if ("stereotype".equals(sTagName)) {
+                if (stereotypes == null) {
+                    stereotypes = new StringBuilder(sTagData);
+                    // keep the place of the first stereotype tag
+                    tags.put(sTagName, null);
+                } else {
+                    stereotypes.append(',').append(sTagData);
+                }
             } else {
-                body = sContext + " post " + sTagData;
-            }
-            Object bexpr = Model.getDataTypesFactory().createBooleanExpression(
-                    "OCL", body);
-            Object mc = Model.getCoreFactory().buildConstraint(name, bexpr);
-            Model.getCoreHelper().addConstraint(me, mc);
-            if (Model.getFacade().getNamespace(me) != null) {
-                // Apparently namespace management is not supported
-                // for all model elements. As this does not seem to
-                // cause problems, I'll just leave it at that for the
-                // moment...
-                Model.getCoreHelper().addOwnedElement(
-                        Model.getFacade().getNamespace(me), mc);
+                tags.put(sTagName, sTagData);
             }
+        }
+        if (stereotypes != null) {
+            tags.put("stereotype", mergeStereotypes(me, stereotypes));
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            buildTaggedValue(me, tag.getKey(), new String[] {
+                tag.getValue()
+            });
+        }
+    }
+
+    /**
+     * Add a named invariant, pre- or post-condition as OCL constraint.
+     * 
+     * @param me the constrained model element
+     * @param sTagName the name of the javadoc tag
+     * @param sTagData the contents of the javadoc tag, the name of the
+     *            constraint, a colon and the expression
+     */
+    private void addConstraint(Object me, String sTagName, String sTagData) {
+        String sContext = OCLUtil.getContextString(me);
+        String name = sTagData.substring(0, sTagData.indexOf(':'));
+        String body = null;
+        if (sTagName.equals("invariant")) {
+            // add as invariant constraint Note that no checking
+            // of constraint syntax is performed... BAD!
+            body = sContext + " inv " + sTagData;
+        } else if (sTagName.equals("pre-condition")) {
+            body = sContext + " pre " + sTagData;
         } else {
-            if ("stereotype".equals(sTagName)) {
-                // multiple stereotype support:
-                // make one stereotype tag from many stereotype tags
-                Object tv = getTaggedValue(me, sTagName);
-                if (tv != null) {
-                    String sStereotype = Model.getFacade().getValueOfTag(tv);
-                    if (sStereotype != null && sStereotype.length() > 0) {
-                        sTagData[0] = sStereotype + ',' + sTagData[0];
-                    }
-                }
-                // now eliminate multiple entries in that comma separated list
-                HashSet<String> stSet = new HashSet<String>();
-                StringTokenizer st = new StringTokenizer(sTagData[0], ", ");
-                while (st.hasMoreTokens()) {
-                    stSet.add(st.nextToken().trim());
-                }
-                StringBuffer sb = new StringBuffer();
-                Iterator<String> iter = stSet.iterator();
-                while (iter.hasNext()) {
-                    if (sb.length() > 0) {
-                        sb.append(',');
-                    }
-                    sb.append(iter.next());
-                }
-                sTagData[0] = sb.toString();
+            body = sContext + " post " + sTagData;
+        }
+        Object bexpr = Model.getDataTypesFactory().createBooleanExpression(
+                "OCL", body);
+        Object mc = Model.getCoreFactory().buildConstraint(name, bexpr);
+        Model.getCoreHelper().addConstraint(me, mc);
+        if (Model.getFacade().getNamespace(me) != null) {
+            // Apparently namespace management is not supported
+            // for all model elements. As this does not seem to
+            // cause problems, I'll just leave it at that for the
+            // moment...
+            Model.getCoreHelper().addOwnedElement(
+                    Model.getFacade().getNamespace(me), mc);
+        }
+    }
 
+    /**
+     * Make one stereotype tag from many stereotype tags, and from a
+     * stereotype tag the model element already has.
+     * 
+     * @param me the model element
+     * @param sStereotypes the comma separated stereotypes of the tags
+     * @return the stereotypes without duplicates, comma separated
+     */
+    private String mergeStereotypes(Object me, CharSequence sStereotypes) {
+        StringBuilder all = new StringBuilder();
+        Object tv = getTaggedValue(me, "stereotype");
+        if (tv != null) {
+            String sStereotype = Model.getFacade().getValueOfTag(tv);
+            if (sStereotype != null && sStereotype.length() > 0) {
+                all.append(sStereotype).append(',');
+            }
+        }
+        all.append(sStereotypes);
+        // now eliminate multiple entries in that comma separated list
+        Set<String> stSet = new LinkedHashSet<String>();
+        StringTokenizer st = new StringTokenizer(all.toString(), ", ");
+        while (st.hasMoreTokens()) {
+            stSet.add(st.nextToken().trim());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String stereotype : stSet) {
+            if (sb.length() > 0) {
+                sb.append(',');
             }
-            buildTaggedValue(me, sTagName, sTagData);
+            sb.append(stereotype);
         }
+        return sb.toString();
     }
 
-    private void buildTaggedValue(Object me, 
+    /**
+     * Set the value of a tagged value of a model element, and add the
+     * tagged value if it doesn't exist.
+     *
+     * @param me the model element
+     * @param sTagName the name of the tag
+     * @param sTagData the value, only the first one is used for a new
+     *            tagged value
+     */
+    static void buildTaggedValue(Object me, 
             String sTagName, 
             String[] sTagData) {
         Object tv = Model.getFacade().getTaggedValue(me, sTagName);
@@ -2188,133 +2414,48 @@ public class Modeller {
      */
     private void addDocumentationTag(Object modelElement, String sJavaDocs) {
         if ((sJavaDocs != null) && (sJavaDocs.trim().length() >= 5)) {
-            StringBuffer sbPureDocs = new StringBuffer(80);
-            String sCurrentTagName = null;
-            String[] sCurrentTagData = {
-                null
-            };
-            int nStartPos = 3; // skip the leading /**
-            boolean fHadAsterisk = true;
-
-            while (nStartPos < sJavaDocs.length()) {
-                switch (sJavaDocs.charAt(nStartPos)) {
-                case '*':
-                    fHadAsterisk = true;
-                    nStartPos++;
-                    break;
-                case ' ': // all white space, hope I didn't miss any ;-)
-                case '\t':
-                    // ignore white space before the first asterisk
-                    if (!fHadAsterisk) {
-                        nStartPos++;
-                        break;
-                    }
-                default:
-                    // normal comment text or standard tag
-                    // check ahead for tag
-                    int j = nStartPos;
-                    while ((j < sJavaDocs.length())
-                            && ((sJavaDocs.charAt(j) == ' ') || (sJavaDocs
-                                    .charAt(j) == '\t'))) {
-                        j++;
-                    }
-                    if (j < sJavaDocs.length()) {
-                        if (sJavaDocs.charAt(j) == '@') {
-                            // if the last javadoc is on the last line
-                            // no new line will be found, causing an
-                            // indexoutofboundexception.
-                            int lineEndPos = 0;
-                            if (sJavaDocs.indexOf('\n', j) < 0) {
-                                lineEndPos = sJavaDocs.length() - 2;
-                            } else {
-                                lineEndPos = sJavaDocs.indexOf('\n', j) + 1;
-                            }
-                            sbPureDocs.append(sJavaDocs
-                                    .substring(j, lineEndPos));
-                            // start standard tag potentially add
-                            // current tag to set of tagged values...
-                            if (sCurrentTagName != null) {
-                                addJavadocTagContents(modelElement,
-                                        sCurrentTagName, sCurrentTagData);
-                            }
-                            // open new tag
-                            int nTemp = sJavaDocs.indexOf(' ', j + 1);
-                            if (nTemp == -1) {
-                                nTemp = sJavaDocs.length() - 1;
-                            }
-                            sCurrentTagName = sJavaDocs.substring(j + 1, nTemp);
-                            int nTemp1 = sJavaDocs.indexOf('\n', ++nTemp);
-                            if (nTemp1 == -1) {
-                                nTemp1 = sJavaDocs.length();
-                            } else {
-                                nTemp1++;
-                            }
-                            sCurrentTagData[0] = sJavaDocs.substring(nTemp,
-                                    nTemp1);
-                            nStartPos = nTemp1;
-                        } else {
-                            // continue standard tag or comment text
-                            int nTemp = sJavaDocs.indexOf('\n', nStartPos);
-                            if (nTemp == -1) {
-                                nTemp = sJavaDocs.length();
-                            } else {
-                                nTemp++;
-                            }
-                            if (sCurrentTagName != null) {
-                                sbPureDocs.append(sJavaDocs.substring(
-                                        nStartPos, nTemp));
-                                sCurrentTagData[0] += " "
-                                        + sJavaDocs.substring(nStartPos, nTemp);
-                            } else {
-                                sbPureDocs.append(sJavaDocs.substring(
-                                        nStartPos, nTemp));
-                            }
-                            nStartPos = nTemp;
-                        }
-                    }
-                    fHadAsterisk = false;
+            int mode = session.getJavadocMode();
+            if (mode == ModellerSession.JAVADOC_OFF) {
+                return;
+            }
+            if (mode == ModellerSession.JAVADOC_DEFERRED
+                    && deferredJavadoc != null) {
+                String reference = deferredJavadoc.getReference(sJavaDocs);
+                if (reference != null) {
+                    buildTaggedValue(modelElement, DeferredJavadoc.SOURCE_TAG,
+                            new String[] {
+                                reference
+                            });
+                    return;
                 }
             }
-            sJavaDocs = sbPureDocs.toString();
-
-            /*
-             * After this, we have the documentation text, but there's still a
-             * trailing '/' left, either at the end of the actual comment text
-             * or at the end of the last tag.
-             */
-            sJavaDocs = removeTrailingSlash(sJavaDocs);
-
-            // handle last tag, if any (strip trailing slash there too)
-            if (sCurrentTagName != null) {
-                sCurrentTagData[0] = removeTrailingSlash(sCurrentTagData[0]);
-                addJavadocTagContents(modelElement, sCurrentTagName,
-                        sCurrentTagData);
+            JavadocScanner scanner = session.getJavadocScanner();
+            scanner.scan(sJavaDocs);
+            if (scanner.getTagCount() > 0) {
+                addJavadocTags(modelElement, scanner);
             }
 
             // Now store documentation text in a tagged value
             String[] javadocs = {
-                sJavaDocs
+                scanner.getText()
             };
             buildTaggedValue(modelElement, Argo.DOCUMENTATION_TAG, javadocs);
             addStereotypes(modelElement);
         }
     }
 
-    /*
-     * Remove a trailing slash, including the entire line if it's the only thing
-     * on the line.
-     */
-    private String removeTrailingSlash(String s) {
-        if (s.endsWith("\n/")) {
-            return s.substring(0, s.length() - 2);
-        } else if (s.endsWith("*/")) {
-            // need if end comment in the same line than comment
-            return s.substring(0, s.length() - 2);
-        } else if (s.endsWith("/")) {
-            return s.substring(0, s.length() - 1);
-        } else {
-            return s;
-        }
+    /**
+     * Add the documentation of a model element that was deferred while
+     * importing, as an eager import would have added it.
+     * 
+     * @param modelElement the model element
+     * @param javadoc the javadoc comment of the model element
+     */
+    static void addDeferredDocumentation(Object modelElement,
+            String javadoc) {
+        Modeller modeller = new Modeller("");
+        modeller.model = Model.getFacade().getRoot(modelElement);
+        modeller.addDocumentationTag(modelElement, javadoc);
     }
 
     /*
@@ -2363,7 +2504,7 @@ public class Modeller {
                         Model.getCoreHelper().addStereotype(modelElement,
                                 getUML1Stereotype(st.nextToken().trim()));
                     }
-                    ProjectManager.getManager().updateRoots();
+                    session.updateRoots();
                 }
                 Model.getUmlFactory().delete(tv);
             }
@@ -0,0 +1,394 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single parser callback to the {@link Modeller}, as recorded by the
+ * {@link RecordingModeller}. The event holds the arguments of the call, so
+ * that it can be replayed later into a modeller that is connected to the
+ * model.
+ * <p>
+ * Not every field is used by every kind of event; unused fields are null
+ * (or 0, false or -1).
+ */
+final class ModellerEvent {
+
+    /** {@link Modeller#addComponent()} */
+    static final int COMPONENT = 0;
+
+    /** {@link Modeller#addPackage(String)} */
+    static final int PACKAGE = 1;
+
+    /** {@link Modeller#addImport(String, boolean)} */
+    static final int IMPORT = 2;
+
+    /** Modeller#addClass(String, short, List, String, List, String, boolean) */
+    static final int CLASS = 3;
+
+    /** {@link Modeller#addAnonymousClass(String, boolean)} */
+    static final int ANONYMOUS_CLASS = 4;
+
+    /** Modeller#addInterface(String, short, List, List, String, boolean) */
+    static final int INTERFACE = 5;
+
+    /** Modeller#addEnumeration(String, short, List, String, boolean) */
+    static final int ENUMERATION = 6;
+
+    /** {@link Modeller#addEnumerationLiteral(String)} */
+    static final int ENUMERATION_LITERAL = 7;
+
+    /** Modeller#addAnnotationDefinition(String, short, String, boolean) */
+    static final int ANNOTATION_DEFINITION = 8;
+
+    /** {@link Modeller#addAnnotation(String)} */
+    static final int ANNOTATION = 9;
+
+    /** {@link Modeller#endAnnotation()} */
+    static final int END_ANNOTATION = 10;
+
+    /** {@link Modeller#popClassifier()} */
+    static final int POP_CLASSIFIER = 11;
+
+    /** Modeller#addOperation(short, List, String, String, List, String, boolean) */
+    static final int OPERATION = 12;
+
+    /** {@link Modeller#addBodyToOperation(Object, String)} */
+    static final int BODY = 13;
+
+    /** Modeller#addAttribute(short, String, String, String, String, boolean) */
+    static final int ATTRIBUTE = 14;
+
+    /** {@link Modeller#addClassifierDependency(String)} */
+    static final int CLASSIFIER_DEPENDENCY = 15;
+
+    private final int kind;
+
+    private final String name;
+
+    private final short modifiers;
+
+    private final String type;
+
+    private final List<String> typeParameters;
+
+    private final List<String> interfaces;
+
+    private final List<ParameterDeclaration> parameters;
+
+    private final String javadoc;
+
+    private final String text;
+
+    private final int operation;
+
+    private final boolean forceIt;
+
+    private final int start;
+
+    private final int length;
+
+    /**
+     * Create a new event.
+     *
+     * @param theKind one of the event kind constants of this class
+     * @param theName the name of the declared element, package or import
+     * @param theModifiers the modifiers of the declared element
+     * @param theType the superclass, return, attribute or anonymous class
+     *            type
+     * @param theTypeParameters the type parameters of the declaration
+     * @param theInterfaces the implemented or extended interfaces
+     * @param theParameters the operation parameters
+     * @param theJavadoc the javadoc comment of the declaration
+     * @param theText the attribute initializer or the operation body
+     * @param theOperation index of the operation event a body belongs to,
+     *            or -1
+     * @param theForceIt the force flag the parser passed in
+     */
+    ModellerEvent(int theKind, String theName, short theModifiers,
+            String theType, List<String> theTypeParameters,
+            List<String> theInterfaces,
+            List<ParameterDeclaration> theParameters, String theJavadoc,
+            String theText, int theOperation, boolean theForceIt) {
+        this(theKind, theName, theModifiers, theType, theTypeParameters,
+                theInterfaces, theParameters, theJavadoc, theText,
+                theOperation, theForceIt, -1, 0);
+    }
+
+    /**
+     * Create a new body event that refers to the body text in the source
+     * file instead of holding it, to keep recordings small.
+     *
+     * @param theOperation index of the operation event the body belongs to,
+     *            or -1
+     * @param theStart the offset of the body in the source
+     * @param theLength the length of the body in the source, without the
+     *            newline that the parser appends
+     */
+    ModellerEvent(int theOperation, int theStart, int theLength) {
+        this(BODY, null, (short) 0, null, null, null, null, null, null,
+                theOperation, false, theStart, theLength);
+    }
+
+    private ModellerEvent(int theKind, String theName, short theModifiers,
+            String theType, List<String> theTypeParameters,
+            List<String> theInterfaces,
+            List<ParameterDeclaration> theParameters, String theJavadoc,
+            String theText, int theOperation, boolean theForceIt,
+            int theStart, int theLength) {
+        kind = theKind;
+        name = theName;
+        modifiers = theModifiers;
+        type = theType;
+        typeParameters = theTypeParameters;
+        interfaces = theInterfaces;
+        parameters = theParameters;
+        javadoc = theJavadoc;
+        text = theText;
+        operation = theOperation;
+        forceIt = theForceIt;
+        start = theStart;
+        length = theLength;
+    }
+
+    /**
+     * Create a new event that has only a name argument.
+     *
+     * @param theKind one of the event kind constants of this class
+     * @param theName the name argument, may be null
+     */
+    ModellerEvent(int theKind, String theName) {
+        this(theKind, theName, (short) 0, null, null, null, null, null, null,
+                -1, false);
+    }
+
+    /**
+     * @return the kind of this event
+     */
+    int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the index of the operation event a body belongs to, or -1
+     */
+    int getOperation() {
+        return operation;
+    }
+
+    /**
+     * Write this event, so that {@link #read(DataInput)} can restore it.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeByte(kind);
+        writeString(out, name);
+        out.writeShort(modifiers);
+        writeString(out, type);
+        writeStrings(out, typeParameters);
+        writeStrings(out, interfaces);
+        if (parameters == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(parameters.size());
+            for (ParameterDeclaration parameter : parameters) {
+                out.writeShort(parameter.getModifiers());
+                writeString(out, parameter.getType());
+                writeString(out, parameter.getName());
+            }
+        }
+        writeString(out, javadoc);
+        writeString(out, text);
+        out.writeInt(operation);
+        out.writeBoolean(forceIt);
+        out.writeInt(start);
+        out.writeInt(length);
+    }
+
+    /**
+     * Read an event that was written with {@link #write(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the event
+     * @throws IOException if reading fails
+     */
+    static ModellerEvent read(DataInput in) throws IOException {
+        int kind = in.readByte();
+        String name = readString(in);
+        short modifiers = in.readShort();
+        String type = readString(in);
+        List<String> typeParameters = readStrings(in);
+        List<String> interfaces = readStrings(in);
+        List<ParameterDeclaration> parameters = null;
+        int size = in.readInt();
+        if (size >= 0) {
+            parameters = new ArrayList<ParameterDeclaration>(size);
+            for (int i = 0; i < size; i++) {
+                parameters.add(new ParameterDeclaration(in.readShort(),
+                        readString(in), readString(in)));
+            }
+        }
+        String javadoc = readString(in);
+        String text = readString(in);
+        int operation = in.readInt();
+        boolean forceIt = in.readBoolean();
+        int start = in.readInt();
+        int length = in.readInt();
+        return new ModellerEvent(kind, name, modifiers, type, typeParameters,
+                interfaces, parameters, javadoc, text, operation, forceIt,
+                start, length);
+    }
+
+    private static void writeString(DataOutput out, String s)
+        throws IOException {
+        // writeUTF is limited to 64k, which is not enough for bodies
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(s.length());
+            out.writeChars(s);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = in.readChar();
+        }
+        return new String(chars);
+    }
+
+    private static void writeStrings(DataOutput out, List<String> strings)
+        throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(out, s);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> strings = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * @return true if this is a body event that refers to the source
+     */
+    boolean isBodyInSource() {
+        return start >= 0;
+    }
+
+    /**
+     * Replay this event, i.e. do the call to the modeller that the parser
+     * did when this event was recorded.
+     *
+     * @param modeller the modeller to replay this event into
+     * @param op the operation that a body event belongs to, as returned
+     *            when its operation event was replayed
+     * @param source the source text, only needed for body events that
+     *            refer to the source
+     * @param firstPass true to replay as the first of two import passes,
+     *            i.e. without forcing updates of existing elements
+     * @return the operation for an operation event, null otherwise
+     */
+    Object replay(Modeller modeller, Object op, char[] source,
+            boolean firstPass) {
+        boolean force = forceIt && !firstPass;
+        switch (kind) {
+        case COMPONENT:
+            modeller.addComponent();
+            break;
+        case PACKAGE:
+            modeller.addPackage(name);
+            break;
+        case IMPORT:
+            modeller.addImport(name, force);
+            break;
+        case CLASS:
+            modeller.addClass(name, modifiers, typeParameters, type,
+                    interfaces, javadoc, force);
+            break;
+        case ANONYMOUS_CLASS:
+            modeller.addAnonymousClass(type, force);
+            break;
+        case INTERFACE:
+            modeller.addInterface(name, modifiers, typeParameters,
+                    interfaces, javadoc, force);
+            break;
+        case ENUMERATION:
+            modeller.addEnumeration(name, modifiers, interfaces, javadoc,
+                    force);
+            break;
+        case ENUMERATION_LITERAL:
+            modeller.addEnumerationLiteral(name);
+            break;
+        case ANNOTATION_DEFINITION:
+            modeller.addAnnotationDefinition(name, modifiers, javadoc,
+                    force);
+            break;
+        case ANNOTATION:
+            modeller.addAnnotation(name);
+            break;
+        case END_ANNOTATION:
+            modeller.endAnnotation();
+            break;
+        case POP_CLASSIFIER:
+            modeller.popClassifier();
+            break;
+        case OPERATION:
+            return modeller.addOperation(modifiers, typeParameters, type,
+                    name, parameters, javadoc, force);
+        case BODY:
+            if (isBodyInSource()) {
+                modeller.addBodyToOperation(op,
+                        new String(source, start, length) + '\n');
+            } else {
+                modeller.addBodyToOperation(op, text);
+            }
+            break;
+        case ATTRIBUTE:
+            modeller.addAttribute(modifiers, type, name, text, javadoc,
+                    force);
+            break;
+        case CLASSIFIER_DEPENDENCY:
+            modeller.addClassifierDependency(name);
+            break;
+        default:
+            throw new IllegalStateException("Unknown modeller event " + kind);
+        }
+        return null;
+    }
+}
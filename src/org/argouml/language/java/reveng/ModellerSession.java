@@ -0,0 +1,449 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.argouml.cognitive.Designer;
+import org.argouml.kernel.Project;
+import org.argouml.kernel.ProjectManager;
+import org.argouml.model.Model;
+import org.argouml.profile.Profile;
+import org.argouml.ui.explorer.ExplorerEventAdaptor;
+import org.argouml.ui.targetmanager.TargetManager;
+import org.argouml.uml.diagram.ArgoDiagram;
+
+/**
+ * The state that the {@link Modeller}s of an import session share. An
+ * import creates one modeller per source file or classfile, and without a
+ * session each of them would look up the same packages, profile elements,
+ * stereotypes and types again.
+ * <p>
+ * The session holds the model and the settings the modellers are created
+ * with, the {@link ResolutionCache}, {@link NamespaceIndex},
+ * {@link JavadocScanner} and {@link ImportStatistics}, and caches of the
+ * packages, stereotypes and the profile package. It also holds the
+ * base context of the parse states, i.e. the user model and the package
+ * <code>java.lang</code>, which every compilation unit starts with. What a
+ * compilation unit declares, like its package and imports, is still kept
+ * in the {@link ParseState} of its modeller.
+ * <p>
+ * An import can update the model in a batch, see {@link #beginBatch}. Then
+ * the roots of the project are updated once at the end, instead of for
+ * each stereotype that is applied, and the model events can be suspended.
+ * <p>
+ * The session is not thread safe. It is only used by the thread that
+ * updates the model.
+ */
+public class ModellerSession {
+
+    /**
+     * Javadoc mode: the documentation and the tags of the javadoc comments
+     * are added to the model elements while importing.
+     */
+    public static final int JAVADOC_EAGER = 0;
+
+    /**
+     * Javadoc mode: javadoc comments are ignored.
+     */
+    public static final int JAVADOC_OFF = 1;
+
+    /**
+     * Javadoc mode: only the place of a javadoc comment in its source file
+     * is kept with the model element, see {@link DeferredJavadoc}.
+     */
+    public static final int JAVADOC_DEFERRED = 2;
+
+    private final Object model;
+
+    private final Profile javaProfile;
+
+    private final boolean attributeSelected;
+
+    private final boolean datatypeSelected;
+
+    private final ResolutionCache resolutionCache = new ResolutionCache();
+
+    private final NamespaceIndex namespaceIndex = new NamespaceIndex();
+
+    private final JavadocScanner javadocScanner = new JavadocScanner();
+
+    private final ImportStatistics statistics =
+        new ImportStatistics(resolutionCache);
+
+    private int javadocMode = JAVADOC_EAGER;
+
+    private ImportProfiler profiler;
+
+    private boolean batch;
+
+    private boolean eventsSuspended;
+
+    private boolean rootsChanged;
+
+    /**
+     * The classifiers that were added or updated while the model events
+     * were suspended, in the order they were modelled.
+     */
+    private final Set<Object> changedClassifiers =
+        new LinkedHashSet<Object>();
+
+    /**
+     * The packages that were found or created, by name. The packages found
+     * in the Java profile are only in {@link #profilePackages}.
+     */
+    private final Map<String, Object> packages =
+        new HashMap<String, Object>();
+
+    /**
+     * The packages that were found or created when the Java profile was
+     * looked up first, by name.
+     */
+    private final Map<String, Object> profilePackages =
+        new HashMap<String, Object>();
+
+    /**
+     * The stereotypes by name, or by name and base class.
+     */
+    private final Map<String, Object> stereotypes =
+        new HashMap<String, Object>();
+
+    /**
+     * The top package of the Java profile, if it was looked up.
+     */
+    private Object profileModel;
+
+    private boolean profileModelFound;
+
+    /**
+     * The context every compilation unit starts with, or null until the
+     * first modeller created it.
+     */
+    private Context baseContext;
+
+    /**
+     * Create a session.
+     *
+     * @param theModel The model to work with.
+     * @param theJavaProfile The Java profile, or null.
+     * @param isAttributeSelected true if associations should be modeled as
+     *            attributes
+     * @param isDatatypeSelected true if arrays should be modeled as
+     *            datatypes instead of using UML multiplicities
+     */
+    public ModellerSession(Object theModel, Profile theJavaProfile,
+            boolean isAttributeSelected, boolean isDatatypeSelected) {
+        model = theModel;
+        javaProfile = theJavaProfile;
+        attributeSelected = isAttributeSelected;
+        datatypeSelected = isDatatypeSelected;
+    }
+
+    /**
+     * @return the model
+     */
+    public Object getModel() {
+        return model;
+    }
+
+    /**
+     * @return the Java profile, or null
+     */
+    public Profile getJavaProfile() {
+        return javaProfile;
+    }
+
+    /**
+     * @return true if associations are modeled as attributes
+     */
+    public boolean isAttributeSelected() {
+        return attributeSelected;
+    }
+
+    /**
+     * @return true if arrays are modeled as datatypes
+     */
+    public boolean isDatatypeSelected() {
+        return datatypeSelected;
+    }
+
+    /**
+     * @return the resolutions of type names of the session
+     */
+    ResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
+    /**
+     * @return the classes of the namespaces of the session
+     */
+    NamespaceIndex getNamespaceIndex() {
+        return namespaceIndex;
+    }
+
+    /**
+     * @return how javadoc comments are imported, one of
+     *         {@link #JAVADOC_EAGER}, {@link #JAVADOC_OFF} and
+     *         {@link #JAVADOC_DEFERRED}
+     */
+    public int getJavadocMode() {
+        return javadocMode;
+    }
+
+    /**
+     * @param mode how javadoc comments are imported, one of
+     *            {@link #JAVADOC_EAGER}, {@link #JAVADOC_OFF} and
+     *            {@link #JAVADOC_DEFERRED}
+     */
+    public void setJavadocMode(int mode) {
+        javadocMode = mode;
+    }
+
+    /**
+     * @return the counters of the session
+     */
+    ImportStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Start updating the model in a batch. Until {@link #endBatch()}, the
+     * roots of the project are only updated once, at the end of the
+     * batch.
+     *
+     * @param suspendEvents true to suspend the model events too. The
+     *            listeners of the model elements are told about the
+     *            changed classifiers all at once at the end, see
+     *            {@link #endBatch()}.
+     */
+    public void beginBatch(boolean suspendEvents) {
+        batch = true;
+        if (suspendEvents && !eventsSuspended) {
+            Model.getPump().stopPumpingEvents();
+            eventsSuspended = true;
+        }
+    }
+
+    /**
+     * End the batch that {@link #beginBatch(boolean)} started: resume the
+     * model events, and update the roots of the project if the batch
+     * changed them. If the events were suspended, the views that missed
+     * them are refreshed at once: the explorer, the diagrams and the
+     * properties of the targets, and the critics check the changed
+     * classifiers and their features again.
+     */
+    public void endBatch() {
+        batch = false;
+        boolean refresh = eventsSuspended;
+        if (eventsSuspended) {
+            Model.getPump().startPumpingEvents();
+            eventsSuspended = false;
+        }
+        if (rootsChanged) {
+            rootsChanged = false;
+            ProjectManager.getManager().updateRoots();
+        }
+        if (refresh) {
+            ExplorerEventAdaptor.getInstance().structureChanged();
+            if (!changedClassifiers.isEmpty()) {
+                fireBatchChanged();
+            }
+        }
+        changedClassifiers.clear();
+    }
+
+    /**
+     * Remember a classifier that was added or updated, for the listeners
+     * that miss its events while they are suspended.
+     *
+     * @param classifier the classifier
+     */
+    void changed(Object classifier) {
+        if (eventsSuspended) {
+            changedClassifiers.add(classifier);
+        }
+    }
+
+    /**
+     * @return the classifiers that were changed while the events were
+     *         suspended
+     */
+    Set<Object> getChangedClassifiers() {
+        return changedClassifiers;
+    }
+
+    /**
+     * Notify the listeners that missed the events of the batch once, for
+     * all classifiers that it changed.
+     */
+    private void fireBatchChanged() {
+        Project project = ProjectManager.getManager().getCurrentProject();
+        if (project != null) {
+            for (ArgoDiagram diagram : project.getDiagramList()) {
+                diagram.renderingChanged();
+            }
+        }
+
+        Designer designer = Designer.theDesigner();
+        for (Object classifier : changedClassifiers) {
+            if (Model.getUmlFactory().isRemoved(classifier)) {
+                continue;
+            }
+            designer.critiqueASAP(classifier, "name");
+            for (Object feature : Model.getFacade().getFeatures(classifier)) {
+                designer.critiqueASAP(feature, "name");
+            }
+        }
+
+        // show the properties of the targets again
+        TargetManager targetManager = TargetManager.getInstance();
+        List<Object> targets =
+            new ArrayList<Object>(targetManager.getTargets());
+        for (Object target : targets) {
+            if (changedClassifiers.contains(target)
+                    || (Model.getFacade().isAFeature(target)
+                            && changedClassifiers.contains(
+                                    Model.getFacade().getOwner(target)))) {
+                targetManager.setTargets(Collections.emptyList());
+                targetManager.setTargets(targets);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Update the roots of the project after a stereotype was applied, or
+     * remember to do so at the end of the batch.
+     */
+    void updateRoots() {
+        if (batch) {
+            rootsChanged = true;
+        } else {
+            ProjectManager.getManager().updateRoots();
+        }
+    }
+
+    /**
+     * @return the profiler of the import, or null if the import isn't
+     *         profiled
+     */
+    public ImportProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * @param theProfiler the profiler of the import, or null
+     */
+    public void setProfiler(ImportProfiler theProfiler) {
+        profiler = theProfiler;
+    }
+
+    /**
+     * @return the scanner of the javadoc comments of the session
+     */
+    JavadocScanner getJavadocScanner() {
+        return javadocScanner;
+    }
+
+    /**
+     * @param name the name of a package
+     * @param useProfile true if the package was looked up in the Java
+     *            profile first
+     * @return the package, or null if it was not looked up yet
+     */
+    Object getPackage(String name, boolean useProfile) {
+        Object mPackage =
+            (useProfile ? profilePackages : packages).get(name);
+        if (mPackage != null && Model.getUmlFactory().isRemoved(mPackage)) {
+            packages.remove(name);
+            profilePackages.remove(name);
+            return null;
+        }
+        return mPackage;
+    }
+
+    /**
+     * @param name the name of a package
+     * @param useProfile true if the package was looked up in the Java
+     *            profile first
+     * @param mPackage the package that was found or created
+     */
+    void putPackage(String name, boolean useProfile, Object mPackage) {
+        (useProfile ? profilePackages : packages).put(name, mPackage);
+    }
+
+    /**
+     * @return the top package of the Java profile, or null if there is none
+     */
+    Object getProfileModel() {
+        if (!profileModelFound) {
+            profileModelFound = true;
+            if (javaProfile != null) {
+                try {
+                    profileModel = javaProfile.getProfilePackages()
+                            .iterator().next();
+                } catch (Exception e) {
+                    profileModel = null;
+                }
+            }
+        }
+        return profileModel;
+    }
+
+    /**
+     * @param key the name of the stereotype, with its base class if it was
+     *            looked up for one
+     * @return the stereotype, or null if it was not looked up yet
+     */
+    Object getStereotype(String key) {
+        Object stereotype = stereotypes.get(key);
+        if (stereotype != null
+                && Model.getUmlFactory().isRemoved(stereotype)) {
+            stereotypes.remove(key);
+            return null;
+        }
+        return stereotype;
+    }
+
+    /**
+     * @param key the name of the stereotype, with its base class if it was
+     *            looked up for one
+     * @param stereotype the stereotype
+     */
+    void putStereotype(String key, Object stereotype) {
+        stereotypes.put(key, stereotype);
+    }
+
+    /**
+     * @return the context of the user model and the package java.lang that
+     *         every compilation unit starts with, or null if it was not
+     *         created yet
+     */
+    Context getBaseContext() {
+        return baseContext;
+    }
+
+    /**
+     * @param context the context that every compilation unit starts with
+     */
+    void setBaseContext(Context context) {
+        baseContext = context;
+    }
+}
@@ -0,0 +1,102 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.argouml.model.Model;
+
+/**
+ * An index of the classes of namespaces by name, for an import session.
+ * <p>
+ * The classes of a namespace, including the ones of its nested namespaces,
+ * are indexed when a class of the namespace is first looked up. The
+ * {@link Modeller} adds the classes it creates with {@link #add}. Classes
+ * that were created in another way, e.g. by a {@link Context} that found
+ * them on the classpath, are found by searching the namespace again when
+ * they are not in the index, so a lookup always has the same result as a
+ * search of the namespace. The {@link Modeller} clears the index when it
+ * deletes classes.
+ * <p>
+ * The index is not thread safe. It is only used by the thread that updates
+ * the model.
+ */
+class NamespaceIndex {
+
+    /**
+     * The classes of each namespace that was looked up, by name.
+     */
+    private final Map<Object, Map<String, Object>> classes =
+        new HashMap<Object, Map<String, Object>>();
+
+    /**
+     * Find a class in a namespace or its nested namespaces.
+     *
+     * @param namespace the namespace
+     * @param name the name of the class
+     * @return the class, or null if there is none
+     */
+    Object getClass(Object namespace, String name) {
+        Map<String, Object> index = classes.get(namespace);
+        if (index == null) {
+            index = new HashMap<String, Object>();
+            for (Object c : Model.getCoreHelper().getAllClasses(namespace)) {
+                String className = Model.getFacade().getName(c);
+                if (className != null && !index.containsKey(className)) {
+                    index.put(className, c);
+                }
+            }
+            classes.put(namespace, index);
+            return index.get(name);
+        }
+        Object mClass = index.get(name);
+        if (mClass == null) {
+            // it may have been created after the namespace was indexed
+            for (Object c : Model.getCoreHelper().getAllClasses(namespace)) {
+                if (name.equals(Model.getFacade().getName(c))) {
+                    mClass = c;
+                    index.put(name, c);
+                    break;
+                }
+            }
+        }
+        return mClass;
+    }
+
+    /**
+     * Add a class that was created in a namespace.
+     *
+     * @param namespace the namespace of the class
+     * @param mClass the class
+     */
+    void add(Object namespace, Object mClass) {
+        String name = Model.getFacade().getName(mClass);
+        if (name == null) {
+            return;
+        }
+        Map<String, Object> index = classes.get(namespace);
+        if (index != null && !index.containsKey(name)) {
+            index.put(name, mClass);
+        }
+    }
+
+    /**
+     * Remove all classes from the index, e.g. because some of them were
+     * deleted.
+     */
+    void clear() {
+        classes.clear();
+    }
+}
@@ -77,6 +77,14 @@ class OuterClassifierContext extends Context {
         packageJavaName = getJavaName(thePackage);
     }
 
+    @Override
+    protected ResolutionCache.Scope createScope(
+            ResolutionCache.Scope parent) {
+        // the package is the namespace of the classifier
+        return new ResolutionCache.Scope(this, mClassifier, namePrefix,
+                parent);
+    }
+
     public Object getInterface(String name) throws ClassifierNotFoundException {
         return get(name, true);
     }
@@ -113,15 +121,15 @@ class OuterClassifierContext extends Context {
         if (iClassifier == null
                 || Model.getFacade().isAOperation(iClassifier)) {
             iClassifier = null;
-            Class classifier;
+            int kind;
             String clazzName = namePrefix + name;
             // Special case for model
             if (!Model.getFacade().isAModel(mPackage)) {
                 clazzName = packageJavaName + "." + namePrefix + name;
             }
-            classifier = findClass(clazzName, interfacesOnly);
-            if (classifier != null) {
-                if (classifier.isInterface()) {
+            kind = findClass(clazzName, interfacesOnly);
+            if (kind != ClasspathIndex.NOT_FOUND) {
+                if (kind == ClasspathIndex.INTERFACE) {
                     iClassifier = Model.getCoreFactory().buildInterface(name,
                             mClassifier);
                 } else {
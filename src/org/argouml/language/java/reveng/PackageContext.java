@@ -67,6 +67,12 @@ class PackageContext extends Context {
         javaName = getJavaName(thePackage);
     }
 
+    @Override
+    protected ResolutionCache.Scope createScope(
+            ResolutionCache.Scope parent) {
+        return new ResolutionCache.Scope(this, mPackage, null, parent);
+    }
+
     /**
      * Get a classifier from the model. If it is not in the model, try to find
      * it with the CLASSPATH. If found, in the classpath, the classifier is
@@ -85,17 +91,17 @@ class PackageContext extends Context {
         Object mClassifier = Model.getFacade().lookupIn(mPackage, name);
 
         if (mClassifier == null) {
-            Class classifier;
+            int kind;
             String clazzName = name;
             // Special case for model
             if (!Model.getFacade().isAModel(mPackage)) {
                 clazzName = javaName + "." + name;
             }
-            classifier = findClass(clazzName, interfacesOnly);
-            if (classifier != null) {
+            kind = findClass(clazzName, interfacesOnly);
+            if (kind != ClasspathIndex.NOT_FOUND) {
                 // we found it, but not in the model, so we try to create it
                 try {
-                    if (classifier.isInterface()) {
+                    if (kind == ClasspathIndex.INTERFACE) {
                         mClassifier = Model.getCoreFactory().buildInterface(
                                 name, mPackage);
                     } else {
@@ -0,0 +1,365 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A cache on disk for the parser callbacks of source files, so that
+ * unchanged files don't need to be lexed and parsed again when they are
+ * imported again.
+ * <p>
+ * Each entry is a file in the cache directory that holds the
+ * {@link ModellerEvent}s of one {@link RecordingModeller}. It is named after
+ * a hash of the source text, the parser mode, the import level and the
+ * grammar version (a hash of the generated parser class), so any change to
+ * one of these results in a different entry.
+ * <p>
+ * The total size of the entries is bounded. When it's exceeded, the least
+ * recently used entries are deleted; the last modification time of an entry
+ * is updated when it is used. The sizes of the entries are kept in memory
+ * in the order they were used, so the directory is only listed when the
+ * cache is opened. Entries that can't be read, e.g. because they
+ * were written in another format version, are deleted as well.
+ * <p>
+ * The cache may be used by several parser threads at the same time.
+ */
+class ParseCache {
+
+    /** Logger. */
+    private static final Logger LOG =
+        Logger.getLogger(ParseCache.class.getName());
+
+    /**
+     * The version of the format of the entries. Increment this when the
+     * format changes.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4a504331; // "JPC1"
+
+    private static final String SUFFIX = ".jpc";
+
+    private static final String ALGORITHM = "SHA-1";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The grammar version, which is the same for all caches.
+     */
+    private static byte[] grammarVersion;
+
+    private final File directory;
+
+    private final long maxSize;
+
+    private long size;
+
+    /**
+     * The sizes of the entries by file name, the least recently used first.
+     */
+    private final Map<String, Long> entries =
+        new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Open a cache. The directory is created if it doesn't exist.
+     *
+     * @param theDirectory the cache directory
+     * @param theMaxSize the maximum total size of the entries in bytes
+     */
+    ParseCache(File theDirectory, long theMaxSize) {
+        directory = theDirectory;
+        maxSize = theMaxSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOG.warning("Cannot create parse cache directory " + directory);
+        }
+        File[] files = getEntries();
+        Arrays.sort(files, new Comparator<File>() {
+            public int compare(File f1, File f2) {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        for (File entry : files) {
+            long length = entry.length();
+            entries.put(entry.getName(), Long.valueOf(length));
+            size += length;
+        }
+        evict();
+    }
+
+    /**
+     * @return the number of files that were found in the cache
+     */
+    int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of files that were not found in the cache
+     */
+    int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Calculate the key of the entry for a source text.
+     *
+     * @param source the source text
+     * @param parserMode the parser mode
+     * @param level the import level
+     * @return the key
+     */
+    String getKey(CharBuffer source, int parserMode, int level) {
+        MessageDigest digest = createDigest();
+        digest.update(getGrammarVersion());
+        digest.update((byte) FORMAT_VERSION);
+        digest.update((byte) parserMode);
+        digest.update((byte) level);
+        byte[] bytes = new byte[BUFFER_SIZE];
+        char[] chars = source.array();
+        int limit = source.limit();
+        int i = 0;
+        while (i < limit) {
+            int n = 0;
+            for (; n < BUFFER_SIZE && i < limit; i++) {
+                bytes[n++] = (byte) (chars[i] >> 8);
+                bytes[n++] = (byte) chars[i];
+            }
+            digest.update(bytes, 0, n);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Load the recorded parser callbacks of a source file.
+     *
+     * @param key the key of the source text, see {@link #getKey}
+     * @param fileName the name of the source file
+     * @return the recording, or null if there is no valid entry
+     */
+    RecordingModeller load(String key, String fileName) {
+        File entry = new File(directory, key + SUFFIX);
+        if (!entry.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(entry), BUFFER_SIZE));
+            try {
+                if (in.readInt() != MAGIC
+                        || in.readInt() != FORMAT_VERSION
+                        || !key.equals(in.readUTF())) {
+                    throw new IOException("Not a current parse cache entry");
+                }
+                RecordingModeller recorder = new RecordingModeller(fileName);
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    recorder.record(ModellerEvent.read(in));
+                }
+                entry.setLastModified(System.currentTimeMillis());
+                synchronized (this) {
+                    // moves the entry to the most recently used ones
+                    entries.get(entry.getName());
+                }
+                hits.incrementAndGet();
+                return recorder;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Discarding parse cache entry " + entry, e);
+            discard(entry);
+            misses.incrementAndGet();
+            return null;
+        } catch (RuntimeException e) {
+            LOG.log(Level.FINE, "Discarding parse cache entry " + entry, e);
+            discard(entry);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store the recorded parser callbacks of a source file. Recordings of
+     * parses that failed must not be stored.
+     *
+     * @param key the key of the source text, see {@link #getKey}
+     * @param recorder the recording
+     */
+    void store(String key, RecordingModeller recorder) {
+        File entry = new File(directory, key + SUFFIX);
+        File temp = new File(directory, key + "."
+                + Thread.currentThread().getId() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp),
+                            BUFFER_SIZE));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeInt(recorder.getEvents().size());
+                for (ModellerEvent event : recorder.getEvents()) {
+                    event.write(out);
+                }
+            } finally {
+                out.close();
+            }
+            synchronized (this) {
+                // the rename fails on some platforms if the entry exists
+                entry.delete();
+                Long old = entries.remove(entry.getName());
+                if (old != null) {
+                    size -= old.longValue();
+                }
+                if (!temp.renameTo(entry)) {
+                    throw new IOException("Cannot rename " + temp);
+                }
+                long length = entry.length();
+                entries.put(entry.getName(), Long.valueOf(length));
+                size += length;
+                evict();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot write parse cache entry " + entry,
+                    e);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Delete the least recently used entries until the total size is
+     * within the bound.
+     */
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (size > maxSize && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            size -= eldest.getValue().longValue();
+            new File(directory, eldest.getKey()).delete();
+        }
+    }
+
+    /**
+     * Delete an entry that can't be used.
+     *
+     * @param entry the file of the entry
+     */
+    private synchronized void discard(File entry) {
+        entry.delete();
+        Long length = entries.remove(entry.getName());
+        if (length != null) {
+            size -= length.longValue();
+        }
+    }
+
+    private File[] getEntries() {
+        File[] entries = directory.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SUFFIX);
+            }
+        });
+        return (entries == null) ? new File[0] : entries;
+    }
+
+    /**
+     * @return a new digest for the hashes of the cache
+     */
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The grammar version is the hash of the generated parser class, so a
+     * change to the grammar invalidates all entries.
+     *
+     * @return the grammar version
+     */
+    private static synchronized byte[] getGrammarVersion() {
+        if (grammarVersion == null) {
+            MessageDigest digest = createDigest();
+            InputStream in = JavaParser.class.getResourceAsStream(
+                    "JavaParser.class");
+            try {
+                if (in != null) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, n);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot read the parser class", e);
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+            grammarVersion = digest.digest();
+        }
+        return grammarVersion;
+    }
+
+    /**
+     * @param bytes some bytes, e.g. a hash
+     * @return the bytes as a lower case hex string
+     */
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
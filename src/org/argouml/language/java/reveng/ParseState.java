@@ -40,6 +40,11 @@ package org.argouml.language.java.reveng;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.argouml.model.Model;
@@ -58,10 +63,23 @@ class ParseState {
         Logger.getLogger(ParseState.class.getName());
 
     /**
-     * When the classifier parse is finished, these features will be
+     * The features of the classifier when its parse started. When the
+     * classifier parse is finished, the ones that are still pending will be
      * removed from the model.
      */
-    private Collection obsoleteFeatures;
+    private List<Object> obsoleteFeatures;
+
+    /**
+     * The features that were not found in the source yet, with the name
+     * they are indexed by in {@link #pendingFeaturesByName}.
+     */
+    private Map<Object, String> pendingFeatures;
+
+    /**
+     * The features that were not found in the source yet, by name, in the
+     * order of {@link #obsoleteFeatures}.
+     */
+    private Map<String, List<Object>> pendingFeaturesByName;
 
     /**
      * When the classifier parse is finished, these inner classes
@@ -102,11 +120,22 @@ class ParseState {
      * @param javaLangPackage The default package java.lang.
      */
     public ParseState(Object model, Object javaLangPackage) {
+	this(new PackageContext(new PackageContext(null, model),
+				javaLangPackage));
+    }
+
+    /**
+     * Create a new parse state for a compilation unit. The contexts are
+     * immutable, so the base context may be shared by the parse states of
+     * an import session.
+     *
+     * @param baseContext The context of the model and the default package
+     *            java.lang.
+     */
+    ParseState(Context baseContext) {
 	obsoleteInnerClasses = new ArrayList();
 	classifier = null;
-	context =
-	    new PackageContext(new PackageContext(null, model),
-				   javaLangPackage);
+	context = baseContext;
 	anonymousClassCounter = 0;
     }
 
@@ -121,14 +150,31 @@ class ParseState {
                       Object mClassifier,
                       Object currentPackage) {
 
-        LOG.info("Parsing the state of " + mClassifier);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Parsing the state of "
+                    + Model.getFacade().getName(mClassifier));
+        }
 
         classnamePrefix =
             previousState.classnamePrefix
             + Model.getFacade().getName(mClassifier)
             + "$";
         obsoleteFeatures =
-            new ArrayList(Model.getFacade().getFeatures(mClassifier));
+            new ArrayList<Object>(Model.getFacade().getFeatures(mClassifier));
+        pendingFeatures = new IdentityHashMap<Object, String>();
+        pendingFeaturesByName = new HashMap<String, List<Object>>();
+        for (Object feature : obsoleteFeatures) {
+            String name = Model.getFacade().getName(feature);
+            pendingFeatures.put(feature, name);
+            if (name != null) {
+                List<Object> features = pendingFeaturesByName.get(name);
+                if (features == null) {
+                    features = new ArrayList<Object>(1);
+                    pendingFeaturesByName.put(name, features);
+                }
+                features.add(feature);
+            }
+        }
         obsoleteInnerClasses =
             new ArrayList(Model.getFacade().getOwnedElements(mClassifier));
         context =
@@ -255,11 +301,31 @@ class ParseState {
             return;
         }
         for (Object feature : obsoleteFeatures) {
-            Model.getCoreHelper().removeFeature(classifier, feature);
-            Model.getUmlFactory().delete(feature);
+            if (pendingFeatures.containsKey(feature)) {
+                Model.getCoreHelper().removeFeature(classifier, feature);
+                Model.getUmlFactory().delete(feature);
+            }
     	}
     }
 
+    /**
+     * Get the names of the inner classes that
+     * {@link #removeObsoleteInnerClasses()} will remove.
+     *
+     * @return the names of the obsolete inner classes
+     */
+    Collection<String> getObsoleteInnerClassNames() {
+        Collection<String> names = new ArrayList<String>();
+        if (obsoleteInnerClasses != null) {
+            for (Object element : obsoleteInnerClasses) {
+                if (Model.getFacade().isAClassifier(element)) {
+                    names.add(Model.getFacade().getName(element));
+                }
+            }
+        }
+        return names;
+    }
+
     /**
      * Remove inner classes no longer in the source from the current
      * classifier in the model.
@@ -282,7 +348,30 @@ class ParseState {
      * @param feature The feature.
      */
     public void feature(Object feature) {
-	obsoleteFeatures.remove(feature);
+        if (pendingFeatures == null || !pendingFeatures.containsKey(feature)) {
+            return;
+        }
+        String name = pendingFeatures.remove(feature);
+        if (name != null) {
+            List<Object> features = pendingFeaturesByName.get(name);
+            features.remove(feature);
+            if (features.isEmpty()) {
+                pendingFeaturesByName.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Get the features with a name that were not modeled yet.
+     *
+     * @param name The name of the features.
+     * @return The features, or null if there are none.
+     */
+    private List<Object> getPendingFeatures(String name) {
+        if (pendingFeaturesByName == null) {
+            return null;
+        }
+        return pendingFeaturesByName.get(name);
     }
 
     /**
@@ -292,12 +381,8 @@ class ParseState {
      * @return The found feature, null if not found.
      */
     public Object getFeature(String name) {
-        for (Object mFeature : obsoleteFeatures) {
-	    if (name.equals(Model.getFacade().getName(mFeature))) {
-		return mFeature;
-	    }
-	}
-	return null;
+        List<Object> features = getPendingFeatures(name);
+        return (features == null) ? null : features.get(0);
     }
 
     /**
@@ -307,13 +392,11 @@ class ParseState {
      * @return The collection of found features
      */
     public Collection getFeatures(String name) {
-    	ArrayList list = new ArrayList();
-    	for (Object mFeature : obsoleteFeatures) {
-	    if (name.equals(Model.getFacade().getName(mFeature))) {
-		list.add(mFeature);
-	    }
-	}
-	return list;
+        List<Object> features = getPendingFeatures(name);
+        if (features == null) {
+            return new ArrayList<Object>();
+        }
+        return new ArrayList<Object>(features);
     }
 
     /**
@@ -323,13 +406,15 @@ class ParseState {
      * @return The found method, null if not found.
      */
     public Object getMethod(String name) {
-        for (Object mFeature : obsoleteFeatures) {
-	    if (Model.getFacade().isAMethod(mFeature)
-		&& name.equals(Model.getFacade().getName(mFeature))) {
-		return mFeature;
-	    }
-	}
-	return null;
+        List<Object> features = getPendingFeatures(name);
+        if (features != null) {
+            for (Object feature : features) {
+                if (Model.getFacade().isAMethod(feature)) {
+                    return feature;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -339,13 +424,15 @@ class ParseState {
      * @return The found operation, null if not found.
      */
     public Object getOperation(String name) {
-        for (Object feature : obsoleteFeatures) {
-	    if (Model.getFacade().isAOperation(feature)
-                    && name.equals(Model.getFacade().getName(feature))) {
-		return feature;
-	    }
-	}
-	return null;
+        List<Object> features = getPendingFeatures(name);
+        if (features != null) {
+            for (Object feature : features) {
+                if (Model.getFacade().isAOperation(feature)) {
+                    return feature;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -355,10 +442,12 @@ class ParseState {
      * @return The found attribute, null if not found.
      */
     public Object getAttribute(String name) {
-        for (Object feature : obsoleteFeatures) {
-            if (Model.getFacade().isAAttribute(feature)
-                    && name.equals(Model.getFacade().getName(feature))) {
-                return feature;
+        List<Object> features = getPendingFeatures(name);
+        if (features != null) {
+            for (Object feature : features) {
+                if (Model.getFacade().isAAttribute(feature)) {
+                    return feature;
+                }
             }
         }
         return null;
@@ -0,0 +1,398 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A modeller that doesn't touch the model, but records the calls the parser
+ * makes as a list of {@link ModellerEvent}s. This allows lexing and parsing
+ * a source file on any thread, and replaying the result later into a real
+ * {@link Modeller} on the thread that owns the model.
+ * <p>
+ * Replaying the events results in exactly the same calls to the modeller
+ * (with the same arguments and in the same order) as parsing the file
+ * directly with that modeller.
+ * <p>
+ * If the source text is known while parsing, operation bodies are recorded
+ * as offsets into the source instead of copies of the text. The source then
+ * has to be passed in again to replay the recording.
+ */
+class RecordingModeller extends Modeller {
+
+    /**
+     * The recorded parser callbacks, in parser order.
+     */
+    private final List<ModellerEvent> events = new ArrayList<ModellerEvent>();
+
+    /**
+     * The exception that aborted the parse, if any.
+     */
+    private Exception failure;
+
+    /**
+     * The source text while parsing, or null.
+     */
+    private char[] source;
+
+    private int sourceLength;
+
+    /**
+     * The offset in the source after the last recorded body.
+     */
+    private int bodyCursor;
+
+    private boolean bodiesInSource;
+
+    /**
+     * The length of the released source text, -1 if it was unknown, or -2
+     * if the source text was not released.
+     */
+    private int releasedLength = -2;
+
+    private int releasedHash;
+
+    /**
+     * The time it took to parse the file, or to load the recording.
+     */
+    private long parseNanos;
+
+    /**
+     * Create a new recording modeller.
+     *
+     * @param theFileName the name of the file being parsed
+     */
+    RecordingModeller(String theFileName) {
+        super(theFileName);
+    }
+
+    /**
+     * @return the recorded events
+     */
+    List<ModellerEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the exception that aborted the parse, or null if the parse
+     *         completed
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * @param e the exception that aborted the parse
+     */
+    void setFailure(Exception e) {
+        failure = e;
+    }
+
+    /**
+     * @return the time it took to parse the file, in nanoseconds
+     */
+    long getParseTime() {
+        return parseNanos;
+    }
+
+    /**
+     * @param nanos the time it took to parse the file, in nanoseconds
+     */
+    void setParseTime(long nanos) {
+        parseNanos = nanos;
+    }
+
+    /**
+     * Set the source text of the file that is parsed. Must be the text the
+     * lexer reads, so bodies can be found in it.
+     *
+     * @param data the source text, or null to stop recording bodies as
+     *            offsets
+     * @param length the length of the source text in <code>data</code>
+     */
+    void setSource(char[] data, int length) {
+        source = data;
+        sourceLength = length;
+        bodyCursor = 0;
+    }
+
+    /**
+     * @return the source text, or null if it isn't set
+     */
+    char[] getSource() {
+        return source;
+    }
+
+    /**
+     * @return the length of the source text in {@link #getSource()}
+     */
+    int getSourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * Release the source text, to save memory until the recording is
+     * replayed. Its length and hash are kept, so a text that is read again
+     * can be checked to be the same, see {@link #isSameSource}.
+     */
+    void releaseSource() {
+        if (source == null) {
+            releasedLength = -1;
+        } else {
+            releasedLength = sourceLength;
+            releasedHash = JavaSourceReader.hash(
+                    CharBuffer.wrap(source, 0, sourceLength));
+        }
+        setSource(null, 0);
+    }
+
+    /**
+     * Check that a text that was read again is the text that was parsed.
+     * The offsets of the bodies in the source only fit that text.
+     *
+     * @param text the source text
+     * @param length the length of the source text in <code>text</code>
+     * @return true if the text is the released source text, or if no
+     *         source text was released
+     */
+    boolean isSameSource(char[] text, int length) {
+        if (releasedLength == -2) {
+            return true;
+        }
+        return releasedLength == length && releasedHash
+            == JavaSourceReader.hash(CharBuffer.wrap(text, 0, length));
+    }
+
+    /**
+     * @return true if replaying needs the source text
+     */
+    boolean isSourceNeeded() {
+        return bodiesInSource;
+    }
+
+    /**
+     * Replay all recorded events into a modeller.
+     *
+     * @param modeller the modeller that is connected to the model
+     * @param text the source text if {@link #isSourceNeeded()}, else null
+     */
+    void replay(Modeller modeller, char[] text) {
+        replay(modeller, text, false, true);
+    }
+
+    /**
+     * Replay the events into a modeller as if the file was parsed for the
+     * first of two import passes. This is meant for recordings of the parse
+     * for the second pass, so that a file needs to be parsed only once for
+     * both passes: forced updates and dependencies are skipped, and so are
+     * features if the first pass doesn't import them.
+     *
+     * @param modeller the modeller that is connected to the model
+     * @param features true if the first pass imports features
+     */
+    void replayFirstPass(Modeller modeller, boolean features) {
+        replay(modeller, null, true, features);
+    }
+
+    private void replay(Modeller modeller, char[] text, boolean firstPass,
+            boolean features) {
+        Map<Integer, Object> operations = new HashMap<Integer, Object>();
+        for (int i = 0; i < events.size(); i++) {
+            ModellerEvent event = events.get(i);
+            int kind = event.getKind();
+            if (firstPass) {
+                if (kind == ModellerEvent.CLASSIFIER_DEPENDENCY) {
+                    continue;
+                }
+                if (!features && (kind == ModellerEvent.OPERATION
+                        || kind == ModellerEvent.BODY
+                        || kind == ModellerEvent.ATTRIBUTE)) {
+                    continue;
+                }
+            }
+            Object op = null;
+            if (kind == ModellerEvent.BODY) {
+                op = operations.get(event.getOperation());
+            }
+            Object result = event.replay(modeller, op, text, firstPass);
+            if (kind == ModellerEvent.OPERATION) {
+                operations.put(i, result);
+            }
+        }
+    }
+
+    /**
+     * Find a body in the source. The parser strips the braces and the
+     * surrounding white space of a body and appends a newline, so all but
+     * the last character of the body is a copy of the source. Bodies are
+     * reported in source order, so the search starts after the last one.
+     *
+     * @param body the body as passed in by the parser
+     * @return the offset of the body in the source, or -1
+     */
+    private int findInSource(String body) {
+        if (source == null || body == null || body.length() == 0) {
+            return -1;
+        }
+        int length = body.length() - 1;
+        if (body.charAt(length) != '\n') {
+            return -1;
+        }
+        for (int i = bodyCursor; i <= sourceLength - length; i++) {
+            int j = 0;
+            while (j < length && source[i + j] == body.charAt(j)) {
+                j++;
+            }
+            if (j == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add an event, as if the parser made the call.
+     *
+     * @param event the event to add
+     */
+    void record(ModellerEvent event) {
+        events.add(event);
+        if (event.isBodyInSource()) {
+            bodiesInSource = true;
+        }
+    }
+
+    @Override
+    public void addComponent() {
+        record(new ModellerEvent(ModellerEvent.COMPONENT, null));
+    }
+
+    @Override
+    public void addPackage(String name) {
+        record(new ModellerEvent(ModellerEvent.PACKAGE, name));
+    }
+
+    @Override
+    void addImport(String name, boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.IMPORT, name, (short) 0, null,
+                null, null, null, null, null, -1, forceIt));
+    }
+
+    @Override
+    void addClass(String name, short modifiers, List<String> typeParameters,
+            String superclassName, List<String> interfaces, String javadoc,
+            boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.CLASS, name, modifiers,
+                superclassName, typeParameters, interfaces, null, javadoc,
+                null, -1, forceIt));
+    }
+
+    @Override
+    void addAnonymousClass(String type, boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.ANONYMOUS_CLASS, null,
+                (short) 0, type, null, null, null, null, null, -1, forceIt));
+    }
+
+    @Override
+    void addInterface(String name, short modifiers,
+            List<String> typeParameters, List<String> interfaces,
+            String javadoc, boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.INTERFACE, name, modifiers,
+                null, typeParameters, interfaces, null, javadoc, null, -1,
+                forceIt));
+    }
+
+    @Override
+    void addEnumeration(String name, short modifiers, List<String> interfaces,
+            String javadoc, boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.ENUMERATION, name, modifiers,
+                null, null, interfaces, null, javadoc, null, -1, forceIt));
+    }
+
+    @Override
+    void addEnumerationLiteral(String name) {
+        record(new ModellerEvent(ModellerEvent.ENUMERATION_LITERAL, name));
+    }
+
+    @Override
+    void addAnnotationDefinition(String name, short modifiers, String javadoc,
+            boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.ANNOTATION_DEFINITION, name,
+                modifiers, null, null, null, null, javadoc, null, -1,
+                forceIt));
+    }
+
+    @Override
+    void addAnnotation(String name) {
+        record(new ModellerEvent(ModellerEvent.ANNOTATION, name));
+    }
+
+    @Override
+    void endAnnotation() {
+        record(new ModellerEvent(ModellerEvent.END_ANNOTATION, null));
+    }
+
+    @Override
+    public void popClassifier() {
+        record(new ModellerEvent(ModellerEvent.POP_CLASSIFIER, null));
+    }
+
+    /**
+     * Record an operation. Instead of the operation, the index of the
+     * recorded event is returned, and the parser hands it back to
+     * {@link #addBodyToOperation(Object, String)}.
+     */
+    @Override
+    Object addOperation(short modifiers, List<String> typeParameters,
+            String returnType, String name,
+            List<ParameterDeclaration> parameters, String javadoc,
+            boolean forceIt) {
+        Integer index = Integer.valueOf(events.size());
+        record(new ModellerEvent(ModellerEvent.OPERATION, name, modifiers,
+                returnType, typeParameters, null, parameters, javadoc, null,
+                -1, forceIt));
+        return index;
+    }
+
+    @Override
+    public void addBodyToOperation(Object op, String body) {
+        int index = (op instanceof Integer) ? ((Integer) op).intValue() : -1;
+        int offset = findInSource(body);
+        if (offset >= 0) {
+            int length = body.length() - 1;
+            record(new ModellerEvent(index, offset, length));
+            bodyCursor = offset + length;
+        } else {
+            record(new ModellerEvent(ModellerEvent.BODY, null, (short) 0,
+                    null, null, null, null, null, body, index, false));
+        }
+    }
+
+    @Override
+    void addAttribute(short modifiers, String typeSpec, String name,
+            String initializer, String javadoc, boolean forceIt) {
+        record(new ModellerEvent(ModellerEvent.ATTRIBUTE, name, modifiers,
+                typeSpec, null, null, null, javadoc, initializer, -1,
+                forceIt));
+    }
+
+    @Override
+    void addClassifierDependency(String name) {
+        record(new ModellerEvent(ModellerEvent.CLASSIFIER_DEPENDENCY, name));
+    }
+}
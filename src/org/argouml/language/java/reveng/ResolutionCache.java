@@ -0,0 +1,260 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache for the resolution of type names to classifiers during an import
+ * session.
+ * <p>
+ * Resolving a type name walks the chain of {@link Context}s of the file
+ * that is parsed, i.e. the classifiers, the imported packages and classes,
+ * java.lang and the model, and probes the classpath for every package on
+ * the way. The result only depends on the chain (the scope) and the name,
+ * so it is cached by these, together with the interfacesOnly flag. Scopes
+ * are compared by value, so files with the same package and imports share
+ * their entries. Failed resolutions are cached as well.
+ * <p>
+ * An entry becomes wrong when a classifier with the same simple name is
+ * created or deleted, so the {@link Modeller} tells the cache about these
+ * with {@link #invalidate(String)}.
+ * <p>
+ * The cache is not thread safe. It is only used by the thread that updates
+ * the model.
+ */
+class ResolutionCache {
+
+    /**
+     * The value of an entry for a name that couldn't be resolved.
+     */
+    static final Object NOT_FOUND = new Object();
+
+    private final Map<Key, Object> entries = new HashMap<Key, Object>();
+
+    /**
+     * The keys of the entries, by the simple name of the type.
+     */
+    private final Map<String, List<Key>> keysByName =
+        new HashMap<String, List<Key>>();
+
+    private int hits;
+
+    private int misses;
+
+    /**
+     * Look up the resolution of a type name.
+     *
+     * @param scope the scope of the context the name is resolved in
+     * @param name the type name, without type arguments
+     * @param interfacesOnly true if only interfaces are looked for
+     * @return the classifier, {@link #NOT_FOUND} if the name couldn't be
+     *         resolved, or null if it is not in the cache
+     */
+    Object get(Scope scope, String name, boolean interfacesOnly) {
+        Object value = entries.get(new Key(scope, name, interfacesOnly));
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Store the resolution of a type name.
+     *
+     * @param scope the scope of the context the name was resolved in
+     * @param name the type name, without type arguments
+     * @param interfacesOnly true if only interfaces were looked for
+     * @param classifier the classifier, or null if the name couldn't be
+     *            resolved
+     */
+    void put(Scope scope, String name, boolean interfacesOnly,
+            Object classifier) {
+        String simpleName = getSimpleName(name);
+        List<Key> keys = keysByName.get(simpleName);
+        if (keys == null) {
+            keys = new ArrayList<Key>();
+            keysByName.put(simpleName, keys);
+        } else if (classifier != null) {
+            // the resolution may have found the classifier on the
+            // classpath and created it, which other scopes didn't see yet
+            for (Iterator<Key> it = keys.iterator(); it.hasNext();) {
+                Key key = it.next();
+                if (entries.get(key) == NOT_FOUND) {
+                    entries.remove(key);
+                    it.remove();
+                }
+            }
+        }
+        Key key = new Key(scope, name, interfacesOnly);
+        if (entries.put(key, classifier == null ? NOT_FOUND : classifier)
+                == null) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Remove all entries for a simple type name, because a classifier with
+     * that name was created or deleted.
+     *
+     * @param simpleName the name of the classifier
+     */
+    void invalidate(String simpleName) {
+        if (simpleName == null) {
+            return;
+        }
+        List<Key> keys = keysByName.remove(simpleName);
+        if (keys != null) {
+            for (Key key : keys) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    void clear() {
+        entries.clear();
+        keysByName.clear();
+    }
+
+    /**
+     * @return the number of entries
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups that were found in the cache
+     */
+    int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that were not found in the cache
+     */
+    int getMisses() {
+        return misses;
+    }
+
+    private static String getSimpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * The value of a {@link Context} chain, i.e. the kind and element of
+     * every context in the chain.
+     */
+    static final class Scope {
+        private final Class kind;
+
+        private final Object element;
+
+        private final String prefix;
+
+        private final Scope parent;
+
+        private final int hash;
+
+        /**
+         * @param context the context
+         * @param theElement the package or classifier of the context
+         * @param thePrefix the inner class prefix of the context, or null
+         * @param theParent the scope of the parent context, or null
+         */
+        Scope(Context context, Object theElement, String thePrefix,
+                Scope theParent) {
+            kind = context.getClass();
+            element = theElement;
+            prefix = thePrefix;
+            parent = theParent;
+            int h = kind.hashCode();
+            h = 31 * h + (element == null ? 0 : element.hashCode());
+            h = 31 * h + (prefix == null ? 0 : prefix.hashCode());
+            h = 31 * h + (parent == null ? 0 : parent.hash);
+            hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Scope)) {
+                return false;
+            }
+            Scope s = (Scope) o;
+            return hash == s.hash
+                && kind == s.kind
+                && (element == null ? s.element == null
+                        : element.equals(s.element))
+                && (prefix == null ? s.prefix == null
+                        : prefix.equals(s.prefix))
+                && (parent == null ? s.parent == null
+                        : parent.equals(s.parent));
+        }
+    }
+
+    /**
+     * The key of an entry.
+     */
+    private static final class Key {
+        private final Scope scope;
+
+        private final String name;
+
+        private final boolean interfacesOnly;
+
+        private final int hash;
+
+        Key(Scope theScope, String theName, boolean isInterfacesOnly) {
+            scope = theScope;
+            name = theName;
+            interfacesOnly = isInterfacesOnly;
+            hash = (31 * theScope.hashCode() + theName.hashCode()) * 2
+                + (isInterfacesOnly ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return hash == k.hash
+                && interfacesOnly == k.interfacesOnly
+                && name.equals(k.name)
+                && scope.equals(k.scope);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Walks the classfiles of the files of an import. A file can be a
+ * classfile, a directory with classfiles, or an archive (JAR, WAR or EAR).
+ * Archives in archives, like the libraries in <code>WEB-INF/lib</code> of a
+ * WAR, are walked too.
+ * <p>
+ * The entries of a nested archive are read from the stream of its entry in
+ * the parent archive. So nothing is extracted, and only the entry that is
+ * visited is in memory. The classfiles are visited in the same order by
+ * each walk.
+ * <p>
+ * A {@link ClassFilter} can skip classfiles by their names, so they are
+ * not visited. The entries of the selected archives are read by random
+ * access, so the entries that are skipped are not read at all.
+ * <p>
+ * The archive files are opened by the first walk and kept open until the
+ * walker is closed, so their directories are read once for all walks. The
+ * nested archives have no directory that can be read without extracting
+ * them, so each walk reads them again from the stream of their entry.
+ */
+final class ArchiveWalker {
+
+    /**
+     * The separator of the name of an archive and the name of an entry in
+     * the name of a classfile, as in JAR URLs.
+     */
+    static final String SEPARATOR = "!/";
+
+    /**
+     * Visits the classfiles of a walk.
+     */
+    interface Visitor {
+
+        /**
+         * Visit a classfile.
+         *
+         * @param name the path of the classfile, with the paths of the
+         *            archives it is in
+         * @param in the contents of the classfile, which needn't be read
+         *            completely and mustn't be closed
+         * @return false to end the walk
+         * @throws IOException if the classfile can't be read
+         */
+        boolean visit(String name, InputStream in) throws IOException;
+    }
+
+    private final List<File> files;
+
+    private final ClassFilter filter;
+
+    /**
+     * The open archive files by their files.
+     */
+    private final Map<File, ZipFile> archives = new HashMap<File, ZipFile>();
+
+    /**
+     * Create a walker that visits all classfiles.
+     *
+     * @param importFiles the files, directories and archives to import
+     */
+    ArchiveWalker(Collection<File> importFiles) {
+        this(importFiles, null);
+    }
+
+    /**
+     * Create a walker.
+     *
+     * @param importFiles the files, directories and archives to import
+     * @param classFilter the filter of the names of the classfiles, or null
+     *            to visit all classfiles
+     */
+    ArchiveWalker(Collection<File> importFiles, ClassFilter classFilter) {
+        files = new ArrayList<File>(importFiles);
+        filter = classFilter;
+    }
+
+    /**
+     * Visit all classfiles.
+     *
+     * @param visitor the visitor
+     * @return false if the visitor ended the walk
+     * @throws IOException if a file can't be read
+     */
+    boolean walk(Visitor visitor) throws IOException {
+        for (File f : files) {
+            if (!walk(f, visitor, true)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Close the archive files that the walks opened. The walker can still
+     * be used, and opens them again.
+     *
+     * @throws IOException if an archive can't be closed
+     */
+    synchronized void close() throws IOException {
+        IOException failure = null;
+        for (ZipFile zip : archives.values()) {
+            try {
+                zip.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        archives.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @param name the name of a file or of an entry of an archive
+     * @return true if it is an archive that is walked
+     */
+    static boolean isArchive(String name) {
+        String lower = name.toLowerCase(Locale.ENGLISH);
+        return lower.endsWith(".jar") || lower.endsWith(".war")
+            || lower.endsWith(".ear");
+    }
+
+    /**
+     * @param name the name of a file or of an entry of an archive
+     * @return true if it is a classfile
+     */
+    static boolean isClassfile(String name) {
+        return name.endsWith(".class");
+    }
+
+    /**
+     * Read the rest of a stream.
+     *
+     * @param in the stream
+     * @return the bytes that were read
+     * @throws IOException if the stream can't be read
+     */
+    static byte[] readFully(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int length = 0;
+        int n;
+        while ((n = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += n;
+            if (length == buffer.length) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, length);
+                buffer = larger;
+            }
+        }
+        byte[] result = new byte[length];
+        System.arraycopy(buffer, 0, result, 0, length);
+        return result;
+    }
+
+    /**
+     * @param f the file
+     * @param visitor the visitor
+     * @param explicit true if the file was selected for the import, so it
+     *            is a classfile whatever its name is
+     */
+    private boolean walk(File f, Visitor visitor, boolean explicit)
+        throws IOException {
+        if (f.isDirectory()) {
+            File[] children = f.listFiles();
+            if (children == null) {
+                throw new IOException("Can't list the directory " + f);
+            }
+            // The same order on all platforms and for each walk.
+            Arrays.sort(children);
+            for (File child : children) {
+                if (!walk(child, visitor, false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (isArchive(f.getName())) {
+            return walkArchive(f, visitor);
+        }
+        if (!explicit && (!isClassfile(f.getName())
+                || filter != null && !filter.acceptsFileName(f.getName()))) {
+            return true;
+        }
+        InputStream in = new BufferedInputStream(new FileInputStream(f));
+        try {
+            return visitor.visit(f.getPath(), in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Walk the entries of an archive file.
+     *
+     * @param f the archive
+     * @param visitor the visitor
+     */
+    private boolean walkArchive(File f, Visitor visitor) throws IOException {
+        ZipFile zip = getArchive(f);
+        for (Enumeration<? extends ZipEntry> e = zip.entries();
+                e.hasMoreElements();) {
+            ZipEntry entry = e.nextElement();
+            if (entry.isDirectory() || !isWanted(entry.getName())) {
+                continue;
+            }
+            String name = f.getPath() + SEPARATOR + entry.getName();
+            InputStream in =
+                new BufferedInputStream(zip.getInputStream(entry));
+            try {
+                boolean more;
+                if (isClassfile(entry.getName())) {
+                    more = visitor.visit(name, in);
+                } else {
+                    more = walkArchive(name, in, visitor);
+                }
+                if (!more) {
+                    return false;
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param f an archive file
+     * @return the open archive, which is opened by the first walk
+     * @throws IOException if the archive can't be opened
+     */
+    private synchronized ZipFile getArchive(File f) throws IOException {
+        ZipFile zip = archives.get(f);
+        if (zip == null) {
+            zip = new ZipFile(f);
+            archives.put(f, zip);
+        }
+        return zip;
+    }
+
+    /**
+     * Walk the entries of an archive.
+     *
+     * @param path the path of the archive
+     * @param in the contents of the archive, which is not closed
+     * @param visitor the visitor
+     */
+    private boolean walkArchive(String path, InputStream in,
+            Visitor visitor) throws IOException {
+        ZipInputStream zip = new ZipInputStream(new KeepOpenInputStream(in));
+        try {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null;
+                    entry = zip.getNextEntry()) {
+                if (entry.isDirectory() || !isWanted(entry.getName())) {
+                    continue;
+                }
+                String name = path + SEPARATOR + entry.getName();
+                if (isClassfile(entry.getName())) {
+                    if (!visitor.visit(name, new KeepOpenInputStream(zip))) {
+                        return false;
+                    }
+                } else if (!walkArchive(name, zip, visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            // releases the inflater, but not the stream of the parent
+            zip.close();
+        }
+    }
+
+    /**
+     * @param entryName the name of an archive entry
+     * @return true if the entry is an archive, or a classfile that the
+     *         filter accepts
+     */
+    private boolean isWanted(String entryName) {
+        if (isArchive(entryName)) {
+            return true;
+        }
+        return isClassfile(entryName)
+            && (filter == null || filter.acceptsEntry(entryName));
+    }
+
+    /**
+     * A stream that ignores the closing, so the visitors and the nested
+     * archives can't close the stream of the archive they are in.
+     */
+    private static final class KeepOpenInputStream extends FilterInputStream {
+
+        KeepOpenInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // the stream is closed by its owner
+        }
+    }
+}
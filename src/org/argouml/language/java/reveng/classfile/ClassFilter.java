@@ -0,0 +1,223 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the classes of a classfile import. The classes are selected by
+ * the packages they are in, by their visibility and by whether the compiler
+ * generated them.
+ * <p>
+ * The packages are given as globs of class names, where <code>*</code>
+ * matches a part of a name without dots and <code>**</code> matches any
+ * part of a name. So <code>com.example.api.*</code> selects the classes of
+ * the package <code>com.example.api</code>, and
+ * <code>com.example.api.**</code> also those of its subpackages.
+ * <p>
+ * The filter is checked twice, so that rejected classfiles cost as little
+ * as possible. The name of an archive entry is checked before the entry is
+ * read, and the head of a classfile is checked before the classfile is
+ * parsed.
+ */
+final class ClassFilter {
+
+    /**
+     * The access flag of a module-info classfile.
+     */
+    private static final int ACC_MODULE = 0x8000;
+
+    /**
+     * The directories that hold the packages in some archives, like
+     * <code>WEB-INF/classes/</code> in a WAR.
+     */
+    private static final String[] CLASS_DIRECTORIES = {
+        "WEB-INF/classes/", "BOOT-INF/classes/",
+    };
+
+    private static final String VERSIONS = "META-INF/versions/";
+
+    private final List<Pattern> includes;
+
+    private final List<Pattern> excludes;
+
+    private final boolean publicOnly;
+
+    private final boolean skipGenerated;
+
+    /**
+     * Create a filter.
+     *
+     * @param includeGlobs the globs of the classes to import, all classes
+     *            if empty
+     * @param excludeGlobs the globs of the classes not to import
+     * @param onlyPublic true to import only public classes
+     * @param skipGeneratedClasses true to skip the classes the compiler
+     *            generated: synthetic and anonymous classes, and the
+     *            module-info and package-info classfiles
+     */
+    ClassFilter(List<String> includeGlobs, List<String> excludeGlobs,
+            boolean onlyPublic, boolean skipGeneratedClasses) {
+        includes = compile(includeGlobs);
+        excludes = compile(excludeGlobs);
+        publicOnly = onlyPublic;
+        skipGenerated = skipGeneratedClasses;
+    }
+
+    /**
+     * Check the name of a classfile in an archive. The packages are those
+     * of the path of the entry, so this is not used for files in
+     * directories, where the package is not known from the path.
+     *
+     * @param entryName the name of the archive entry
+     * @return false if the class is not imported
+     */
+    boolean acceptsEntry(String entryName) {
+        String name = entryName;
+        for (String dir : CLASS_DIRECTORIES) {
+            if (name.startsWith(dir)) {
+                name = name.substring(dir.length());
+                break;
+            }
+        }
+        if (name.startsWith(VERSIONS)) {
+            // META-INF/versions/11/p/A.class
+            int slash = name.indexOf('/', VERSIONS.length());
+            if (slash >= 0) {
+                name = name.substring(slash + 1);
+            }
+        }
+        if (name.endsWith(".class")) {
+            name = name.substring(0, name.length() - ".class".length());
+        }
+        return acceptsFileName(name) && acceptsName(name);
+    }
+
+    /**
+     * Check the name of a classfile by the name of its class only, as for
+     * files in directories.
+     *
+     * @param fileName the name or path of the file
+     * @return false if the class is not imported
+     */
+    boolean acceptsFileName(String fileName) {
+        if (!skipGenerated) {
+            return true;
+        }
+        int start = Math.max(fileName.lastIndexOf('/'),
+                fileName.lastIndexOf('\\')) + 1;
+        String name = fileName.substring(start);
+        if (name.startsWith("module-info.")
+                || name.startsWith("package-info.")
+                || name.equals("module-info")
+                || name.equals("package-info")) {
+            return false;
+        }
+        return !isAnonymous(name);
+    }
+
+    /**
+     * Check the head of a classfile.
+     *
+     * @param header the head of the classfile
+     * @return false if the class is not imported
+     */
+    boolean accepts(ClassfileReader.Header header) {
+        int flags = header.getAccessFlags();
+        if (publicOnly && (flags & ClassfileParser.ACC_PUBLIC) == 0) {
+            return false;
+        }
+        if (skipGenerated
+                && ((flags & (ClassfileParser.ACC_SYNTHETIC | ACC_MODULE)) != 0
+                        || !acceptsFileName(header.getName()))) {
+            return false;
+        }
+        return acceptsName(header.getName());
+    }
+
+    /**
+     * @param name the name of a class, with '/' or '.' as the package
+     *            separator
+     */
+    private boolean acceptsName(String name) {
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return true;
+        }
+        String className = name.replace('/', '.');
+        if (!includes.isEmpty() && !matches(includes, className)) {
+            return false;
+        }
+        return !matches(excludes, className);
+    }
+
+    /**
+     * Anonymous and local classes have a name ending in <code>$</code> and
+     * a number, which local classes follow with their simple name.
+     */
+    private static boolean isAnonymous(String name) {
+        int dollar = name.lastIndexOf('$');
+        return dollar >= 0 && dollar + 1 < name.length()
+            && Character.isDigit(name.charAt(dollar + 1));
+    }
+
+    private static boolean matches(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<Pattern>(globs.size());
+        for (String glob : globs) {
+            String trimmed = glob.trim();
+            if (trimmed.length() > 0) {
+                patterns.add(Pattern.compile(toRegex(trimmed)));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Translate a glob of class names to a regular expression.
+     *
+     * @param glob the glob
+     * @return the regular expression
+     */
+    static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 16);
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^.]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^.]");
+            } else if (Character.isLetterOrDigit(c) || c == '_') {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+        return regex.toString();
+    }
+}
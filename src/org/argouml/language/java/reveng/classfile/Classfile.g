@@ -85,6 +85,11 @@ tokens {
 	VARIABLE_DEF;
 	VERSION;
     SIGNATURE;
+	CONSTANT_METHOD_HANDLEINFO;
+	CONSTANT_METHOD_TYPEINFO;
+	CONSTANT_DYNAMICINFO;
+	CONSTANT_MODULEINFO;
+	CONSTANT_PACKAGEINFO;
 }
 
 {
@@ -100,6 +105,12 @@ tokens {
  	public static final byte CONSTANT_Double 		=  6;
  	public static final byte CONSTANT_NameAndType 		= 12;
  	public static final byte CONSTANT_Utf8 			=  1;
+ 	public static final byte CONSTANT_MethodHandle 		= 15;
+ 	public static final byte CONSTANT_MethodType 		= 16;
+ 	public static final byte CONSTANT_Dynamic 		= 17;
+ 	public static final byte CONSTANT_InvokeDynamic 	= 18;
+ 	public static final byte CONSTANT_Module 		= 19;
+ 	public static final byte CONSTANT_Package 		= 20;
 
 	// Access flags as defined in the JVM specs.
 	// CAUTION: Must be the same as in the Java grammar Java.g!
@@ -259,6 +270,11 @@ cp_info!
  	    | {tag == CONSTANT_Double}?             cd:constant_double_info              {#cp_info=#cd;}
  	    | {tag == CONSTANT_NameAndType}?        cn:constant_name_and_type_info       {#cp_info=#cn;}
  	    | {tag == CONSTANT_Utf8}?               cu:constant_utf8_info                {#cp_info=#cu;}
+ 	    | {tag == CONSTANT_MethodHandle}?       mh:constant_method_handle_info       {#cp_info=#mh;}
+ 	    | {tag == CONSTANT_MethodType}?         mt:constant_method_type_info         {#cp_info=#mt;}
+ 	    | {tag == CONSTANT_Dynamic || tag == CONSTANT_InvokeDynamic}? dy:constant_dynamic_info {#cp_info=#dy;}
+ 	    | {tag == CONSTANT_Module}?             mo:constant_module_info              {#cp_info=#mo;}
+ 	    | {tag == CONSTANT_Package}?            pa:constant_package_info             {#cp_info=#pa;}
 	  )
 	;
 
@@ -358,6 +374,46 @@ constant_name_and_type_info!
 	   }
 	;
 
+// A method handle in the constant pool (Java 7).
+constant_method_handle_info!
+{ byte reference_kind=0; short reference_index=0; }
+	: reference_kind=u1  // Missing tag (according to the classfile specs)! See the cp_info rule!
+	  reference_index=u2
+	   { #constant_method_handle_info = new ShortAST(CONSTANT_METHOD_HANDLEINFO, reference_index); }
+	;
+
+// A method type in the constant pool (Java 7).
+constant_method_type_info!
+{ short descriptor_index=0; }
+	: descriptor_index=u2  // Missing tag (according to the classfile specs)! See the cp_info rule!
+	   { #constant_method_type_info = new ShortAST(CONSTANT_METHOD_TYPEINFO, descriptor_index); }
+	;
+
+// A dynamically computed constant (Java 11) or call site (Java 7) in the constant pool.
+constant_dynamic_info!
+{ short bootstrap_method_attr_index=0, name_and_type_index=0; }
+	: bootstrap_method_attr_index=u2  // Missing tag (according to the classfile specs)! See the cp_info rule!
+	  name_and_type_index=u2
+	   {
+	     #constant_dynamic_info = new ShortAST(CONSTANT_DYNAMICINFO, bootstrap_method_attr_index);
+	     #constant_dynamic_info.addChild(new ShortAST(CONSTANT_NAME_TYPE_INFO, name_and_type_index));
+	   }
+	;
+
+// A module in the constant pool of a module-info (Java 9).
+constant_module_info!
+{ short name_index=0; }
+	: name_index=u2  // Missing tag (according to the classfile specs)! See the cp_info rule!
+	   { #constant_module_info = new ShortAST(CONSTANT_MODULEINFO, name_index); }
+	;
+
+// A package in the constant pool of a module-info (Java 9).
+constant_package_info!
+{ short name_index=0; }
+	: name_index=u2  // Missing tag (according to the classfile specs)! See the cp_info rule!
+	   { #constant_package_info = new ShortAST(CONSTANT_PACKAGEINFO, name_index); }
+	;
+
 // A UTF8 encoded string in the constant pool.
 constant_utf8_info!
 {
@@ -576,6 +632,10 @@ attribute_info!
 	    // The classfile specs define a attribute, that gives info on the filename of the sourcecode.
 	    {attribute_length==2 && "SourceFile".equals(attribute_name)}? sattr:sourcefile_attribute { #attribute_info = #sattr; }
 	    |
+	    // Attributes that don't contribute to the model, like the bootstrap methods of lambdas.
+	    {ClassfileReader.isIgnoredAttribute(attribute_name)}?
+	    ( {bytepos < attribute_length}? bytebuf=u1 {bytepos++;} )* {bytepos==attribute_length}?
+	    |
 	    // A compiler specific attribute, that is not known in detail..
 	    { info = new byte[attribute_length]; }
 	    ( {bytepos < attribute_length}? bytebuf=u1 {info[bytepos++] = bytebuf;} )* {bytepos==attribute_length}?
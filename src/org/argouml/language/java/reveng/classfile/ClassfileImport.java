@@ -38,25 +38,33 @@
 
 package org.argouml.language.java.reveng.classfile;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.argouml.i18n.Translator;
 import org.argouml.kernel.Project;
 import org.argouml.language.java.JavaModuleGlobals;
+import org.argouml.language.java.reveng.ClasspathIndex;
+import org.argouml.language.java.reveng.ImportProfiler;
 import org.argouml.language.java.reveng.JavaImportSettings;
+import org.argouml.language.java.reveng.Modeller;
+import org.argouml.language.java.reveng.ModellerSession;
 import org.argouml.moduleloader.ModuleInterface;
 import org.argouml.profile.Profile;
 import org.argouml.taskmgmt.ProgressMonitor;
@@ -70,6 +78,8 @@ import org.argouml.util.SuffixFilter;
 import antlr.ANTLRException;
 import antlr.RecognitionException;
 import antlr.TokenStreamException;
+import antlr.TokenStreamIOException;
+import antlr.collections.AST;
 
 
 /**
@@ -80,13 +90,16 @@ import antlr.TokenStreamException;
  */
 public class ClassfileImport implements ModuleInterface, ImportInterface {
 
-    /** The files that needs a second RE pass. */
-    private Collection secondPassFiles;
-
     /**
      * Java profile model.
      */
     private Profile javaProfile = null;
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG =
+        Logger.getLogger(ClassfileImport.class.getName());
     
     /**
      * New model elements that were added
@@ -95,245 +108,334 @@ public class ClassfileImport implements ModuleInterface, ImportInterface {
 
     private int fileCount;
 
+    /**
+     * The class files that couldn't be imported, with the reasons.
+     */
+    private List<String> problems;
+
+    /**
+     * The number of classfiles per parser thread that may be read ahead of
+     * the classfile that is being modelled.
+     */
+    private static final int PARSE_AHEAD = 16;
+
+    /**
+     * The maximum number of bytes of the class files that are kept until
+     * their supertypes are modelled, see {@link ModelOrder}.
+     */
+    private static final long KEPT_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * The end of the class files of a walk.
+     */
+    private static final ClassfileSource END = new ClassfileSource(null, null);
+
+    /**
+     * The reader for the classfiles, which reuses its buffers. The model is
+     * built from the structure of the classes only, so the code of the
+     * methods is skipped.
+     */
+    private final ClassfileReader reader =
+        new ClassfileReader(ClassfileReader.STRUCTURE);
+
+    /**
+     * The strings of the constants of the classfiles of the import.
+     */
+    private SymbolTable symbols;
+
+    /**
+     * The state of the import session, shared by the modellers of the
+     * class files.
+     */
+    private ModellerSession session;
+
+    /**
+     * The walker of the classfiles of the import, which keeps the archives
+     * open for all walks.
+     */
+    private ArchiveWalker walker;
+
     /*
      * @see org.argouml.uml.reveng.ImportInterface#parseFiles(org.argouml.kernel.Project, java.util.Collection, org.argouml.uml.reveng.ImportSettings, org.argouml.application.api.ProgressMonitor)
      */
     public Collection parseFiles(Project p, Collection<File> files,
             ImportSettings settings, ProgressMonitor monitor)
         throws ImportException {
+        ClasspathIndex.startSession();
+        try {
+            return doParseFiles(p, files, monitor);
+        } finally {
+            reader.setSymbolTable(null);
+            symbols = null;
+            if (walker != null) {
+                try {
+                    walker.close();
+                } catch (IOException e) {
+                    LOG.log(Level.FINE, "Cannot close the archives", e);
+                }
+                walker = null;
+            }
+            if (session != null) {
+                session.endBatch();
+                if (session.getProfiler() != null) {
+                    session.getProfiler().report(p, "classfile");
+                }
+            }
+            session = null;
+            ClasspathIndex.endSession();
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Conversion caches: "
+                        + ParserUtils.getCacheStatistics());
+            }
+        }
+    }
+
+    private Collection doParseFiles(Project p, Collection<File> files,
+            ProgressMonitor monitor)
+        throws ImportException {
 
-        secondPassFiles = new ArrayList();
         newElements = new HashSet();
+        problems = new ArrayList<String>();
+        fileCount = 0;
+        symbols = new SymbolTable();
+        reader.setSymbolTable(symbols);
 
         // get the Java profile from project, if available
         javaProfile = getJavaProfile(p);
+        session = createSession(p);
+        if (JavaImportSettings.getInstance().isProfilerSelected()) {
+            session.setProfiler(new ImportProfiler());
+        }
+        session.beginBatch(
+                JavaImportSettings.getInstance().isModelEventsSuspended());
 
-        monitor.setMaximumProgress(countFiles(files));
-        for (File file : files) {
-            monitor.updateMainTask("Parsing file: " + file);
-            if (monitor.isCanceled()) {
-                break;
+        for (File f : files) {
+            if (!f.exists()) {
+                throw new ImportException(new FileNotFoundException(
+                        f.getPath()));
             }
-            processFile(p, (File) file, monitor);
-            monitor.updateProgress(fileCount++);
         }
+        JavaImportSettings settings = JavaImportSettings.getInstance();
+        ClassFilter filter = new ClassFilter(settings.getClassfileIncludes(),
+                settings.getClassfileExcludes(),
+                settings.isPublicClassesSelected(),
+                settings.isGeneratedClassesSkipped());
+        walker = new ArchiveWalker(files, filter);
 
-        if (count2ndPassFiles(secondPassFiles) > 0 && !monitor.isCanceled()) {
+        // TODO: I18N
+        monitor.updateMainTask("Reading class headers");
+        HeaderVisitor headerVisitor = new HeaderVisitor(filter, monitor);
+        try {
+            if (!walker.walk(headerVisitor)) {
+                return newElements;
+            }
+        } catch (IOException e) {
+            throw new ImportException(e);
+        }
+        monitor.setMaximumProgress(headerVisitor.indices.size()
+                - headerVisitor.skipped);
+        fileCount = problems.size();
+        monitor.updateProgress(fileCount);
+
+        // Model the supertypes of each class before the class.
+        ModelOrder order = new ModelOrder(headerVisitor.headers, KEPT_BYTES);
+        int[] indices = new int[headerVisitor.indices.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = headerVisitor.indices.get(i).intValue();
+        }
 
-            // Process all the files, that need a second pass.
-            for (Object next : secondPassFiles) {
-                try {
-                    if (next instanceof Collection) {
-                        do2ndJarPass(p, (Collection) next, monitor);
-                    } else {
-                        File nextFile = (File) next;
-                        String fileName = nextFile.getName();
-                        FileInputStream fis;
-                        try {
-                            fis = new FileInputStream(nextFile);
-                        } catch (FileNotFoundException e) {
-                            throw new ImportException(e);
-                        }
+        // TODO: I18N
+        monitor.updateMainTask("Importing classes");
+        int threads = settings.getParserThreads();
+        while (order.getRemaining() > 0 && !monitor.isCanceled()) {
+            int remaining = order.getRemaining();
+            WalkerThread walking = new WalkerThread(walker, order, indices,
+                    headerVisitor.names, threads * PARSE_AHEAD,
+                    session.getProfiler());
+            walking.start();
+            try {
+                if (threads > 1) {
+                    parseClassfiles(p, walking, threads, monitor);
+                } else {
+                    for (ClassfileSource classfile = walking.take();
+                            classfile != END; classfile = walking.take()) {
                         // TODO: I18N
-                        monitor.updateSubTask("Parsing class 2nd pass - "
-                                + fileName);
+                        monitor.updateSubTask("Parsing class - "
+                                + classfile.getName());
                         if (monitor.isCanceled()) {
                             break;
                         }
-                        parseFile(p, fis, fileName);
+                        try {
+                            model(p, parse(reader, classfile,
+                                    session.getProfiler()),
+                                    classfile.getName());
+                        } catch (ANTLRException e) {
+                            addProblem(classfile.getName(), e);
+                        }
                         monitor.updateProgress(fileCount++);
                     }
-                } catch (ANTLRException e) {
-                    throw new ImportException(e);
-                } catch (IOException e) {
-                    throw new ImportException(e);
                 }
+            } finally {
+                walking.finish();
+            }
+            if (walking.failure != null) {
+                throw new ImportException(walking.failure);
+            }
+            if (order.getRemaining() == remaining && !monitor.isCanceled()) {
+                // Each walk models a class, unless the files were changed.
+                throw new ImportException(new IOException(
+                        "The files changed during the import"));
             }
         }
-        return newElements;
-    }
-
-
-    /**
-     * Count all class files, including ones inside JAR files.
-     *
-     * @return The number of files to process
-     */
-    private int countFiles(Collection<File> files) {
 
-        int total = 0;
-        for (File f : files) {
-            if (f.getName().endsWith(".jar")) {
-                try {
-                    for (Enumeration<JarEntry> e = (new JarFile(f)).entries();
-                            e.hasMoreElements();) {
-                        ZipEntry entry = e.nextElement();
-                        if (!entry.isDirectory()
-                                && entry.getName().endsWith(".class")) {
-                            total++;
-                        }
-                    }
-                } catch (IOException e) {
-                    // Just count it as a normal file
-                    total++;
-                }
-            } else {
-                total++;
+        if (!problems.isEmpty()) {
+            StringBuffer sb = new StringBuffer();
+            for (String problem : problems) {
+                sb.append(problem).append('\n');
             }
+            monitor.notifyMessage(
+                    Translator.localize(
+                            "dialog.title.import-problems"), //$NON-NLS-1$
+                    Translator.localize("label.import-problems"), //$NON-NLS-1$
+                    sb.toString());
         }
-        return total;
+        return newElements;
     }
 
-
     /**
-     * Count the files in the 2nd pass buffer. We can't just use size() because
-     * the collection can contain nested collections which need to be counted
-     * independently.  In a nested collection, the first entry is the name of
-     * the JAR file, so we use size()-1.
+     * Remember a class file that can't be imported, to report it at the end
+     * of the import.
      *
-     * @param buffer
-     *            The buffer with the files for the 2nd pass.
+     * @param name The name of the class file.
+     * @param e The problem.
      */
-    private int count2ndPassFiles(Collection buffer) {
-	int nfiles = 0;
-
-	for (Iterator i = secondPassFiles.iterator(); i.hasNext();) {
-	    Object next = i.next();
-	    nfiles += ((next instanceof Collection)
-                ? ((Collection) next).size() - 1 : 1);
-	}
-	return nfiles;
+    private void addProblem(String name, ANTLRException e) {
+        problems.add(name + ": " + e.getMessage());
     }
 
     /**
-     * The main method for all parsing actions. It calls the
-     * actual parser methods depending on the type of the
-     * file.
+     * Model class files, reading them with parser threads. The class files
+     * are read into ASTs concurrently. The calling thread is the only one
+     * that touches the model: it models the ASTs one at a time and in the
+     * given order, so the resulting model is the same as with a single
+     * thread.
+     * <p>
+     * At most <code>threads * PARSE_AHEAD</code> class files are read ahead
+     * of the one that is modelled, to limit the memory used for ASTs.
      *
-     * @param f The file or directory, we want to parse.
-     * @throws ImportException containing nested exception with original error
+     * @param walking The walk that supplies the class files in the order
+     *            to model them.
+     * @param threads The number of parser threads.
      */
-    private void processFile(Project p, File f, ProgressMonitor monitor)
+    private void parseClassfiles(Project p, WalkerThread walking,
+            int threads, ProgressMonitor monitor)
         throws ImportException {
 
-        monitor.updateMainTask("Importing " + f.getName());
-        // Is this file a Jarfile?
-        if ( f.getName().endsWith(".jar")) { //$NON-NLS-1$
-            processJarFile(p, f, monitor);
-        } else {
-            String fileName = f.getName();
-            try {    // Try to parse this file.
-                InputStream is;
+        // The readers are not thread safe, so each thread has its own.
+        // They share the strings of the constants.
+        final SymbolTable table = symbols;
+        final ImportProfiler profiler = session.getProfiler();
+        final ThreadLocal<ClassfileReader> readers =
+            new ThreadLocal<ClassfileReader>() {
+                protected ClassfileReader initialValue() {
+                    ClassfileReader r =
+                        new ClassfileReader(ClassfileReader.STRUCTURE);
+                    r.setSymbolTable(table);
+                    return r;
+                }
+            };
+
+        boolean end = false;
+        LinkedList<Future<AST>> pending = new LinkedList<Future<AST>>();
+        LinkedList<ClassfileSource> pendingClassfiles =
+            new LinkedList<ClassfileSource>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            while (!end || !pending.isEmpty()) {
+                while (!end && pending.size() < threads * PARSE_AHEAD) {
+                    // Only wait for the walk if there is nothing to model.
+                    final ClassfileSource classfile = pending.isEmpty()
+                        ? walking.take() : walking.poll();
+                    if (classfile == null) {
+                        break;
+                    } else if (classfile == END) {
+                        end = true;
+                        break;
+                    }
+                    pending.add(executor.submit(new Callable<AST>() {
+                        public AST call() throws ANTLRException {
+                            return parse(readers.get(), classfile,
+                                    profiler);
+                        }
+                    }));
+                    pendingClassfiles.add(classfile);
+                }
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                ClassfileSource classfile = pendingClassfiles.removeFirst();
+                Future<AST> future = pending.removeFirst();
+                // TODO: I18N
+                monitor.updateSubTask("Parsing class - "
+                        + classfile.getName());
+                if (monitor.isCanceled()) {
+                    break;
+                }
                 try {
-                    is = new FileInputStream(f);
-                } catch (FileNotFoundException e) {
-                    throw new ImportException(e);
+                    model(p, getResult(future), classfile.getName());
+                } catch (ANTLRException e) {
+                    addProblem(classfile.getName(), e);
                 }
-                parseFile(p, is, fileName);
-            } catch (ANTLRException e) {
-                // TODO: Is this still needed/appropriate? It looks like
-                // Modeller has been changed so that it no longer throws
-                // exceptions... - tfm
-                secondPassFiles.add(f);
+                monitor.updateProgress(fileCount++);
             }
+        } finally {
+            executor.shutdownNow();
         }
-
     }
 
-
     /**
-     * Process a Jar file, that contains classfiles.
+     * Parse a class file that was read by a walk.
      *
-     * @param f The Jar file.
+     * @param classfileReader The reader to use.
+     * @param classfile The class file.
+     * @param profiler The profiler of the import, or null.
+     * @return The AST for the {@link ClassfileTreeParser}.
+     * @throws ANTLRException if the file is not a valid classfile
      */
-    private void processJarFile(Project p, File f, ProgressMonitor monitor)
-        throws ImportException {
-
-        JarFile jarfile;
-        try {
-            jarfile = new JarFile(f);
-        } catch (IOException e) {
-            throw new ImportException("IO exception opening Jar file: " + f, e);
+    private static AST parse(ClassfileReader classfileReader,
+            ClassfileSource classfile, ImportProfiler profiler)
+        throws ANTLRException {
+        if (profiler == null) {
+            return classfileReader.parse(classfile.bytes, 0,
+                    classfile.bytes.length);
         }
-
-	// A second pass buffer just for this jar.
-	Collection jarSecondPassFiles = new ArrayList();
-
-	for ( Enumeration<JarEntry> e = jarfile.entries();
-	        e.hasMoreElements(); ) {
-	    JarEntry entry = e.nextElement();
-	    String entryName = entry.getName();
-	    if ( !entry.isDirectory()
-                    && entryName.endsWith(".class")) { //$NON-NLS-1$
-		try {
-                    InputStream is;
-                    try {
-                        is = jarfile.getInputStream(entry);
-                    } catch (IOException e1) {
-                        // If this happens, something bad is going on ...
-                        throw new ImportException(e1);
-                    }
-                    // TODO: I18N
-                    monitor.updateSubTask("Parsing class - " + entryName);
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-		    parseFile(p, is, entryName);
-		    monitor.updateProgress(fileCount++);
-		} catch (ANTLRException e1) {
-		    if (jarSecondPassFiles.isEmpty()) {
-		        // If there are no files tagged for a second pass,
-		        // add the jar file as the 1st element.
-			jarSecondPassFiles.add(f);
-		    }
-		    // Store the entry to be parsed a 2nd time.
-		    jarSecondPassFiles.add(entryName);
-		}
-            }
-	}
-
-	// If there are files to parse again, add the jar to the 2nd pass.
-	if ( !jarSecondPassFiles.isEmpty()) {
-	    secondPassFiles.add(jarSecondPassFiles);
-        }
-
+        profiler.begin(classfile.getName());
+        long[] start = profiler.start();
         try {
-            jarfile.close();
-        } catch (IOException e) {
-            throw new ImportException("IO exception closing Jar file: " + f, e);
+            return classfileReader.parse(classfile.bytes, 0,
+                    classfile.bytes.length);
+        } finally {
+            profiler.stop(ImportProfiler.PARSE, start);
         }
     }
 
-    /**
-     * Do a 2nd pass on a Jar file.
-     *
-     * @param secondPassBuffer A buffer, that holds the jarfile and the names of
-     *                the entries to parse again.
-     * @throws TokenStreamException
-     * @throws RecognitionException
-     */
-    private void do2ndJarPass(Project p, Collection secondPassBuffer,
-            ProgressMonitor monitor) throws IOException, RecognitionException,
-        TokenStreamException {
-        if (!secondPassBuffer.isEmpty()) {
-	    Iterator iterator = secondPassBuffer.iterator();
-	    JarFile jarfile = new JarFile( (File) iterator.next());
-
-	    while (iterator.hasNext()) {
-		String filename = (String) iterator.next();
-		// TODO: I18N
-                monitor.updateSubTask("Parsing class 2nd pass - " + filename);
-                if (monitor.isCanceled()) {
-                    break;
-                }
-		parseFile(
-		        p,
-		        jarfile.getInputStream(jarfile.getEntry(filename)),
-		        filename);
-		monitor.updateProgress(fileCount++);
-	    }
-	    jarfile.close();
-	}
+    private AST getResult(Future<AST> future)
+        throws ImportException, ANTLRException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ANTLRException) {
+                throw (ANTLRException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ImportException("Parser thread failed", cause);
+        }
     }
 
     /**
@@ -342,38 +444,72 @@ public class ClassfileImport implements ModuleInterface, ImportInterface {
      * @param p The current project.
      * @param is The inputStream for the file to parse.
      * @param fileName the name of the file to parse
-     * @throws RecognitionException ANTLR parser error
-     * @throws TokenStreamException ANTLR parser error
+     * @throws RecognitionException if the file is not a valid classfile
+     * @throws TokenStreamException if the file can't be read
      */
 
     public void parseFile(Project p, InputStream is, String fileName)
         throws RecognitionException, TokenStreamException {
 
+        model(p, read(reader, is), fileName);
+    }
+
+    /**
+     * Read a classfile into the AST of the classfile rule.
+     *
+     * @param classfileReader The reader to use.
+     * @param is The inputStream for the file to read.
+     * @return The AST for the {@link ClassfileTreeParser}.
+     * @throws RecognitionException if the file is not a valid classfile
+     * @throws TokenStreamException if the file can't be read
+     */
+    private static AST read(ClassfileReader classfileReader, InputStream is)
+        throws RecognitionException, TokenStreamException {
+        try {
+            return classfileReader.parse(is);
+        } catch (IOException e) {
+            throw new TokenStreamIOException(e);
+        }
+    }
+
+    /**
+     * Model the AST of 1 Java classfile.
+     *
+     * @param p The current project.
+     * @param ast The AST of the classfile.
+     * @param fileName the name of the file
+     * @throws RecognitionException if the AST can't be modelled
+     */
+    private void model(Project p, AST ast, String fileName)
+        throws RecognitionException {
+
+        ImportProfiler profiler =
+            session == null ? null : session.getProfiler();
+        long[] start = null;
+        if (profiler != null) {
+            profiler.begin(fileName);
+            start = profiler.start();
+        }
         int lastSlash = fileName.lastIndexOf('/');
 	if (lastSlash != -1) {
 	    fileName = fileName.substring(lastSlash + 1);
 	}
 
-        ClassfileParser parser =
-                new ClassfileParser(new SimpleByteLexer(
-                        new BufferedInputStream(is)));
-
-        // start parsing at the classfile rule
-        parser.classfile();
-
-        // Create a modeller for the parser
-        org.argouml.language.java.reveng.Modeller modeller =
-            new org.argouml.language.java.reveng.Modeller(
-                p.getUserDefinedModelList().get(0),
-                javaProfile,
-                JavaImportSettings.getInstance().isAttributeSelected(),
-                JavaImportSettings.getInstance().isDatatypeSelected(),
-                fileName);
+        // Create a modeller for the parser, a single file is modelled
+        // in a session of its own
+        Modeller modeller = new Modeller(
+                session == null ? createSession(p) : session, fileName);
 
 
 	// do something with the tree
 	ClassfileTreeParser tparser = new ClassfileTreeParser();
-	tparser.classfile(parser.getAST(), modeller);
+	try {
+	    tparser.classfile(ast, modeller);
+	} finally {
+	    if (profiler != null) {
+	        profiler.stop(ImportProfiler.MODEL, start);
+	    }
+	}
         newElements.addAll(modeller.getNewElements());
 
         // Was there an exception thrown during modelling?
@@ -383,6 +519,13 @@ public class ClassfileImport implements ModuleInterface, ImportInterface {
         //}
     }
 
+    private ModellerSession createSession(Project p) {
+        return new ModellerSession(p.getUserDefinedModelList().get(0),
+                javaProfile,
+                JavaImportSettings.getInstance().isAttributeSelected(),
+                JavaImportSettings.getInstance().isDatatypeSelected());
+    }
+
     /*
      * @see org.argouml.moduleloader.ModuleInterface#enable()
      */
@@ -430,9 +573,12 @@ public class ClassfileImport implements ModuleInterface, ImportInterface {
     public SuffixFilter[] getSuffixFilters() {
         SuffixFilter[] result = {
             // TODO: I18N
-            new SuffixFilter(new String[] {"class", "jar"} , "Java files"),
+            new SuffixFilter(new String[] {"class", "jar", "war", "ear"} ,
+                    "Java files"),
             new SuffixFilter("class", "Java class files"),
-            new SuffixFilter("jar", "Java JAR files"), };
+            new SuffixFilter("jar", "Java JAR files"),
+            new SuffixFilter(new String[] {"war", "ear"},
+                    "Java web and enterprise archives"), };
 	return result;
     }
 
@@ -464,16 +610,228 @@ public class ClassfileImport implements ModuleInterface, ImportInterface {
         }
         return null;
     }
-}
 
+    /**
+     * Reads the heads of the class files in the order of the walk, and
+     * selects the classes to import by them.
+     */
+    private final class HeaderVisitor implements ArchiveWalker.Visitor {
 
+        private final ClassFilter filter;
 
+        private final ProgressMonitor monitor;
 
+        /**
+         * The heads of the class files that could be read.
+         */
+        private final List<ClassfileReader.Header> headers =
+            new ArrayList<ClassfileReader.Header>();
 
+        /**
+         * The names of the class files of the heads.
+         */
+        private final List<String> names = new ArrayList<String>();
 
+        /**
+         * The index of the head of each class file of the walk, or -1 if
+         * it couldn't be read or the class is not imported.
+         */
+        private final List<Integer> indices = new ArrayList<Integer>();
 
+        /**
+         * The number of classes that the filter rejected.
+         */
+        private int skipped;
 
+        HeaderVisitor(ClassFilter theFilter, ProgressMonitor theMonitor) {
+            filter = theFilter;
+            monitor = theMonitor;
+        }
 
+        public boolean visit(String name, InputStream in)
+            throws IOException {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            try {
+                ClassfileReader.Header header = reader.readHeader(in);
+                if (!filter.accepts(header)) {
+                    indices.add(Integer.valueOf(-1));
+                    skipped++;
+                    return true;
+                }
+                indices.add(Integer.valueOf(headers.size()));
+                headers.add(header);
+                names.add(name);
+            } catch (RecognitionException e) {
+                indices.add(Integer.valueOf(-1));
+                addProblem(name, e);
+            }
+            return true;
+        }
+    }
 
+    /**
+     * Walks the class files on its own thread, and passes the ones that can
+     * be modelled to the importing thread through a bounded queue. So the
+     * files are read while the classes are modelled, and only a limited
+     * number of class files is in memory, however large the archives are.
+     */
+    private static final class WalkerThread extends Thread
+        implements ArchiveWalker.Visitor {
+
+        private final ArchiveWalker walker;
+
+        private final ModelOrder order;
+
+        private final int[] indices;
+
+        private final List<String> names;
+
+        private final BlockingQueue<ClassfileSource> queue;
+
+        private final ImportProfiler profiler;
+
+        /**
+         * The number of class files that were visited.
+         */
+        private int count;
+
+        private volatile boolean finished;
+
+        /**
+         * The problem that ended the walk, if any.
+         */
+        private volatile Exception failure;
+
+        /**
+         * @param theWalker the walker
+         * @param theOrder the order to model the classes in
+         * @param theIndices the index of the head of each class file of the
+         *            walk, or -1 if it couldn't be read
+         * @param theNames the names of the class files of the heads
+         * @param capacity the number of class files in the queue
+         * @param theProfiler the profiler of the import, or null
+         */
+        WalkerThread(ArchiveWalker theWalker, ModelOrder theOrder,
+                int[] theIndices, List<String> theNames, int capacity,
+                ImportProfiler theProfiler) {
+            super("Classfile walker");
+            setDaemon(true);
+            walker = theWalker;
+            order = theOrder;
+            indices = theIndices;
+            names = theNames;
+            queue = new ArrayBlockingQueue<ClassfileSource>(capacity);
+            profiler = theProfiler;
+        }
 
+        @Override
+        public void run() {
+            try {
+                walker.walk(this);
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                if (!finished) {
+                    try {
+                        queue.put(END);
+                    } catch (InterruptedException e) {
+                        // the importing thread doesn't wait anymore
+                    }
+                }
+            }
+        }
 
+        public boolean visit(String name, InputStream in)
+            throws IOException {
+            if (count >= indices.length) {
+                throw new IOException(name + " was added during the import");
+            }
+            int index = indices[count++];
+            if (index < 0 || !order.isWanted(index)) {
+                return !finished;
+            }
+            if (!name.equals(names.get(index))) {
+                throw new IOException(name + " was added during the import");
+            }
+            long[] start = null;
+            if (profiler != null) {
+                profiler.begin(name);
+                start = profiler.start();
+            }
+            byte[] bytes = ArchiveWalker.readFully(in);
+            if (profiler != null) {
+                profiler.stop(ImportProfiler.READ, start);
+            }
+            try {
+                for (Integer ready : order.offer(index, bytes)) {
+                    int i = ready.intValue();
+                    queue.put(new ClassfileSource(names.get(i),
+                            order.take(i)));
+                }
+            } catch (InterruptedException e) {
+                return false;
+            }
+            return !finished;
+        }
+
+        /**
+         * @return the next class file to model, or {@link #END}
+         * @throws ImportException if the importing thread is interrupted
+         */
+        ClassfileSource take() throws ImportException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportException("Interrupted while reading", e);
+            }
+        }
+
+        /**
+         * @return the next class file to model, {@link #END}, or null if
+         *         the next one is not read yet
+         */
+        ClassfileSource poll() {
+            return queue.poll();
+        }
+
+        /**
+         * End the walk, if it is not over yet, and wait for the thread.
+         */
+        void finish() {
+            finished = true;
+            interrupt();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A class file to import, read by a walk.
+     */
+    private static final class ClassfileSource {
+
+        private final String name;
+
+        private final byte[] bytes;
+
+        ClassfileSource(String theName, byte[] theBytes) {
+            name = theName;
+            bytes = theBytes;
+        }
+
+        /**
+         * @return the path of the file, with the archives it is in
+         */
+        String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,810 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import antlr.CommonAST;
+import antlr.RecognitionException;
+import antlr.collections.AST;
+
+/**
+ * A reader for classfiles, that builds the same AST as the
+ * {@link ClassfileParser} for the {@link ClassfileTreeParser}.
+ * <p>
+ * The {@link ClassfileParser} reads a classfile as a stream of
+ * {@link ByteToken}s, one token for each byte. This reader reads the whole
+ * classfile into a buffer, and decodes the numbers, the constant pool and
+ * the attributes directly from the buffer. The constant pool is kept as the
+ * offsets of its entries, and a string is only created for a constant when
+ * the AST refers to it. So the objects that are created for a classfile
+ * are the nodes of the AST and the strings in them. The constants are
+ * decoded as modified UTF-8, and with a {@link SymbolTable} their strings
+ * are shared by all classfiles of an import.
+ * <p>
+ * The bytecode of the methods is never used to build the model. In the
+ * {@link #STRUCTURE} mode, the default, the Code, LineNumberTable and
+ * LocalVariableTable attributes are skipped by their length without
+ * looking at them. In the {@link #FULL} mode their contents are read and
+ * checked too, as the {@link ClassfileParser} does.
+ * <p>
+ * The constant pool entries and attributes of newer classfile versions,
+ * like the bootstrap methods of lambdas, records and nest members, are
+ * skipped in both modes, since they don't contribute to the model.
+ * <p>
+ * A reader reuses its buffers for the next classfile, so one reader should
+ * be used for all the classfiles of an import. It is not thread safe.
+ */
+public final class ClassfileReader implements ClassfileTokenTypes {
+
+    /**
+     * The mode that only reads the structure of the classes, and skips the
+     * code of the methods.
+     */
+    public static final int STRUCTURE = 0;
+
+    /**
+     * The mode that also reads the code of the methods.
+     */
+    public static final int FULL = 1;
+
+    private static final int MAGIC_NUMBER = 0xcafebabe;
+
+    // The tags of the constant pool entries as defined in the JVM specs.
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /**
+     * The attributes that are skipped, since they don't contribute to the
+     * model. Most of them are from Java 5 and later classfiles.
+     */
+    private static final Set<String> IGNORED_ATTRIBUTES =
+        new HashSet<String>(Arrays.asList(new String[] {
+            "AnnotationDefault",
+            "BootstrapMethods",
+            "Deprecated",
+            "EnclosingMethod",
+            "MethodParameters",
+            "Module",
+            "ModuleMainClass",
+            "ModulePackages",
+            "NestHost",
+            "NestMembers",
+            "PermittedSubclasses",
+            "Record",
+            "RuntimeInvisibleAnnotations",
+            "RuntimeInvisibleParameterAnnotations",
+            "RuntimeInvisibleTypeAnnotations",
+            "RuntimeVisibleAnnotations",
+            "RuntimeVisibleParameterAnnotations",
+            "RuntimeVisibleTypeAnnotations",
+            "SourceDebugExtension",
+            "StackMapTable",
+            "Synthetic",
+        }));
+
+    /**
+     * The mode, {@link #STRUCTURE} or {@link #FULL}.
+     */
+    private final int mode;
+
+    /**
+     * The buffer for classfiles that are read from a stream.
+     */
+    private byte[] buffer = new byte[8192];
+
+    /**
+     * The bytes of the current classfile.
+     */
+    private byte[] data;
+
+    /**
+     * The position of the next byte to decode.
+     */
+    private int pos;
+
+    /**
+     * The position after the last byte of the current classfile.
+     */
+    private int end;
+
+    /**
+     * The tags of the constant pool entries.
+     */
+    private byte[] constantTags = new byte[256];
+
+    /**
+     * The positions of the constant pool entries, after their tags.
+     */
+    private int[] constantOffsets = new int[256];
+
+    /**
+     * The strings of the UTF8 constants, if they were already decoded.
+     */
+    private String[] constantStrings = new String[256];
+
+    /**
+     * The number of constant pool entries + 1.
+     */
+    private int constantCount;
+
+    /**
+     * The table for the strings of the constants, or null if they are not
+     * shared with other classfiles.
+     */
+    private SymbolTable symbols;
+
+    /**
+     * The name of the current class without the package (to be used for
+     * constructors).
+     */
+    private String className;
+
+    /**
+     * The last node of the list of top level nodes.
+     */
+    private AST last;
+
+    /**
+     * Create a reader in the {@link #STRUCTURE} mode.
+     */
+    public ClassfileReader() {
+        this(STRUCTURE);
+    }
+
+    /**
+     * Create a reader.
+     *
+     * @param readMode {@link #STRUCTURE} or {@link #FULL}
+     */
+    public ClassfileReader(int readMode) {
+        if (readMode != STRUCTURE && readMode != FULL) {
+            throw new IllegalArgumentException("Unknown mode " + readMode);
+        }
+        mode = readMode;
+    }
+
+    /**
+     * @return the mode, {@link #STRUCTURE} or {@link #FULL}
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the table for the strings of the constants. The strings of an
+     * import are shared, if all its readers use the same table.
+     *
+     * @param table the table, or null to not share the strings
+     */
+    void setSymbolTable(SymbolTable table) {
+        symbols = table;
+    }
+
+    /**
+     * Read a classfile from a stream. The stream is read to its end, but it
+     * is not closed.
+     *
+     * @param in the stream
+     * @return the AST of the classfile
+     * @throws IOException if the stream can't be read
+     * @throws RecognitionException if the bytes are not a valid classfile
+     */
+    public AST parse(InputStream in) throws IOException, RecognitionException {
+        int length = fill(in, 0);
+        while (length == buffer.length) {
+            grow();
+            length = fill(in, length);
+        }
+        return parse(buffer, 0, length);
+    }
+
+    /**
+     * Read the head of a classfile from a stream, that is the names of the
+     * class, its superclass and its interfaces. The stream is only read as
+     * far as needed, and it is not closed.
+     *
+     * @param in the stream
+     * @return the head of the classfile
+     * @throws IOException if the stream can't be read
+     * @throws RecognitionException if the bytes are not a valid classfile
+     */
+    Header readHeader(InputStream in)
+        throws IOException, RecognitionException {
+        int length = fill(in, 0);
+        while (true) {
+            data = buffer;
+            pos = 0;
+            end = length;
+            try {
+                return header();
+            } catch (TruncatedException e) {
+                if (length < buffer.length) {
+                    // the stream is at its end
+                    throw e;
+                }
+            } finally {
+                reset();
+            }
+            grow();
+            length = fill(in, length);
+        }
+    }
+
+    /**
+     * Read from a stream into the buffer, until it is full or the stream is
+     * at its end.
+     *
+     * @return the number of bytes in the buffer
+     */
+    private int fill(InputStream in, int length) throws IOException {
+        int n;
+        while (length < buffer.length
+                && (n = in.read(buffer, length, buffer.length - length))
+                    != -1) {
+            length += n;
+        }
+        return length;
+    }
+
+    private void grow() {
+        byte[] larger = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, larger, 0, buffer.length);
+        buffer = larger;
+    }
+
+    /**
+     * Read a classfile from the remaining bytes of a buffer. The position of
+     * the buffer is not changed.
+     *
+     * @param bytes the buffer
+     * @return the AST of the classfile
+     * @throws RecognitionException if the bytes are not a valid classfile
+     */
+    public AST parse(ByteBuffer bytes) throws RecognitionException {
+        if (bytes.hasArray()) {
+            return parse(bytes.array(), bytes.arrayOffset() + bytes.position(),
+                    bytes.remaining());
+        }
+        int length = bytes.remaining();
+        if (buffer.length < length) {
+            buffer = new byte[length];
+        }
+        bytes.duplicate().get(buffer, 0, length);
+        return parse(buffer, 0, length);
+    }
+
+    /**
+     * Read a classfile from an array.
+     *
+     * @param bytes the array
+     * @param offset the position of the classfile in the array
+     * @param length the length of the classfile
+     * @return the AST of the classfile
+     * @throws RecognitionException if the bytes are not a valid classfile
+     */
+    public AST parse(byte[] bytes, int offset, int length)
+        throws RecognitionException {
+        data = bytes;
+        pos = offset;
+        end = offset + length;
+        try {
+            return classfile();
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * Release the current classfile.
+     */
+    private void reset() {
+        data = null;
+        last = null;
+        for (int i = 1; i < constantCount; i++) {
+            constantStrings[i] = null;
+        }
+        constantCount = 0;
+    }
+
+    /**
+     * @return the AST of the entire classfile
+     */
+    private AST classfile() throws RecognitionException {
+        AST first = create(MAGIC, Integer.toHexString(magicNumber()));
+        last = first;
+        int minor = u2();
+        int major = u2();
+        append(create(VERSION, major + "." + minor));
+        constantPool();
+        append(typeDefinition());
+        for (int count = u2(); count > 0; count--) {
+            append(field());
+        }
+        for (int count = u2(); count > 0; count--) {
+            append(method());
+        }
+        for (int count = u2(); count > 0; count--) {
+            append(attribute());
+        }
+        if (pos != end) {
+            throw new RecognitionException(
+                    "Unexpected data after the end of the classfile");
+        }
+        return first;
+    }
+
+    /**
+     * @return the head of the classfile
+     */
+    private Header header() throws RecognitionException {
+        magicNumber();
+        // minor and major version
+        skip(4);
+        constantPool();
+        int accessFlags = u2();
+        String name = getClassName(u2());
+        int superclassIndex = u2();
+        String superclassName =
+            superclassIndex == 0 ? null : getClassName(superclassIndex);
+        int count = u2();
+        List<String> interfaceNames = new ArrayList<String>(count);
+        for (; count > 0; count--) {
+            interfaceNames.add(getClassName(u2()));
+        }
+        return new Header(name, superclassName, interfaceNames,
+                accessFlags);
+    }
+
+    private int magicNumber() throws RecognitionException {
+        int magic = u4();
+        if (magic != MAGIC_NUMBER) {
+            throw new RecognitionException("Not a classfile, magic number "
+                    + Integer.toHexString(magic));
+        }
+        return magic;
+    }
+
+    /**
+     * Read the constant pool. Only the positions of the entries are stored,
+     * the entries are decoded when they are used.
+     */
+    private void constantPool() throws RecognitionException {
+        constantCount = u2();
+        if (constantTags.length < constantCount) {
+            int size = Math.max(constantCount, constantTags.length * 2);
+            constantTags = new byte[size];
+            constantOffsets = new int[size];
+            constantStrings = new String[size];
+        }
+        for (int i = 1; i < constantCount; i++) {
+            int tag = u1();
+            constantTags[i] = (byte) tag;
+            constantOffsets[i] = pos;
+            switch (tag) {
+            case CONSTANT_UTF8:
+                skip(u2());
+                break;
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                skip(2);
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                // reference_kind and reference_index
+                skip(3);
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                skip(4);
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                skip(8);
+                // 8 byte constants use 2 entries (according to the JVM specs)
+                if (++i < constantCount) {
+                    constantTags[i] = 0;
+                }
+                break;
+            default:
+                throw new RecognitionException("Unknown constant pool tag "
+                        + tag + " at entry " + i);
+            }
+        }
+    }
+
+    /**
+     * @return the CLASS_DEF or INTERFACE_DEF with the head of the class
+     */
+    private AST typeDefinition() throws RecognitionException {
+        short modifiers = (short) u2();
+        String name = getClassName(u2());
+        int lastSlash = name.lastIndexOf('/');
+        className = lastSlash == -1 ? name : name.substring(lastSlash + 1);
+        int superclassIndex = u2();
+        // java.lang.Object and module-info have no superclass
+        String superclassName =
+            superclassIndex == 0 ? null : getClassName(superclassIndex);
+
+        AST interfaces;
+        AST typeDef;
+        if ((modifiers & ClassfileParser.ACC_INTERFACE) != 0) {
+            interfaces = create(EXTENDS_CLAUSE, "");
+            typeDef = create(INTERFACE_DEF, "");
+            typeDef.addChild(new ShortAST(ACCESS_MODIFIERS, modifiers));
+            typeDef.addChild(create(IDENT, name));
+            typeDef.addChild(interfaces);
+        } else {
+            AST superclass = create(EXTENDS_CLAUSE, "");
+            if (superclassName != null) {
+                superclass.addChild(create(IDENT, superclassName));
+            }
+            interfaces = create(IMPLEMENTS_CLAUSE, "");
+            typeDef = create(CLASS_DEF, "");
+            typeDef.addChild(new ShortAST(ACCESS_MODIFIERS, modifiers));
+            typeDef.addChild(create(IDENT, name));
+            typeDef.addChild(superclass);
+            typeDef.addChild(interfaces);
+        }
+        for (int count = u2(); count > 0; count--) {
+            interfaces.addChild(create(IDENT, getClassName(u2())));
+        }
+        return typeDef;
+    }
+
+    /**
+     * @return the VARIABLE_DEF of a field
+     */
+    private AST field() throws RecognitionException {
+        short modifiers = (short) u2();
+        int nameIndex = u2();
+        int descriptorIndex = u2();
+        AST signature = create(SIGNATURE, "");
+        for (int count = u2(); count > 0; count--) {
+            AST attribute = attribute();
+            if (attribute != null && attribute.getType() == SIGNATURE) {
+                signature = attribute;
+            }
+        }
+        AST field = create(VARIABLE_DEF, "");
+        field.addChild(new ShortAST(ACCESS_MODIFIERS, modifiers));
+        field.addChild(create(TYPE, ParserUtils.convertFieldDescriptor(
+                getString(descriptorIndex))));
+        field.addChild(create(IDENT, getString(nameIndex)));
+        field.addChild(signature);
+        return field;
+    }
+
+    /**
+     * @return the CTOR_DEF or METHOD_DEF of a method
+     */
+    private AST method() throws RecognitionException {
+        short modifiers = (short) u2();
+        int nameIndex = u2();
+        int descriptorIndex = u2();
+        AST exceptions = create(THROWS, "");
+        AST signature = create(SIGNATURE, "");
+        for (int count = u2(); count > 0; count--) {
+            AST attribute = attribute();
+            if (attribute != null && attribute.getType() == THROWS) {
+                exceptions = attribute;
+            } else if (attribute != null
+                    && attribute.getType() == SIGNATURE) {
+                signature = attribute;
+            }
+        }
+
+        String[] descriptor = ParserUtils.convertMethodDescriptor(
+                getString(descriptorIndex));
+        AST parameters = create(PARAMETERS, "");
+        for (int i = 1; i < descriptor.length; i++) {
+            AST parameter = create(PARAMETER_DEF, "");
+            parameter.addChild(new ShortAST(ACCESS_MODIFIERS, (short) 0));
+            parameter.addChild(create(TYPE, descriptor[i]));
+            parameter.addChild(create(IDENT, "param" + i));
+            parameters.addChild(parameter);
+        }
+
+        AST method;
+        String name = getString(nameIndex);
+        if ("<init>".equals(name)) {
+            // Use the class name as the constructor's method name.
+            method = create(CTOR_DEF, "");
+            method.addChild(new ShortAST(ACCESS_MODIFIERS, modifiers));
+            method.addChild(create(IDENT, className));
+        } else {
+            method = create(METHOD_DEF, "");
+            method.addChild(new ShortAST(ACCESS_MODIFIERS, modifiers));
+            method.addChild(create(TYPE, descriptor[0]));
+            method.addChild(create(IDENT, name));
+        }
+        method.addChild(parameters);
+        method.addChild(exceptions);
+        method.addChild(signature);
+        return method;
+    }
+
+    /**
+     * Read an attribute. The position is set to the end of the attribute
+     * afterwards, using its length.
+     *
+     * @return the AST of the attribute, or null if it has none
+     */
+    private AST attribute() throws RecognitionException {
+        String name = getString(u2());
+        int length = u4();
+        if (length < 0 || length > end - pos) {
+            throw new RecognitionException("Attribute " + name
+                    + " exceeds the end of the classfile");
+        }
+        int attributeEnd = pos + length;
+
+        AST result = null;
+        if (mode == STRUCTURE && isCodeAttribute(name)
+                || isIgnoredAttribute(name)) {
+            pos = attributeEnd;
+            return null;
+        }
+        if ("Code".equals(name)) {
+            code();
+        } else if ("ConstantValue".equals(name)) {
+            result = new ShortAST(ATTRIBUTE_CONSTANT, (short) u2());
+        } else if ("Exceptions".equals(name)) {
+            result = create(THROWS, "");
+            for (int count = u2(); count > 0; count--) {
+                int index = u2();
+                if (index != 0) {
+                    result.addChild(create(IDENT, getClassName(index)));
+                }
+            }
+        } else if ("Signature".equals(name)) {
+            result = create(SIGNATURE, getString(u2()));
+        } else if (length == 2 && "SourceFile".equals(name)) {
+            result = create(SOURCEFILE, getString(u2()));
+        } else if ("LineNumberTable".equals(name)) {
+            // start_pc and line_number of each line
+            skip(u2() * 4);
+        } else if ("LocalVariableTable".equals(name)
+                || "LocalVariableTypeTable".equals(name)) {
+            // start_pc, length, name_index, descriptor_index and index
+            skip(u2() * 10);
+        } else if (!"InnerClasses".equals(name)) {
+            // A compiler specific attribute, that is not known in detail.
+            result = create(UNKNOWN_ATTRIBUTE, name);
+        }
+
+        if (pos > attributeEnd) {
+            throw new RecognitionException("Attribute " + name
+                    + " is longer than its length");
+        }
+        pos = attributeEnd;
+        return result;
+    }
+
+    /**
+     * @param name the name of an attribute
+     * @return true if the attribute is about the code of a method, which is
+     *         skipped in the {@link #STRUCTURE} mode
+     */
+    private static boolean isCodeAttribute(String name) {
+        return "Code".equals(name)
+            || "LineNumberTable".equals(name)
+            || "LocalVariableTable".equals(name)
+            || "LocalVariableTypeTable".equals(name);
+    }
+
+    /**
+     * @param name the name of an attribute
+     * @return true if the attribute doesn't contribute to the model, and
+     *         is skipped in both modes
+     */
+    static boolean isIgnoredAttribute(String name) {
+        return IGNORED_ATTRIBUTES.contains(name);
+    }
+
+    /**
+     * Read the Code attribute of a method. The bytecode is skipped and the
+     * nested attributes don't contribute to the AST.
+     */
+    private void code() throws RecognitionException {
+        // max_stack and max_locals
+        skip(4);
+        skip(u4());
+        // start_pc, end_pc, handler_pc and catch_type of each exception
+        skip(u2() * 8);
+        for (int count = u2(); count > 0; count--) {
+            attribute();
+        }
+    }
+
+    /**
+     * Get a UTF8 constant from the constant pool. It is decoded when it is
+     * first used.
+     *
+     * @param index the index of the constant
+     * @return the string
+     */
+    private String getString(int index) throws RecognitionException {
+        checkConstant(index, CONSTANT_UTF8);
+        String s = constantStrings[index];
+        if (s == null) {
+            int offset = constantOffsets[index];
+            int length = u2At(offset);
+            try {
+                s = symbols == null
+                    ? SymbolTable.decode(data, offset + 2, length)
+                    : symbols.get(data, offset + 2, length);
+            } catch (UTFDataFormatException e) {
+                throw new RecognitionException("Constant pool entry "
+                        + index + ": " + e.getMessage());
+            }
+            constantStrings[index] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Get the name of a class constant from the constant pool.
+     *
+     * @param index the index of the constant
+     * @return the name of the class, with '/' as package separator
+     */
+    private String getClassName(int index) throws RecognitionException {
+        checkConstant(index, CONSTANT_CLASS);
+        return getString(u2At(constantOffsets[index]));
+    }
+
+    private void checkConstant(int index, int tag)
+        throws RecognitionException {
+        if (index <= 0 || index >= constantCount
+                || constantTags[index] != tag) {
+            throw new RecognitionException("Constant pool entry " + index
+                    + " is not of type " + tag);
+        }
+    }
+
+    private void append(AST node) {
+        if (node != null) {
+            last.setNextSibling(node);
+            last = node;
+        }
+    }
+
+    private static AST create(int type, String text) {
+        AST node = new CommonAST();
+        node.initialize(type, text);
+        return node;
+    }
+
+    private void skip(int n) throws RecognitionException {
+        if (n < 0 || n > end - pos) {
+            throw new TruncatedException();
+        }
+        pos += n;
+    }
+
+    private int u1() throws RecognitionException {
+        skip(1);
+        return data[pos - 1] & 0xff;
+    }
+
+    private int u2() throws RecognitionException {
+        skip(2);
+        return u2At(pos - 2);
+    }
+
+    private int u4() throws RecognitionException {
+        skip(4);
+        return u2At(pos - 4) << 16 | u2At(pos - 2);
+    }
+
+    private int u2At(int offset) {
+        return (data[offset] & 0xff) << 8 | data[offset + 1] & 0xff;
+    }
+
+    /**
+     * The head of a classfile. The names have '/' as package separator.
+     */
+    static final class Header {
+
+        private final String name;
+
+        private final String superclassName;
+
+        private final List<String> interfaceNames;
+
+        private final int accessFlags;
+
+        Header(String theName, String theSuperclassName,
+                List<String> theInterfaceNames, int theAccessFlags) {
+            name = theName;
+            superclassName = theSuperclassName;
+            interfaceNames = theInterfaceNames;
+            accessFlags = theAccessFlags;
+        }
+
+        /**
+         * @return the name of the class
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the name of the superclass, or null if there is none
+         */
+        String getSuperclassName() {
+            return superclassName;
+        }
+
+        /**
+         * @return the names of the interfaces of the class
+         */
+        List<String> getInterfaceNames() {
+            return interfaceNames;
+        }
+
+        /**
+         * @return the access flags of the class, like
+         *         {@link ClassfileParser#ACC_PUBLIC}
+         */
+        int getAccessFlags() {
+            return accessFlags;
+        }
+    }
+
+    /**
+     * The exception for a classfile that ends too early.
+     */
+    private static final class TruncatedException
+        extends RecognitionException {
+
+        private static final long serialVersionUID = 1L;
+
+        TruncatedException() {
+            super("Unexpected end of the classfile");
+        }
+    }
+}
@@ -43,12 +43,8 @@
 
 package org.argouml.language.java.reveng.classfile;
 
-import java.net.MalformedURLException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
+import org.argouml.language.java.reveng.ClasspathIndex;
 import org.argouml.model.Model;
-import org.argouml.uml.reveng.ImportClassLoader;
 
 /**
    The context is the current available namespaces via import in the
@@ -61,9 +57,6 @@ import org.argouml.uml.reveng.ImportClassLoader;
 // deliberate. /Linus 2013-01-01.
 abstract class Context
 {
-    private static final Logger LOG =
-        Logger.getLogger(Context.class.getName());
-
     /** The parent context. May be null. */
     private Context context;
 
@@ -137,56 +130,29 @@ abstract class Context
         return context;
     }
 
-    protected Class<?> findClass(String name, boolean interfacesOnly) {
-        Class<?> clazz = null;
-        try {
-            // TODO: Do we ever want to look up things on our own classpath?
-            // This really should only be used for default Java types and even
-            // then probably should be done after searching the user classpath
-            clazz = Class.forName(name);
-        } catch (ClassNotFoundException e) {
-            clazz = findClassOnUserClasspath(name, interfacesOnly);
-        } catch (LinkageError e) {
-            // We found the class, but we couldn't load it for some reason
-            // most likely a missing dependency on the class path, but could
-            // be wrong class file version or something else
-            // TODO: Need to make this visible to the user
-            LOG.log(Level.WARNING,
-                    "Linkage error loading found class " + name,
-                    e);
-            // We'll continue the search, but this is probably the one we wanted
-            clazz = findClassOnUserClasspath(name, interfacesOnly);
-        }
-        // Got something, but it wasn't what we wanted.  Try again.
-        if (clazz != null && interfacesOnly && !clazz.isInterface()) {
-            clazz = findClassOnUserClasspath(name, interfacesOnly);
-        }
-        return clazz;
-    }
-
-    private Class<?> findClassOnUserClasspath(String name,
-            boolean interfacesOnly) {
-        Class<?> clazz = null;
-        try {
-            clazz = ImportClassLoader.getInstance().loadClass(name);
-        } catch (MalformedURLException e) {
-            // TODO: Need to make this visible to the user
-            LOG.log(Level.WARNING, "Classpath configuration error", e);
-        } catch (ClassNotFoundException e) {
-            return null;
-        } catch (LinkageError e) {
-            // We found the class, but we couldn't load it for some reason
-            // most likely a missing dependency on the class path
-            // TODO: Need to make this visible to the user
-            LOG.log(Level.WARNING,
-                    "Linkage error loading found class " + name,
-                    e);
-            return null;
+    /**
+     * Look up a class on the Java platform and on the import classpath,
+     * without loading it.
+     *
+     * @param name the fully qualified name of the class
+     * @param interfacesOnly Filter for interfaces only.
+     * @return {@link ClasspathIndex#CLASS}, {@link ClasspathIndex#INTERFACE}
+     *         or {@link ClasspathIndex#NOT_FOUND}
+     */
+    protected int findClass(String name, boolean interfacesOnly) {
+        // TODO: Do we ever want to look up things on our own classpath?
+        // This really should only be used for default Java types and even
+        // then probably should be done after searching the user classpath
+        int kind = ClasspathIndex.getPlatformKind(name);
+        if (kind == ClasspathIndex.NOT_FOUND
+                || (interfacesOnly && kind != ClasspathIndex.INTERFACE)) {
+            // Got nothing, or it wasn't what we wanted.  Try again.
+            kind = ClasspathIndex.getInstance().getKind(name);
         }
-        if (clazz != null && interfacesOnly && !clazz.isInterface()) {
-            return null;
+        if (interfacesOnly && kind != ClasspathIndex.INTERFACE) {
+            return ClasspathIndex.NOT_FOUND;
         }
-        return clazz;
+        return kind;
     }
 }
 
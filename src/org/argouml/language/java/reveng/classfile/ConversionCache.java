@@ -0,0 +1,207 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the conversions of descriptors or signatures. The same
+ * descriptors, like <code>()V</code> or <code>Ljava/lang/String;</code>,
+ * occur in most classfiles, so each of them is only converted once while it
+ * is used.
+ * <p>
+ * The cache is thread safe. It is divided into segments, each with its own
+ * lock, so the parser threads of an import rarely wait for each other. A
+ * segment evicts the conversion that was used least recently when it is
+ * full.
+ *
+ * @param <V> the type of the conversions
+ */
+final class ConversionCache<V> {
+
+    private static final int SEGMENTS = 8;
+
+    private final String name;
+
+    private final Segment<V>[] segments;
+
+    /**
+     * Create a cache.
+     *
+     * @param cacheName the name of the cache in the statistics
+     * @param capacity the maximum number of conversions in the cache
+     */
+    @SuppressWarnings("unchecked")
+    ConversionCache(String cacheName, int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Capacity " + capacity
+                    + " is less than " + SEGMENTS);
+        }
+        name = cacheName;
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<V>(capacity / SEGMENTS);
+        }
+    }
+
+    /**
+     * @param key the descriptor
+     * @return the conversion of the descriptor, or null if it is not in the
+     *         cache
+     */
+    V get(String key) {
+        Segment<V> segment = segmentFor(key);
+        synchronized (segment) {
+            V value = segment.get(key);
+            if (value == null) {
+                segment.misses++;
+            } else {
+                segment.hits++;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * @param key the descriptor
+     * @param value the conversion of the descriptor
+     */
+    void put(String key, V value) {
+        Segment<V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Remove all conversions and reset the statistics.
+     */
+    void clear() {
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.hits = 0;
+                segment.misses = 0;
+                segment.evictions = 0;
+            }
+        }
+    }
+
+    /**
+     * @return the number of conversions in the cache
+     */
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of lookups that found a conversion
+     */
+    long getHits() {
+        long hits = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that didn't find a conversion
+     */
+    long getMisses() {
+        long misses = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                misses += segment.misses;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * @return the number of conversions that were removed to make room for
+     *         others
+     */
+    long getEvictions() {
+        long evictions = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * @return the part of the lookups that found a conversion, between 0
+     *         and 1
+     */
+    double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + size() + " entries, " + getHits() + " hits, "
+            + getMisses() + " misses, " + getEvictions() + " evictions, "
+            + Math.round(getHitRate() * 100) + "% hit rate";
+    }
+
+    private Segment<V> segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    /**
+     * A part of the cache, ordered by the last use of its conversions.
+     */
+    private static final class Segment<V> extends LinkedHashMap<String, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private long hits;
+
+        private long misses;
+
+        private long evictions;
+
+        Segment(int maximum) {
+            super(16, 0.75f, true);
+            capacity = maximum;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            if (size() > capacity) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
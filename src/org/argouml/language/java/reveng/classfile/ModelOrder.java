@@ -0,0 +1,193 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides when the classes of an import can be modelled, while they are
+ * read from streams in the order they are found. A class is modelled after
+ * the supertypes it is ordered after by {@link SupertypeOrder}.
+ * <p>
+ * A class whose supertypes are not modelled yet is kept until they are,
+ * as long as the kept classfiles don't exceed a limit. The classes that
+ * can't be kept are left for another walk over the files, in which they
+ * are modelled in the same way. Each walk models at least one class, and
+ * usually the first walk models all of them.
+ * <p>
+ * The indices of the classes are those of their headers.
+ */
+final class ModelOrder {
+
+    /**
+     * The classes that wait for each class.
+     */
+    private final List<List<Integer>> dependents;
+
+    /**
+     * The number of supertypes that each class waits for.
+     */
+    private final int[] waiting;
+
+    private final boolean[] modelled;
+
+    /**
+     * The classfiles that are kept until their supertypes are modelled.
+     */
+    private final byte[][] kept;
+
+    private final long limit;
+
+    private long keptBytes;
+
+    private int remaining;
+
+    /**
+     * Create the order for the classes of an import.
+     *
+     * @param headers the heads of the classfiles of the classes
+     * @param keptLimit the maximum number of bytes of the classfiles that
+     *            are kept
+     */
+    ModelOrder(List<ClassfileReader.Header> headers, long keptLimit) {
+        int count = headers.size();
+        limit = keptLimit;
+        remaining = count;
+        waiting = new int[count];
+        modelled = new boolean[count];
+        kept = new byte[count][];
+
+        int[] position = new int[count];
+        int[] order = SupertypeOrder.sort(headers);
+        for (int i = 0; i < count; i++) {
+            position[order[i]] = i;
+        }
+        Map<String, Integer> indices = new HashMap<String, Integer>();
+        for (int i = 0; i < count; i++) {
+            String name = headers.get(i).getName();
+            if (!indices.containsKey(name)) {
+                indices.put(name, Integer.valueOf(i));
+            }
+        }
+
+        dependents = new ArrayList<List<Integer>>(count);
+        for (int i = 0; i < count; i++) {
+            dependents.add(null);
+        }
+        for (int i = 0; i < count; i++) {
+            ClassfileReader.Header header = headers.get(i);
+            addDependency(indices.get(header.getSuperclassName()), i,
+                    position);
+            for (String name : header.getInterfaceNames()) {
+                addDependency(indices.get(name), i, position);
+            }
+        }
+    }
+
+    /**
+     * Only the supertypes that are ordered before a class are waited for,
+     * so the edges of cycles are ignored like in the order.
+     */
+    private void addDependency(Integer supertype, int index, int[] position) {
+        if (supertype == null) {
+            return;
+        }
+        int s = supertype.intValue();
+        if (position[s] >= position[index]) {
+            return;
+        }
+        List<Integer> list = dependents.get(s);
+        if (list == null) {
+            list = new ArrayList<Integer>(2);
+            dependents.set(s, list);
+        }
+        list.add(Integer.valueOf(index));
+        waiting[index]++;
+    }
+
+    /**
+     * @param index the index of a class
+     * @return true if the classfile of the class is needed, since it is
+     *         neither modelled nor kept
+     */
+    boolean isWanted(int index) {
+        return !modelled[index] && kept[index] == null;
+    }
+
+    /**
+     * Offer the classfile of a class that was read.
+     *
+     * @param index the index of the class
+     * @param bytes the classfile
+     * @return the indices of the classes to model now, in order. The
+     *         classfiles of them are taken with {@link #take(int)}.
+     */
+    List<Integer> offer(int index, byte[] bytes) {
+        List<Integer> ready = new ArrayList<Integer>();
+        if (waiting[index] > 0) {
+            if (keptBytes + bytes.length <= limit) {
+                kept[index] = bytes;
+                keptBytes += bytes.length;
+            }
+            return ready;
+        }
+        kept[index] = bytes;
+        keptBytes += bytes.length;
+
+        // Modelling a class may release classes that wait for it.
+        LinkedList<Integer> todo = new LinkedList<Integer>();
+        todo.add(Integer.valueOf(index));
+        while (!todo.isEmpty()) {
+            Integer next = todo.removeFirst();
+            int i = next.intValue();
+            ready.add(next);
+            modelled[i] = true;
+            remaining--;
+            List<Integer> list = dependents.get(i);
+            if (list != null) {
+                for (Integer dependent : list) {
+                    int d = dependent.intValue();
+                    if (--waiting[d] == 0 && kept[d] != null) {
+                        todo.add(dependent);
+                    }
+                }
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Take the classfile of a class to model.
+     *
+     * @param index the index of the class
+     * @return the classfile
+     */
+    byte[] take(int index) {
+        byte[] bytes = kept[index];
+        kept[index] = null;
+        keptBytes -= bytes.length;
+        return bytes;
+    }
+
+    /**
+     * @return the number of classes that are not modelled yet
+     */
+    int getRemaining() {
+        return remaining;
+    }
+}
@@ -38,6 +38,7 @@
 
 package org.argouml.language.java.reveng.classfile;
 
+import org.argouml.language.java.reveng.ClasspathIndex;
 import org.argouml.model.Model;
 
 /**
@@ -103,16 +104,16 @@ class OuterClassifierContext extends Context {
 	Object iClassifier = Model.getFacade().lookupIn(mClassifier, name);
 
 	if (iClassifier == null) {
-	    Class classifier;
+	    int kind;
 	    String clazzName = namePrefix + name;
 	    // Special case for model
 	    if (!Model.getFacade().isAModel(mPackage)) {
 	        clazzName =
 	            packageJavaName + "." + namePrefix + name;
 	    }
-	    classifier = findClass(clazzName, interfacesOnly);
-	    if (classifier != null) {
-                if (classifier.isInterface()) {
+	    kind = findClass(clazzName, interfacesOnly);
+	    if (kind != ClasspathIndex.NOT_FOUND) {
+                if (kind == ClasspathIndex.INTERFACE) {
                     iClassifier = Model.getCoreFactory().buildInterface(name,
                             mClassifier);
                 } else {
@@ -38,6 +38,7 @@
 
 package org.argouml.language.java.reveng.classfile;
 
+import org.argouml.language.java.reveng.ClasspathIndex;
 import org.argouml.model.Facade;
 import org.argouml.model.Model;
 
@@ -105,15 +106,15 @@ class PackageContext extends Context {
 	Object mClassifier = Model.getFacade().lookupIn(mPackage, name);
 
 	if (mClassifier == null) {
-	    Class classifier;
+	    int kind;
 	    String clazzName = name;
 	    // Special case for model
 	    if (!Model.getFacade().isAModel(mPackage)) {
 	        clazzName = javaName + "." + name;
 	    }
-	    classifier = findClass(clazzName, interfacesOnly);
-	    if (classifier != null) {
-	        if (classifier.isInterface()) {
+	    kind = findClass(clazzName, interfacesOnly);
+	    if (kind != ClasspathIndex.NOT_FOUND) {
+	        if (kind == ClasspathIndex.INTERFACE) {
                     mClassifier = Model.getCoreFactory().buildInterface(name,
                             mPackage);
                 } else {
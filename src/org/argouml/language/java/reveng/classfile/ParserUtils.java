@@ -43,11 +43,32 @@ import java.util.regex.Pattern;
 
 /**
  * Contains methods used in Classfile.g to parse descriptors and signatures.
+ * <p>
+ * The descriptors and signatures are converted by a
+ * {@link SignatureConverter}, and the conversions of those that occur in
+ * many classfiles are cached.
  * 
  * @author Alexander Lepekhin
  */
 public class ParserUtils {
 
+    /**
+     * The maximum number of conversions in each cache.
+     */
+    private static final int CACHE_SIZE = 4096;
+
+    private static final ConversionCache<String> FIELD_DESCRIPTORS =
+        new ConversionCache<String>("field descriptors", CACHE_SIZE);
+
+    private static final ConversionCache<String[]> METHOD_DESCRIPTORS =
+        new ConversionCache<String[]>("method descriptors", CACHE_SIZE);
+
+    private static final ConversionCache<String> FIELD_TYPE_SIGNATURES =
+        new ConversionCache<String>("field type signatures", CACHE_SIZE);
+
+    private static final ConversionCache<String> CLASS_SIGNATURES =
+        new ConversionCache<String>("class signatures", CACHE_SIZE);
+
     /**
      * Convert a classfile field descriptor.
      * 
@@ -55,7 +76,12 @@ public class ParserUtils {
      * @return The descriptor as it would appear in a Java sourcefile.
      */
     public static String convertFieldDescriptor(String desc) {
-        return convertFieldDescriptor(new FieldDescriptorLexer(desc).parse());
+        String result = FIELD_DESCRIPTORS.get(desc);
+        if (result == null) {
+            result = SignatureConverter.convertFieldDescriptor(desc);
+            FIELD_DESCRIPTORS.put(desc, result);
+        }
+        return result;
     }
 
     /**
@@ -66,12 +92,13 @@ public class ParserUtils {
      *         types.
      */
     public static String[] convertMethodDescriptor(String desc) {
-        List<String> buf = new LinkedList<String>();
-        MethodDescriptorLexer lexer = new MethodDescriptorLexer(desc);
-        for (Token t : lexer.parse()) {
-            buf.add(t.getValue());
+        String[] result = METHOD_DESCRIPTORS.get(desc);
+        if (result == null) {
+            result = SignatureConverter.convertMethodDescriptor(desc);
+            METHOD_DESCRIPTORS.put(desc, result);
         }
-        return buf.toArray(new String[] {});
+        // the cached array is shared, the callers get their own copy
+        return result.clone();
     }
 
     /**
@@ -82,8 +109,12 @@ public class ParserUtils {
      * @return The signature as it would appear in a Java sourcefile.
      */
     public static String convertFieldTypeSignature(String desc) {
-        List<Token> lexer = new FieldTypeSignatureLexer(desc).parse();
-        return convertFieldTypeSignature(lexer);
+        String result = FIELD_TYPE_SIGNATURES.get(desc);
+        if (result == null) {
+            result = SignatureConverter.convertFieldTypeSignature(desc);
+            FIELD_TYPE_SIGNATURES.put(desc, result);
+        }
+        return result;
     }
 
     /**
@@ -94,8 +125,7 @@ public class ParserUtils {
      * @return The signature as it would appear in a Java sourcefile.
      */
     public static String convertClassTypeSignature(String desc) {
-        List<Token> lexer = new ClassTypeSignatureLexer(desc).parse();
-        return convertClassTypeSignature(lexer);
+        return SignatureConverter.convertClassTypeSignature(desc);
     }
 
     /**
@@ -106,7 +136,30 @@ public class ParserUtils {
      * @return The signature as it would appear in a Java sourcefile.
      */
     public static String convertClassSignature(String desc) {
-        return convertClassSignature(new ClassSignatureLexer(desc).parse());
+        String result = CLASS_SIGNATURES.get(desc);
+        if (result == null) {
+            result = SignatureConverter.convertClassSignature(desc);
+            CLASS_SIGNATURES.put(desc, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the statistics of the caches of the conversions
+     */
+    static String getCacheStatistics() {
+        return FIELD_DESCRIPTORS + "; " + METHOD_DESCRIPTORS + "; "
+            + FIELD_TYPE_SIGNATURES + "; " + CLASS_SIGNATURES;
+    }
+
+    /**
+     * Remove the cached conversions and reset the statistics.
+     */
+    static void clearCaches() {
+        FIELD_DESCRIPTORS.clear();
+        METHOD_DESCRIPTORS.clear();
+        FIELD_TYPE_SIGNATURES.clear();
+        CLASS_SIGNATURES.clear();
     }
 
     /**
@@ -148,8 +201,7 @@ public class ParserUtils {
      * @return The signature as it would appear in a Java sourcefile.
      */
     public static String convertMethodTypeSignature(String desc) {
-        return convertMethodTypeSignature(new MethodTypeSignatureLexer(desc)
-                .parse());
+        return SignatureConverter.convertMethodTypeSignature(desc);
     }
 
     protected static String convertFieldDescriptor(List<Token> tokens) {
@@ -0,0 +1,407 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts descriptors and signatures of classfiles to the way they would
+ * appear in a Java sourcefile. The result is the same as that of the lexers
+ * of {@link ParserUtils}, but it is built in one pass over the descriptor,
+ * without token lists and substrings.
+ * <p>
+ * The grammar is that of the JVM specification, so unlike the lexers a
+ * method descriptor may have several reference parameters and a type may
+ * have several wildcard arguments.
+ */
+final class SignatureConverter {
+
+    private final String text;
+
+    private int pos;
+
+    private final StringBuilder buf;
+
+    private SignatureConverter(String desc) {
+        text = desc;
+        buf = new StringBuilder(desc.length() + 16);
+    }
+
+    /**
+     * Convert a field descriptor, e.g. <code>[Ljava/lang/String;</code> to
+     * <code>java.lang.String[]</code>.
+     *
+     * @param desc the descriptor
+     * @return the Java type
+     */
+    static String convertFieldDescriptor(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        c.fieldDescriptor();
+        c.end();
+        return c.buf.toString();
+    }
+
+    /**
+     * Convert a method descriptor.
+     *
+     * @param desc the descriptor
+     * @return the Java types of the parameters, followed by the return
+     *         type
+     */
+    static String[] convertMethodDescriptor(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        List<String> types = new ArrayList<String>();
+        c.expect('(');
+        while (c.peek() != ')') {
+            c.fieldDescriptor();
+            types.add(c.take());
+        }
+        c.pos++;
+        if (c.peek() == 'V') {
+            c.pos++;
+            types.add("void");
+        } else {
+            c.fieldDescriptor();
+            types.add(c.take());
+        }
+        c.end();
+        return types.toArray(new String[types.size()]);
+    }
+
+    /**
+     * Convert a field type signature, e.g.
+     * <code>Ljava/util/List&lt;TE;&gt;;</code> to
+     * <code>java.util.List&lt;E&gt;</code>.
+     *
+     * @param desc the signature
+     * @return the Java type
+     */
+    static String convertFieldTypeSignature(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        c.fieldTypeSignature();
+        c.end();
+        return c.buf.toString();
+    }
+
+    /**
+     * Convert a class type signature.
+     *
+     * @param desc the signature
+     * @return the Java type
+     */
+    static String convertClassTypeSignature(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        c.classTypeSignature();
+        c.end();
+        return c.buf.toString();
+    }
+
+    /**
+     * Convert a class signature, e.g.
+     * <code>&lt;T:Ljava/lang/Object;&gt;Ljava/lang/Object;</code> to
+     * <code>&lt;T extends java.lang.Object&gt; extends
+     * java.lang.Object</code>.
+     *
+     * @param desc the signature
+     * @return the type parameters, superclass and interfaces in Java
+     *         syntax
+     */
+    static String convertClassSignature(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        if (c.peek() == '<') {
+            c.formalTypeParameters();
+        }
+        c.buf.append(" extends ");
+        c.classTypeSignature();
+        if (c.pos < c.text.length()) {
+            c.buf.append(" implements ");
+            c.classTypeSignature();
+            while (c.pos < c.text.length()) {
+                c.buf.append(',');
+                c.classTypeSignature();
+            }
+        }
+        return c.buf.toString();
+    }
+
+    /**
+     * Convert a method type signature.
+     *
+     * @param desc the signature
+     * @return the type parameters, parameters, return type and exceptions
+     *         in the syntax of {@link ParserUtils#convertMethodTypeSignature}
+     */
+    static String convertMethodTypeSignature(String desc) {
+        SignatureConverter c = new SignatureConverter(desc);
+        if (c.peek() == '<') {
+            c.formalTypeParameters();
+        }
+        c.expect('(');
+        c.buf.append('(');
+        boolean first = true;
+        while (c.peek() != ')') {
+            if (!first) {
+                c.buf.append(',');
+            }
+            c.typeSignature();
+            first = false;
+        }
+        c.pos++;
+        c.buf.append(") return ");
+        if (c.peek() == 'V') {
+            c.pos++;
+            c.buf.append("void");
+        } else {
+            c.typeSignature();
+        }
+        if (c.pos < c.text.length()) {
+            c.buf.append(" throws ");
+            first = true;
+            while (c.pos < c.text.length()) {
+                if (!first) {
+                    c.buf.append(',');
+                }
+                c.expect('^');
+                if (c.peek() == 'T') {
+                    c.typeVariableSignature();
+                } else {
+                    c.classTypeSignature();
+                }
+                first = false;
+            }
+        }
+        return c.buf.toString();
+    }
+
+    private void fieldDescriptor() {
+        int dimensions = 0;
+        while (peek() == '[') {
+            pos++;
+            dimensions++;
+        }
+        char c = peek();
+        if (c == 'L') {
+            int semicolon = text.indexOf(';', pos);
+            if (semicolon < pos + 2) {
+                throw error("FieldDescriptor");
+            }
+            appendClassName(pos + 1, semicolon);
+            pos = semicolon + 1;
+        } else {
+            baseType();
+        }
+        for (; dimensions > 0; dimensions--) {
+            buf.append("[]");
+        }
+    }
+
+    private void typeSignature() {
+        if (isBaseType(peek())) {
+            baseType();
+        } else {
+            fieldTypeSignature();
+        }
+    }
+
+    private void fieldTypeSignature() {
+        switch (peek()) {
+        case 'L':
+            classTypeSignature();
+            break;
+        case '[':
+            pos++;
+            typeSignature();
+            buf.append("[]");
+            break;
+        case 'T':
+            typeVariableSignature();
+            break;
+        default:
+            throw error("field type signature");
+        }
+    }
+
+    private void classTypeSignature() {
+        expect('L');
+        simpleClassTypeSignature(true);
+        while (peek() == '.') {
+            pos++;
+            buf.append('.');
+            simpleClassTypeSignature(false);
+        }
+        expect(';');
+    }
+
+    /**
+     * Append an identifier with its type arguments. The identifier of the
+     * outermost class includes the package, whose slashes are replaced.
+     */
+    private void simpleClassTypeSignature(boolean qualified) {
+        int start = pos;
+        char c = peek();
+        while (c != '<' && c != '.' && c != ';') {
+            if (c == '/' && !qualified) {
+                throw error("SimpleClassTypeSignature");
+            }
+            pos++;
+            c = peek();
+        }
+        if (pos == start) {
+            throw error("SimpleClassTypeSignature");
+        }
+        appendClassName(start, pos);
+        if (c == '<') {
+            pos++;
+            buf.append('<');
+            boolean first = true;
+            while (peek() != '>') {
+                if (!first) {
+                    buf.append(',');
+                }
+                typeArgument();
+                first = false;
+            }
+            pos++;
+            buf.append('>');
+        }
+    }
+
+    private void typeArgument() {
+        switch (peek()) {
+        case '*':
+            pos++;
+            buf.append('?');
+            break;
+        case '+':
+            pos++;
+            buf.append("? extends ");
+            fieldTypeSignature();
+            break;
+        case '-':
+            pos++;
+            buf.append("? super ");
+            fieldTypeSignature();
+            break;
+        default:
+            fieldTypeSignature();
+        }
+    }
+
+    private void typeVariableSignature() {
+        expect('T');
+        int semicolon = text.indexOf(';', pos);
+        if (semicolon < 0) {
+            throw error("type variable signature");
+        }
+        buf.append(text, pos, semicolon);
+        pos = semicolon + 1;
+    }
+
+    private void formalTypeParameters() {
+        expect('<');
+        buf.append('<');
+        boolean first = true;
+        while (peek() != '>') {
+            if (!first) {
+                buf.append(',');
+            }
+            int colon = text.indexOf(':', pos);
+            if (colon <= pos) {
+                throw error("formal type parameter");
+            }
+            buf.append(text, pos, colon).append(" extends ");
+            pos = colon + 1;
+            // The class bound is absent if the parameter only extends
+            // interfaces.
+            if (peek() == ':') {
+                pos++;
+            }
+            fieldTypeSignature();
+            while (peek() == ':') {
+                pos++;
+                buf.append(" & ");
+                fieldTypeSignature();
+            }
+            first = false;
+        }
+        pos++;
+        buf.append('>');
+    }
+
+    private void baseType() {
+        char c = peek();
+        if (!isBaseType(c)) {
+            throw error("FieldDescriptor");
+        }
+        buf.append(ParserUtils.convertBaseType(String.valueOf(c)));
+        pos++;
+    }
+
+    private static boolean isBaseType(char c) {
+        switch (c) {
+        case 'B':
+        case 'C':
+        case 'D':
+        case 'F':
+        case 'I':
+        case 'J':
+        case 'S':
+        case 'Z':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void appendClassName(int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            buf.append(c == '/' ? '.' : c);
+        }
+    }
+
+    /**
+     * @return the converted type and clear the buffer for the next one
+     */
+    private String take() {
+        String result = buf.toString();
+        buf.setLength(0);
+        return result;
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("complete descriptor");
+        }
+        return text.charAt(pos);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("valid descriptor, expected " + c + " at " + pos);
+        }
+        pos++;
+    }
+
+    private void end() {
+        if (pos != text.length()) {
+            throw error("descriptor without trailing characters");
+        }
+    }
+
+    private IllegalArgumentException error(String what) {
+        return new IllegalArgumentException(text + " is not a " + what);
+    }
+}
@@ -0,0 +1,97 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders the classes of an import so that each class comes after its
+ * superclass and its interfaces, if they are imported too. The
+ * {@link ClassfileImport} models the classes in this order, so the
+ * supertypes of a class are in the model when the class is modelled.
+ * <p>
+ * Apart from that, the classes keep the order in which they were found.
+ * Supertypes that are not imported are ignored, and so are the edges that
+ * would close a cycle, which only invalid classfiles have.
+ */
+final class SupertypeOrder {
+
+    private static final int UNVISITED = 0;
+
+    private static final int VISITING = 1;
+
+    private static final int VISITED = 2;
+
+    private SupertypeOrder() {
+    }
+
+    /**
+     * Order classes by their supertypes.
+     *
+     * @param headers the heads of the classfiles of the classes
+     * @return the indices of the classes in <code>headers</code>, in the
+     *         order they should be modelled
+     */
+    static int[] sort(List<ClassfileReader.Header> headers) {
+        int count = headers.size();
+        Map<String, Integer> indices = new HashMap<String, Integer>();
+        for (int i = 0; i < count; i++) {
+            String name = headers.get(i).getName();
+            if (!indices.containsKey(name)) {
+                indices.put(name, Integer.valueOf(i));
+            }
+        }
+
+        int[] order = new int[count];
+        int ordered = 0;
+        int[] state = new int[count];
+        // The classes that are being visited, and the next supertype of each
+        // of them to visit: 0 is the superclass, 1.. are the interfaces.
+        int[] stack = new int[count];
+        int[] next = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (state[i] != UNVISITED) {
+                continue;
+            }
+            int depth = 0;
+            stack[0] = i;
+            next[0] = 0;
+            state[i] = VISITING;
+            while (depth >= 0) {
+                ClassfileReader.Header header = headers.get(stack[depth]);
+                int edge = next[depth]++;
+                if (edge > header.getInterfaceNames().size()) {
+                    // all supertypes are ordered
+                    state[stack[depth]] = VISITED;
+                    order[ordered++] = stack[depth];
+                    depth--;
+                    continue;
+                }
+                String supertype = edge == 0 ? header.getSuperclassName()
+                    : header.getInterfaceNames().get(edge - 1);
+                Integer index = supertype == null ? null
+                    : indices.get(supertype);
+                if (index != null && state[index.intValue()] == UNVISITED) {
+                    depth++;
+                    stack[depth] = index.intValue();
+                    next[depth] = 0;
+                    state[index.intValue()] = VISITING;
+                }
+            }
+        }
+        return order;
+    }
+}
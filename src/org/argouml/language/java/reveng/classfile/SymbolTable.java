@@ -0,0 +1,174 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.UTFDataFormatException;
+
+/**
+ * The strings of the UTF8 constants of the classfiles of an import. The
+ * same names and descriptors, like <code>java/lang/String</code>, occur in
+ * many classfiles, so each of them is decoded once and the same string is
+ * used for all of them.
+ * <p>
+ * The strings are looked up by their encoded bytes, so a string is only
+ * created when it is not in the table yet. The table is thread safe, the
+ * parser threads of an import share it.
+ */
+final class SymbolTable {
+
+    /**
+     * The encoded bytes of the strings, in an open addressing hash table.
+     */
+    private byte[][] keys = new byte[1024][];
+
+    /**
+     * The hash codes of the keys.
+     */
+    private int[] hashes = new int[1024];
+
+    /**
+     * The strings of the keys.
+     */
+    private String[] values = new String[1024];
+
+    private int size;
+
+    /**
+     * Get the string for the modified UTF-8 encoded bytes of a UTF8
+     * constant.
+     *
+     * @param bytes the array with the bytes
+     * @param offset the position of the bytes in the array
+     * @param length the number of bytes
+     * @return the string
+     * @throws UTFDataFormatException if the bytes are not valid modified
+     *             UTF-8
+     */
+    synchronized String get(byte[] bytes, int offset, int length)
+        throws UTFDataFormatException {
+        int hash = hash(bytes, offset, length);
+        int mask = keys.length - 1;
+        int i = hash & mask;
+        for (byte[] key = keys[i]; key != null; key = keys[i]) {
+            if (hashes[i] == hash && equals(key, bytes, offset, length)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        String value = decode(bytes, offset, length);
+        byte[] key = new byte[length];
+        System.arraycopy(bytes, offset, key, 0, length);
+        keys[i] = key;
+        hashes[i] = hash;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of strings in the table
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    private void grow() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        String[] oldValues = values;
+        keys = new byte[oldKeys.length * 2][];
+        hashes = new int[keys.length];
+        values = new String[keys.length];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = oldHashes[j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                hashes[i] = oldHashes[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = length;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // spread the bits for the power of 2 table size
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(byte[] key, byte[] bytes, int offset,
+            int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode modified UTF-8, the encoding of the UTF8 constants of
+     * classfiles. It differs from UTF-8 in the encoding of the null
+     * character, which has 2 bytes, and of supplementary characters, which
+     * are encoded as 2 surrogates with 3 bytes each.
+     *
+     * @param bytes the array with the bytes
+     * @param offset the position of the bytes in the array
+     * @param length the number of bytes
+     * @return the string
+     * @throws UTFDataFormatException if the bytes are not valid modified
+     *             UTF-8
+     */
+    static String decode(byte[] bytes, int offset, int length)
+        throws UTFDataFormatException {
+        char[] chars = new char[length];
+        int count = 0;
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            int b = bytes[i] & 0xff;
+            if (b < 0x80 && b != 0) {
+                chars[count++] = (char) b;
+                i++;
+            } else if ((b & 0xe0) == 0xc0 && i + 1 < end
+                    && (bytes[i + 1] & 0xc0) == 0x80) {
+                chars[count++] = (char) ((b & 0x1f) << 6
+                        | bytes[i + 1] & 0x3f);
+                i += 2;
+            } else if ((b & 0xf0) == 0xe0 && i + 2 < end
+                    && (bytes[i + 1] & 0xc0) == 0x80
+                    && (bytes[i + 2] & 0xc0) == 0x80) {
+                chars[count++] = (char) ((b & 0x0f) << 12
+                        | (bytes[i + 1] & 0x3f) << 6
+                        | bytes[i + 2] & 0x3f);
+                i += 3;
+            } else {
+                throw new UTFDataFormatException("Invalid modified UTF-8 at "
+                        + (i - offset));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
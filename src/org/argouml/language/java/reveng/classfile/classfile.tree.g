@@ -94,11 +94,17 @@ classfile[org.argouml.language.java.reveng.Modeller modeller]
 	  typeDefinition
  	  attribute_block
 	  method_block
-	  ( sourcefile )?
-	  class_signature
+	  class_attributes
 	    {  getModeller().popClassifier(); }
 	;
 
+// The attributes of the class. Only the signature is modelled. A class
+// must not fail because it has no signature or a compiler specific
+// attribute, since a failed class is not imported.
+class_attributes
+	: ( sourcefile | class_signature | UNKNOWN_ATTRIBUTE )*
+	;
+
 sourcefile
     :SOURCEFILE
     {System.err.println("SOURCEFILE: "+#SOURCEFILE.getText());}
@@ -140,7 +146,7 @@ typeDefinition
              modifiers=access_modifiers 
              class_name=class_info
               
-             #(EXTENDS_CLAUSE superclass_name=class_info) 
+             #(EXTENDS_CLAUSE (superclass_name=class_info)?) 
              #(IMPLEMENTS_CLAUSE interface_block[interfaces])
            )
 	     {
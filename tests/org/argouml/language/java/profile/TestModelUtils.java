@@ -0,0 +1,104 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.profile;
+
+import junit.framework.TestCase;
+
+import org.argouml.Helper;
+import org.argouml.model.Model;
+
+/**
+ * Test finding types with {@link ModelUtils}.
+ */
+public class TestModelUtils extends TestCase {
+
+    private Object model;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestModelUtils(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Helper.initializeMDR();
+        model = Model.getModelManagementFactory().createModel();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Model.getUmlFactory().delete(model);
+        super.tearDown();
+    }
+
+    /**
+     * Test that types are found, also when they are added or renamed after
+     * the first search.
+     */
+    public void testFindTypeInModel() {
+        Object pkg = Model.getModelManagementFactory().buildPackage("p");
+        Model.getCoreHelper().addOwnedElement(model, pkg);
+        Object a = Model.getCoreFactory().buildClass("A", pkg);
+        assertSame(a, ModelUtils.findTypeInModel("A", model));
+        assertNull(ModelUtils.findTypeInModel("B", model));
+
+        Object b = Model.getCoreFactory().buildClass("B", model);
+        assertSame(b, ModelUtils.findTypeInModel("B", model));
+
+        Model.getCoreHelper().setName(a, "C");
+        assertNull(ModelUtils.findTypeInModel("A", model));
+        assertSame(a, ModelUtils.findTypeInModel("C", model));
+        assertNull(ModelUtils.findTypeInModel(null, model));
+    }
+
+    /**
+     * Test that a type that is deleted isn't found anymore.
+     */
+    public void testDeletedType() {
+        Object a = Model.getCoreFactory().buildClass("A", model);
+        assertSame(a, ModelUtils.findTypeInModel("A", model));
+        Model.getUmlFactory().delete(a);
+        assertNull(ModelUtils.findTypeInModel("A", model));
+    }
+
+    /**
+     * Test that a type that is added while the model events are suspended,
+     * as in an import, is found after it was searched for in vain.
+     */
+    public void testTypeAddedWithoutEvents() {
+        assertNull(ModelUtils.findTypeInModel("A", model));
+        Model.getPump().stopPumpingEvents();
+        try {
+            Object a = Model.getCoreFactory().buildClass("A", model);
+            assertSame(a, ModelUtils.findTypeInModel("A", model));
+        } finally {
+            Model.getPump().startPumpingEvents();
+        }
+    }
+
+    /**
+     * Test that only namespaces are searched.
+     */
+    public void testNotANamespace() {
+        try {
+            ModelUtils.findTypeInModel("A", "no namespace");
+            fail("A namespace should be required");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
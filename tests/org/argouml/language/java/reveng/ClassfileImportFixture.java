@@ -13,12 +13,13 @@
 
 package org.argouml.language.java.reveng;
 
-import java.io.DataInputStream;
 import java.io.FileInputStream;
+import java.io.InputStream;
 
-import org.argouml.language.java.reveng.classfile.ClassfileParser;
+import org.argouml.language.java.reveng.classfile.ClassfileReader;
 import org.argouml.language.java.reveng.classfile.ClassfileTreeParser;
-import org.argouml.language.java.reveng.classfile.SimpleByteLexer;
+
+import antlr.collections.AST;
 
 /**
  * An helper class for implementing aspects of import fixtures of Classfile 
@@ -34,14 +35,15 @@ class ClassfileImportFixture extends ImportFixture {
     @Override
     void setUp() throws Exception {
         super.setUp();
-        SimpleByteLexer lexer = new SimpleByteLexer(new DataInputStream(
-                new FileInputStream(getFileName())));
-        ClassfileParser parser = new ClassfileParser(lexer);
-        // The following call to parser causes side effects needed for the
-        // correct working of the test.
-        parser.classfile();
+        InputStream in = new FileInputStream(getFileName());
+        AST ast;
+        try {
+            ast = new ClassfileReader().parse(in);
+        } finally {
+            in.close();
+        }
         ClassfileTreeParser p = new ClassfileTreeParser();
-        p.classfile(parser.getAST(), getModeller());
+        p.classfile(ast, getModeller());
     }
 
 }
@@ -0,0 +1,306 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Compares splitting javadoc comments with the {@link JavadocScanner} with
+ * the substring based splitting that {@link Modeller} did before. This is
+ * not a unit test, run it with
+ * <pre>
+ * java org.argouml.language.java.reveng.JavadocBenchmark [src.zip [rounds]]
+ * </pre>
+ * It reads the javadoc comments of the sources in the archive, by default
+ * the <code>src.zip</code> of the running JDK. It reports the time of both
+ * ways, the comments they split differently, and how many tagged value
+ * updates the tags of the comments take one by one and batched.
+ */
+public final class JavadocBenchmark {
+
+    private JavadocBenchmark() {
+    }
+
+    /**
+     * @param args the archive of the sources and the number of rounds
+     * @throws IOException if the archive can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        File zip = args.length > 0 ? new File(args[0]) : findSrcZip();
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        if (zip == null || !zip.isFile()) {
+            System.out.println("No src.zip found, give it as argument");
+            return;
+        }
+
+        List<String> comments = readComments(zip);
+        long chars = 0;
+        for (String comment : comments) {
+            chars += comment.length();
+        }
+        System.out.println(zip + ": " + comments.size() + " comments, "
+                + chars + " chars, " + rounds + " rounds");
+        compare(comments);
+        for (int round = 0; round < rounds; round++) {
+            report("substrings", runLegacy(comments));
+            report("scanner   ", runScanner(comments));
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / 1000000) + " ms");
+    }
+
+    private static long runLegacy(List<String> comments) {
+        long start = System.nanoTime();
+        int tags = 0;
+        for (String comment : comments) {
+            tags += new LegacySplit(comment).tagNames.size();
+        }
+        check(tags);
+        return System.nanoTime() - start;
+    }
+
+    private static long runScanner(List<String> comments) {
+        long start = System.nanoTime();
+        JavadocScanner scanner = new JavadocScanner();
+        int tags = 0;
+        for (String comment : comments) {
+            scanner.scan(comment);
+            scanner.getText();
+            for (int i = 0; i < scanner.getTagCount(); i++) {
+                scanner.getTagData(i);
+            }
+            tags += scanner.getTagCount();
+        }
+        check(tags);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Keep the results in use, so that they are not optimized away.
+     */
+    private static void check(int tags) {
+        if (tags < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Count the comments that are split differently, and the tagged value
+     * updates.
+     */
+    private static void compare(List<String> comments) {
+        JavadocScanner scanner = new JavadocScanner();
+        int differentText = 0;
+        int differentTags = 0;
+        int tags = 0;
+        int batched = 0;
+        for (String comment : comments) {
+            LegacySplit legacy = new LegacySplit(comment);
+            scanner.scan(comment);
+            if (!legacy.text.equals(scanner.getText())) {
+                differentText++;
+            }
+            boolean same = legacy.tagNames.size() == scanner.getTagCount();
+            Set<String> names = new HashSet<String>();
+            for (int i = 0; i < scanner.getTagCount(); i++) {
+                names.add(scanner.getTagName(i));
+                same = same
+                    && legacy.tagNames.get(i).equals(scanner.getTagName(i))
+                    && legacy.tagData.get(i).equals(scanner.getTagData(i));
+            }
+            if (!same) {
+                differentTags++;
+            }
+            tags += scanner.getTagCount();
+            batched += names.size();
+        }
+        // The substrings ran a tag name that ends at a line feed into the
+        // next line, and dropped that line from the text.
+        System.out.println("different text: " + differentText
+                + ", different tags: " + differentTags);
+        System.out.println("tagged value updates: " + tags
+                + " one by one, " + batched + " batched");
+    }
+
+    private static File findSrcZip() {
+        String home = System.getProperty("java.home");
+        File zip = new File(home, "lib" + File.separator + "src.zip");
+        if (!zip.isFile()) {
+            zip = new File(new File(home).getParentFile(), "src.zip");
+        }
+        return zip;
+    }
+
+    private static List<String> readComments(File file) throws IOException {
+        List<String> comments = new ArrayList<String>();
+        ZipFile zip = new ZipFile(file);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.getName().endsWith(".java")) {
+                    continue;
+                }
+                String source = read(zip.getInputStream(entry));
+                int start = source.indexOf("/**");
+                while (start >= 0) {
+                    int end = source.indexOf("*/", start + 3);
+                    if (end < 0) {
+                        break;
+                    }
+                    String comment = source.substring(start, end + 2);
+                    if (comment.trim().length() >= 5) {
+                        comments.add(comment);
+                    }
+                    start = source.indexOf("/**", end + 2);
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return comments;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * The splitting of the javadoc comments that the modeller did before
+     * the {@link JavadocScanner}.
+     */
+    private static class LegacySplit {
+
+        private String text;
+
+        private final List<String> tagNames = new ArrayList<String>();
+
+        private final List<String> tagData = new ArrayList<String>();
+
+        LegacySplit(String sJavaDocs) {
+            StringBuffer sbPureDocs = new StringBuffer(80);
+            String sCurrentTagName = null;
+            String sCurrentTagData = null;
+            int nStartPos = 3; // skip the leading /**
+            boolean fHadAsterisk = true;
+
+            while (nStartPos < sJavaDocs.length()) {
+                switch (sJavaDocs.charAt(nStartPos)) {
+                case '*':
+                    fHadAsterisk = true;
+                    nStartPos++;
+                    break;
+                case ' ':
+                case '\t':
+                    if (!fHadAsterisk) {
+                        nStartPos++;
+                        break;
+                    }
+                default:
+                    int j = nStartPos;
+                    while ((j < sJavaDocs.length())
+                            && ((sJavaDocs.charAt(j) == ' ') || (sJavaDocs
+                                    .charAt(j) == '\t'))) {
+                        j++;
+                    }
+                    if (j < sJavaDocs.length()) {
+                        if (sJavaDocs.charAt(j) == '@') {
+                            int lineEndPos = 0;
+                            if (sJavaDocs.indexOf('\n', j) < 0) {
+                                lineEndPos = Math.max(j,
+                                        sJavaDocs.length() - 2);
+                            } else {
+                                lineEndPos = sJavaDocs.indexOf('\n', j) + 1;
+                            }
+                            sbPureDocs.append(sJavaDocs
+                                    .substring(j, lineEndPos));
+                            if (sCurrentTagName != null) {
+                                tagNames.add(sCurrentTagName);
+                                tagData.add(sCurrentTagData);
+                            }
+                            int nTemp = sJavaDocs.indexOf(' ', j + 1);
+                            if (nTemp == -1) {
+                                nTemp = sJavaDocs.length() - 1;
+                            }
+                            sCurrentTagName = sJavaDocs.substring(j + 1, nTemp);
+                            int nTemp1 = sJavaDocs.indexOf('\n', ++nTemp);
+                            if (nTemp1 == -1) {
+                                nTemp1 = sJavaDocs.length();
+                            } else {
+                                nTemp1++;
+                            }
+                            sCurrentTagData = sJavaDocs.substring(nTemp,
+                                    nTemp1);
+                            nStartPos = nTemp1;
+                        } else {
+                            int nTemp = sJavaDocs.indexOf('\n', nStartPos);
+                            if (nTemp == -1) {
+                                nTemp = sJavaDocs.length();
+                            } else {
+                                nTemp++;
+                            }
+                            sbPureDocs.append(sJavaDocs.substring(
+                                    nStartPos, nTemp));
+                            if (sCurrentTagName != null) {
+                                sCurrentTagData += " "
+                                    + sJavaDocs.substring(nStartPos, nTemp);
+                            }
+                            nStartPos = nTemp;
+                        }
+                    }
+                    fHadAsterisk = false;
+                }
+            }
+            text = removeTrailingSlash(sbPureDocs.toString());
+            if (sCurrentTagName != null) {
+                tagNames.add(sCurrentTagName);
+                tagData.add(removeTrailingSlash(sCurrentTagData));
+            }
+        }
+
+        private static String removeTrailingSlash(String s) {
+            if (s.endsWith("\n/")) {
+                return s.substring(0, s.length() - 2);
+            } else if (s.endsWith("*/")) {
+                return s.substring(0, s.length() - 2);
+            } else if (s.endsWith("/")) {
+                return s.substring(0, s.length() - 1);
+            } else {
+                return s;
+            }
+        }
+    }
+}
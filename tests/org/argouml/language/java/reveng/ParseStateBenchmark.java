@@ -0,0 +1,88 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+
+/**
+ * Measures importing a generated class with many members again, which
+ * looks up every member among the features of the class that were not
+ * found in the source yet (see {@link ParseState}). This is not a unit
+ * test, run it with
+ * <pre>
+ * java org.argouml.language.java.reveng.ParseStateBenchmark
+ *     [members [rounds]]
+ * </pre>
+ * The class has an attribute and an operation for each member.
+ */
+public final class ParseStateBenchmark {
+
+    private ParseStateBenchmark() {
+    }
+
+    /**
+     * @param args number of members and rounds
+     * @throws Exception if the model can't be set up or the source can't be
+     *             parsed
+     */
+    public static void main(String[] args) throws Exception {
+        int members = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        String source = createSource(members);
+        long start = System.nanoTime();
+        ImportFixture fixture =
+            new JavaImportFixture(source, "Generated.java");
+        fixture.setUp();
+        try {
+            report("import", System.nanoTime() - start);
+            for (int round = 0; round < rounds; round++) {
+                report("reimport", reimport(fixture, source));
+            }
+        } finally {
+            fixture.tearDown();
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / 1000000) + " ms");
+    }
+
+    private static long reimport(ImportFixture fixture, String source)
+        throws RecognitionException {
+        long start = System.nanoTime();
+        Modeller modeller = new Modeller(fixture.getParsedModel(),
+                fixture.getProfileJava(), false, false, "Generated.java");
+        JavaLexer lexer = new JavaLexer(new ANTLRStringStream(source));
+        JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
+        parser.compilationUnit(modeller, lexer);
+        return System.nanoTime() - start;
+    }
+
+    private static String createSource(int members) {
+        StringBuffer sb = new StringBuffer();
+        sb.append("package generated;\n\n");
+        sb.append("public class Generated {\n");
+        for (int i = 0; i < members; i++) {
+            sb.append("    private int field").append(i).append(";\n");
+            sb.append("    public int getField").append(i).append("() {\n");
+            sb.append("        return field").append(i).append(";\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,153 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+import org.antlr.runtime.ANTLRReaderStream;
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.Token;
+
+/**
+ * Compares reading Java sources through {@link JavaSourceReader} with the
+ * reader path the importer used before (an {@link InputStreamReader} in an
+ * {@link ANTLRReaderStream}). This is not a unit test, run it with
+ * <pre>
+ * java org.argouml.language.java.reveng.SourceReaderBenchmark
+ *     [files [members [rounds]]]
+ * </pre>
+ * It generates a corpus of large sources in a temporary directory, and for
+ * both paths measures reading alone, and reading and lexing.
+ */
+public final class SourceReaderBenchmark {
+
+    private static final String ENCODING = "UTF-8";
+
+    private SourceReaderBenchmark() {
+    }
+
+    /**
+     * @param args number of files, members per file and rounds
+     * @throws IOException if the corpus can't be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int members = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        File dir = createCorpus(files, members);
+        try {
+            File[] corpus = dir.listFiles();
+            long bytes = 0;
+            for (File f : corpus) {
+                bytes += f.length();
+            }
+            System.out.println(corpus.length + " files, " + bytes
+                    + " bytes, " + rounds + " rounds");
+            for (int round = 0; round < rounds; round++) {
+                report("reader, read", runReader(corpus, false));
+                report("mapped, read", runMapped(corpus, false));
+                report("reader, lex ", runReader(corpus, true));
+                report("mapped, lex ", runMapped(corpus, true));
+            }
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / 1000000) + " ms");
+    }
+
+    private static long runReader(File[] corpus, boolean lex)
+        throws IOException {
+        long start = System.nanoTime();
+        for (File f : corpus) {
+            FileInputStream in = new FileInputStream(f);
+            try {
+                CharStream stream = new ANTLRReaderStream(
+                        new InputStreamReader(in, ENCODING));
+                if (lex) {
+                    lex(stream);
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runMapped(File[] corpus, boolean lex)
+        throws IOException {
+        long start = System.nanoTime();
+        for (File f : corpus) {
+            CharBuffer text = JavaSourceReader.read(f, ENCODING);
+            CharStream stream =
+                new ANTLRStringStream(text.array(), text.limit());
+            if (lex) {
+                lex(stream);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void lex(CharStream stream) {
+        JavaLexer lexer = new JavaLexer(stream);
+        while (lexer.nextToken().getType() != Token.EOF) {
+            // just lex
+        }
+    }
+
+    private static File createCorpus(int files, int members)
+        throws IOException {
+        File dir = File.createTempFile("corpus", "");
+        dir.delete();
+        dir.mkdir();
+        for (int i = 0; i < files; i++) {
+            Writer out = new OutputStreamWriter(new FileOutputStream(
+                    new File(dir, "Generated" + i + ".java")), ENCODING);
+            try {
+                out.write("package generated;\n\n");
+                out.write("/** Generated class \u00e4\u00f6\u00fc. */\n");
+                out.write("public class Generated" + i + " {\n");
+                for (int j = 0; j < members; j++) {
+                    out.write("    /** The field " + j + ". */\n");
+                    out.write("    private int field" + j + " = " + j
+                            + ";\n\n");
+                    out.write("    /**\n     * @return the field " + j
+                            + "\n     */\n");
+                    out.write("    public int getField" + j + "() {\n");
+                    out.write("        // \u00a9 comment\n");
+                    out.write("        return field" + j + " * 2;\n");
+                    out.write("    }\n\n");
+                }
+                out.write("}\n");
+            } finally {
+                out.close();
+            }
+        }
+        return dir;
+    }
+}
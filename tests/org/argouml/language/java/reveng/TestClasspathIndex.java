@@ -0,0 +1,142 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the {@link ClasspathIndex}.
+ */
+public class TestClasspathIndex extends TestCase {
+
+    private File directory;
+
+    private File jar;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestClasspathIndex(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("TestClasspathIndex", "");
+        directory.delete();
+        new File(directory, "a/b").mkdirs();
+        write(new File(directory, "a/b/I.class"), getClassFile(Runnable.class));
+        write(new File(directory, "a/b/C.class"), getClassFile(Thread.class));
+
+        jar = File.createTempFile("TestClasspathIndex", ".jar");
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            out.putNextEntry(new ZipEntry("a/b/C.class"));
+            out.write(getClassFile(Runnable.class));
+            out.putNextEntry(new ZipEntry("c/D$E.class"));
+            out.write(getClassFile(Runnable.class));
+            out.putNextEntry(new ZipEntry("META-INF/versions/9/c/F.class"));
+            out.write(getClassFile(Thread.class));
+        } finally {
+            out.close();
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        new File(directory, "a/b/I.class").delete();
+        new File(directory, "a/b/C.class").delete();
+        new File(directory, "a/b").delete();
+        new File(directory, "a").delete();
+        directory.delete();
+        jar.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Test looking up classes in directories and jars.
+     */
+    public void testGetKind() {
+        List<String> paths = new ArrayList<String>();
+        paths.add(directory.getPath());
+        paths.add(jar.getPath());
+        paths.add(new File(directory, "missing.jar").getPath());
+        ClasspathIndex index = new ClasspathIndex(paths);
+        try {
+            assertEquals(3, index.size());
+            assertEquals(ClasspathIndex.INTERFACE, index.getKind("a.b.I"));
+            // the first path wins
+            assertEquals(ClasspathIndex.CLASS, index.getKind("a.b.C"));
+            assertEquals(ClasspathIndex.INTERFACE, index.getKind("c.D$E"));
+            assertEquals(ClasspathIndex.NOT_FOUND, index.getKind("c.F"));
+            assertEquals(ClasspathIndex.NOT_FOUND, index.getKind("a.b.X"));
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * Test looking up classes of the Java platform.
+     */
+    public void testGetPlatformKind() {
+        assertEquals(ClasspathIndex.INTERFACE,
+                ClasspathIndex.getPlatformKind("java.lang.Runnable"));
+        assertEquals(ClasspathIndex.CLASS,
+                ClasspathIndex.getPlatformKind("java.lang.String"));
+        assertEquals(ClasspathIndex.NOT_FOUND,
+                ClasspathIndex.getPlatformKind("java.lang.NoSuchClass"));
+
+        // the names that were looked up are kept for the session only
+        assertTrue(ClasspathIndex.getPlatformKindCount() >= 3);
+        ClasspathIndex.endSession();
+        assertEquals(0, ClasspathIndex.getPlatformKindCount());
+    }
+
+    private static byte[] getClassFile(Class<?> c) throws IOException {
+        InputStream in = c.getResourceAsStream(
+                "/" + c.getName().replace('.', '/') + ".class");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void write(File f, byte[] bytes) throws IOException {
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.argouml.profile.Profile;
+
+/**
+ * Test looking up classes on the classpath in a {@link Context}.
+ */
+public class TestContext extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestContext(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ClasspathIndex.startSession(Collections.<String>emptyList());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClasspathIndex.endSession();
+        super.tearDown();
+    }
+
+    /**
+     * Test that the classes of the Java platform are found without a user
+     * classpath.
+     */
+    public void testPlatformClasses() {
+        Context context = new Context(null) {
+            public Object get(String name, boolean interfacesOnly,
+                    Profile profile) {
+                return null;
+            }
+
+            protected ResolutionCache.Scope createScope(
+                    ResolutionCache.Scope parent) {
+                return parent;
+            }
+        };
+        assertEquals(ClasspathIndex.CLASS, context.findClass(
+                "java.util.concurrent.ConcurrentHashMap", false));
+        assertEquals(ClasspathIndex.CLASS,
+                context.findClass("javax.swing.JFrame", false));
+        assertEquals(ClasspathIndex.INTERFACE, context.findClass(
+                "java.util.concurrent.ConcurrentMap", true));
+        assertEquals(ClasspathIndex.NOT_FOUND, context.findClass(
+                "java.util.concurrent.ConcurrentHashMap", true));
+        assertEquals(ClasspathIndex.NOT_FOUND,
+                context.findClass("p.NoSuchClass", false));
+    }
+}
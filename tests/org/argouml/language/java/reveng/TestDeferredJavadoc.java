@@ -0,0 +1,124 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import junit.framework.TestCase;
+
+/**
+ * Test finding javadoc comments in their source file with
+ * {@link DeferredJavadoc}.
+ */
+public class TestDeferredJavadoc extends TestCase {
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final String CLASS_DOC = "/** The class \u00e4. */";
+
+    private static final String FIELD_DOC = "/**\n     * The field.\n     */";
+
+    private static final String SOURCE = "package p;\n"
+        + CLASS_DOC + "\n"
+        + "public class A {\n"
+        + "    " + FIELD_DOC + "\n"
+        + "    int field;\n"
+        + "}\n";
+
+    private File file;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestDeferredJavadoc(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("Deferred", ".java");
+        write(SOURCE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Test that the comments are read again from their place.
+     */
+    public void testReference() {
+        DeferredJavadoc javadocs =
+            new DeferredJavadoc(file, ENCODING, SOURCE);
+        String classReference = javadocs.getReference(CLASS_DOC);
+        String fieldReference = javadocs.getReference(FIELD_DOC);
+        assertEquals(SOURCE.indexOf(CLASS_DOC) + ":"
+                + (SOURCE.indexOf(CLASS_DOC) + CLASS_DOC.length()) + ":"
+                + SOURCE.length() + ":" + SOURCE.hashCode() + ":"
+                + ENCODING + ":" + file.getAbsolutePath(), classReference);
+        assertEquals(CLASS_DOC, DeferredJavadoc.read(classReference));
+        assertEquals(FIELD_DOC, DeferredJavadoc.read(fieldReference));
+
+        // found again, as in a second import pass
+        assertEquals(classReference, javadocs.getReference(CLASS_DOC));
+        assertNull(javadocs.getReference("/** Not in the source. */"));
+    }
+
+    /**
+     * Test that comments aren't read from a source that changed.
+     *
+     * @throws IOException if the source can't be written
+     */
+    public void testChangedSource() throws IOException {
+        String reference = new DeferredJavadoc(file, ENCODING, SOURCE)
+            .getReference(FIELD_DOC);
+        write("package p;\npublic class A {\n}\n");
+        assertNull(DeferredJavadoc.read(reference));
+        file.delete();
+        assertNull(DeferredJavadoc.read(reference));
+        assertNull(DeferredJavadoc.read("no reference"));
+    }
+
+    /**
+     * Test that a comment that is at the same place in a changed source is
+     * not taken.
+     *
+     * @throws IOException if the source can't be written
+     */
+    public void testOtherComment() throws IOException {
+        String reference = new DeferredJavadoc(file, ENCODING, SOURCE)
+            .getReference(CLASS_DOC);
+        write(SOURCE.replace("class A", "class B"));
+        assertNull(DeferredJavadoc.read(reference));
+        write(SOURCE);
+        assertEquals(CLASS_DOC, DeferredJavadoc.read(reference));
+    }
+
+    private void write(String text) throws IOException {
+        Writer out = new OutputStreamWriter(new FileOutputStream(file),
+                ENCODING);
+        try {
+            out.write(text);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.argouml.model.Model;
+
+/**
+ * Test that the {@link ImportManifest} selects the files of an incremental
+ * import, and only records the files that were imported completely.
+ */
+public class TestImportManifest extends TestCase {
+
+    private ImportFixture importFixture;
+
+    private File directory;
+
+    private List<File> files;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestImportManifest(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        importFixture = new ImportFixture("", "Manifest.java");
+        importFixture.setUp();
+        directory = File.createTempFile("manifest", "");
+        directory.delete();
+        directory.mkdir();
+        files = new ArrayList<File>();
+        for (String name : new String[] {"A", "B", "C"}) {
+            File f = new File(directory, name + ".java");
+            write(f, "package manifest;\npublic class " + name + " {}\n");
+            files.add(f);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(directory);
+        importFixture.tearDown();
+        super.tearDown();
+    }
+
+    /**
+     * Test the files that are imported again: unchanged files are not,
+     * touched files only if their content changed.
+     *
+     * @throws Exception if a file can't be written or parsed
+     */
+    public void testChangedFiles() throws Exception {
+        importFiles(files, null);
+        ImportManifest manifest = new ImportManifest(getModel());
+        assertTrue(manifest.getChangedFiles(files).isEmpty());
+
+        File a = files.get(0);
+        File c = files.get(2);
+        long touched = a.lastModified() + 10000;
+        a.setLastModified(touched);
+        write(c, "package manifest;\npublic class C { int i; }\n");
+        c.setLastModified(touched);
+        assertEquals(Arrays.asList(c), manifest.getChangedFiles(files));
+
+        // the new modification time of the touched file is committed
+        manifest.commit();
+        Object artifact = getArtifact("A.java");
+        assertEquals(String.valueOf(a.lastModified()), Model.getFacade()
+                .getTaggedValueValue(artifact, ImportManifest.MODIFIED_TAG));
+    }
+
+    /**
+     * Test that the entries are written at the end of the import, and not
+     * for the files that failed.
+     *
+     * @throws Exception if a file can't be written or parsed
+     */
+    public void testFailedFiles() throws Exception {
+        ImportManifest manifest = new ImportManifest(getModel());
+        importFiles(files, manifest);
+        assertNull(Model.getFacade().getTaggedValueValue(
+                getArtifact("A.java"), ImportManifest.HASH_TAG));
+        manifest.setFailed(files.get(1));
+        assertEquals(2, manifest.commit());
+
+        manifest = new ImportManifest(getModel());
+        assertEquals(Arrays.asList(files.get(1)),
+                manifest.getChangedFiles(files));
+    }
+
+    /**
+     * Test that only the deleted files in the directories of the import are
+     * removed from the model.
+     *
+     * @throws Exception if a file can't be written or parsed
+     */
+    public void testDeletedFiles() throws Exception {
+        importFiles(files, null);
+        File other = new File(directory.getParentFile(),
+                directory.getName() + "-other" + File.separator + "D.java");
+        Object outside = Model.getCoreFactory().createComponent();
+        Model.getCoreHelper().setNamespace(outside, getModel());
+        Modeller.buildTaggedValue(outside, ImportManifest.PATH_TAG,
+                new String[] {other.getAbsolutePath()});
+
+        files.get(0).delete();
+        ImportManifest manifest = new ImportManifest(getModel());
+        assertEquals(1, manifest.removeDeletedFiles(files.subList(1, 3)));
+        assertNull(getArtifact("A.java"));
+        assertNotNull(getArtifact("B.java"));
+        assertFalse(Model.getUmlFactory().isRemoved(outside));
+    }
+
+    /**
+     * Test that the files of a deleted package directory are removed when
+     * only the other packages of the source root are imported.
+     *
+     * @throws Exception if a file can't be written or parsed
+     */
+    public void testDeletedPackage() throws Exception {
+        List<File> kept = new ArrayList<File>();
+        List<File> deleted = new ArrayList<File>();
+        for (String pkg : new String[] {"a", "b"}) {
+            File dir = new File(directory, "manifest" + File.separator + pkg);
+            dir.mkdirs();
+            for (String name : new String[] {"D", "E"}) {
+                File f = new File(dir, name + ".java");
+                write(f, "package manifest." + pkg + ";\npublic class "
+                        + name + " {}\n");
+                if ("a".equals(pkg)) {
+                    kept.add(f);
+                } else {
+                    deleted.add(f);
+                }
+            }
+        }
+        List<File> all = new ArrayList<File>(kept);
+        all.addAll(deleted);
+        importFiles(all, null);
+        Object b = Model.getFacade().lookupIn(Model.getFacade().lookupIn(
+                getModel(), "manifest"), "b");
+        Object e = Model.getFacade().lookupIn(b, "E");
+        assertNotNull(e);
+
+        for (File f : deleted) {
+            f.delete();
+        }
+        deleted.get(0).getParentFile().delete();
+        ImportManifest manifest = new ImportManifest(getModel());
+        assertEquals(2, manifest.removeDeletedFiles(kept));
+        assertTrue(Model.getUmlFactory().isRemoved(e));
+    }
+
+    private Object getModel() {
+        return importFixture.getParsedModel();
+    }
+
+    private Object getArtifact(String name) {
+        Object pkg = Model.getFacade().lookupIn(getModel(), "manifest");
+        return Model.getFacade().lookupIn(pkg, name);
+    }
+
+    /**
+     * Import the files, and commit the manifest.
+     *
+     * @param toImport the files
+     * @param manifest the manifest to use, or null to create one and commit
+     *            it
+     */
+    private void importFiles(Collection<File> toImport,
+            ImportManifest manifest)
+        throws IOException, RecognitionException {
+        ImportManifest used = manifest;
+        if (used == null) {
+            used = new ImportManifest(getModel());
+        }
+        ModellerSession session = new ModellerSession(getModel(),
+                importFixture.getProfileJava(), false, false);
+        for (File f : toImport) {
+            Modeller modeller = new Modeller(session, f.getName());
+            modeller.setAttribute(ImportManifest.ATTRIBUTE, used.getEntry(f));
+            CharBuffer source = JavaSourceReader.read(f, "UTF-8");
+            JavaLexer lexer = new JavaLexer(new ANTLRStringStream(
+                    source.array(), source.limit()));
+            JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
+            parser.compilationUnit(modeller, lexer);
+        }
+        if (manifest == null) {
+            used.commit();
+        }
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+
+    private static void write(File f, String text) throws IOException {
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the measures and the reports of the {@link ImportProfiler}.
+ */
+public class TestImportProfiler extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestImportProfiler(String str) {
+        super(str);
+    }
+
+    /**
+     * Test that the files are sorted by their wall time, without the time
+     * of resolving that is part of other phases.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    public void testSlowest() throws InterruptedException {
+        ImportProfiler profiler = new ImportProfiler();
+        profiler.begin("Fast.java");
+        measure(profiler, ImportProfiler.PARSE, 1);
+        profiler.begin("Slow.java");
+        measure(profiler, ImportProfiler.READ, 5);
+        measure(profiler, ImportProfiler.MODEL, 30);
+        profiler.begin("Resolving.java");
+        measure(profiler, ImportProfiler.MODEL, 10);
+        measure(profiler, ImportProfiler.RESOLVE, 50);
+
+        assertEquals(Arrays.asList("Slow.java", "Resolving.java",
+                "Fast.java"), profiler.getSlowest(5));
+        assertEquals(Arrays.asList("Slow.java"), profiler.getSlowest(1));
+
+        String report = profiler.getReport(2);
+        assertTrue(report.startsWith("Import profile of 3 files"));
+        assertTrue(report.indexOf("  Slow.java: ") > 0);
+        assertTrue(report.indexOf("  Fast.java: ") < 0);
+    }
+
+    /**
+     * Test that each thread adds to the file it works on.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    public void testThreads() throws InterruptedException {
+        final ImportProfiler profiler = new ImportProfiler();
+        profiler.begin("Modelled.java");
+        Thread parser = new Thread() {
+            public void run() {
+                profiler.begin("Parsed.java");
+                try {
+                    measure(profiler, ImportProfiler.PARSE, 30);
+                } catch (InterruptedException e) {
+                    // measured anyway
+                }
+            }
+        };
+        parser.start();
+        parser.join();
+        measure(profiler, ImportProfiler.MODEL, 1);
+        assertEquals(Arrays.asList("Parsed.java", "Modelled.java"),
+                profiler.getSlowest(2));
+    }
+
+    /**
+     * Test the columns of the CSV and the fields of the JSON export.
+     *
+     * @throws IOException if a report can't be written
+     */
+    public void testExport() throws IOException {
+        ImportProfiler profiler = new ImportProfiler();
+        profiler.begin("dir/A, \"quoted\".java");
+        profiler.stop(ImportProfiler.LEX, profiler.start());
+
+        StringWriter csv = new StringWriter();
+        profiler.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("file,read.wallNanos,read.cpuNanos,"
+                + "read.allocatedBytes,lex.wallNanos"));
+        assertEquals(1 + 5 * 3, lines[0].split(",").length);
+        assertTrue(lines[1].startsWith("\"dir/A, \"\"quoted\"\".java\","));
+
+        StringWriter json = new StringWriter();
+        profiler.writeJson(json);
+        assertTrue(json.toString().indexOf(
+                "{\"file\": \"dir/A, \\\"quoted\\\".java\", \"read\": "
+                + "{\"wallNanos\": 0, \"cpuNanos\": 0, "
+                + "\"allocatedBytes\": 0}, \"lex\": {") > 0);
+
+        File dir = new File(System.getProperty("java.io.tmpdir"));
+        assertEquals(dir, ImportProfiler.getReportDirectory(null));
+        File[] written = profiler.export(dir, "TestImportProfiler");
+        try {
+            assertEquals("TestImportProfiler.json", written[0].getName());
+            assertEquals("TestImportProfiler.csv", written[1].getName());
+            assertEquals(csv.toString().length(), written[1].length());
+        } finally {
+            written[0].delete();
+            written[1].delete();
+        }
+    }
+
+    private static void measure(ImportProfiler profiler, int phase,
+            long millis) throws InterruptedException {
+        long[] start = profiler.start();
+        Thread.sleep(millis);
+        profiler.stop(phase, start);
+    }
+}
@@ -0,0 +1,91 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the counters of the {@link ImportStatistics}.
+ */
+public class TestImportStatistics extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestImportStatistics(String str) {
+        super(str);
+    }
+
+    /**
+     * Test that the counters of the files add up.
+     */
+    public void testTotals() {
+        ImportStatistics statistics =
+            new ImportStatistics(new ResolutionCache());
+        statistics.startFile("A.java");
+        statistics.classifier();
+        statistics.feature();
+        statistics.feature();
+        statistics.addParseTime(3000000);
+        statistics.addModelTime(2000000);
+        statistics.endFile();
+        statistics.startFile("B.java");
+        statistics.classifier();
+        statistics.addParseTime(1000000);
+        statistics.endFile();
+
+        assertEquals(2, statistics.getFiles());
+        assertEquals(2, statistics.getClassifiers());
+        assertEquals(2, statistics.getFeatures());
+        assertEquals("Imported 2 files: 2 classifiers, 2 features, "
+                + "0 types resolved (0 cache hits); parse 4 ms, model 2 ms",
+                statistics.getSummary());
+
+        statistics.startFile("C.java");
+        statistics.addParseAndModelTime(5000000);
+        statistics.endFile();
+        assertTrue(statistics.getSummary().endsWith(
+                ", parse and model 5 ms"));
+    }
+
+    /**
+     * Test that a file of an import of two passes is counted once, with
+     * the times of both passes.
+     */
+    public void testPasses() {
+        ImportStatistics statistics =
+            new ImportStatistics(new ResolutionCache());
+        statistics.setCounting(false);
+        statistics.startFile("A.java");
+        statistics.classifier();
+        statistics.addParseAndModelTime(2000000);
+        statistics.endFile();
+        assertEquals(0, statistics.getFiles());
+        assertEquals(0, statistics.getClassifiers());
+
+        statistics.setCounting(true);
+        statistics.startFile("A.java");
+        statistics.classifier();
+        statistics.feature();
+        statistics.addParseAndModelTime(3000000);
+        statistics.endFile();
+        assertEquals(1, statistics.getFiles());
+        assertEquals(1, statistics.getClassifiers());
+        assertEquals(1, statistics.getFeatures());
+        assertTrue(statistics.getSummary().startsWith(
+                "Imported 1 files: 1 classifiers, 1 features, "));
+        assertTrue(statistics.getSummary().endsWith(
+                ", parse and model 5 ms"));
+    }
+}
@@ -0,0 +1,113 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * Test reading sources with the {@link JavaSourceReader}.
+ */
+public class TestJavaSourceReader extends TestCase {
+
+    private static final String TEXT =
+        "class \u00c4rger { String s = \"\u00e9\u20ac\"; }\n";
+
+    private File file;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestJavaSourceReader(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("TestJavaSourceReader", ".java");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Test that the given encoding is used.
+     *
+     * @throws IOException if the file can't be written or read
+     */
+    public void testEncodings() throws IOException {
+        write(TEXT.getBytes("UTF-8"));
+        assertEquals(TEXT, read("UTF-8"));
+        write(TEXT.getBytes("UTF-16"));
+        assertEquals(TEXT, read("UTF-16"));
+    }
+
+    /**
+     * Test that the default encoding is used for an unknown encoding.
+     *
+     * @throws IOException if the file can't be written or read
+     */
+    public void testUnknownEncoding() throws IOException {
+        write("class A {}".getBytes());
+        assertEquals("class A {}", read("no-such-encoding"));
+    }
+
+    /**
+     * Test an empty file.
+     *
+     * @throws IOException if the file can't be written or read
+     */
+    public void testEmpty() throws IOException {
+        write(new byte[0]);
+        assertEquals("", read("UTF-8"));
+    }
+
+    /**
+     * Test a file that is large enough to be memory mapped.
+     *
+     * @throws IOException if the file can't be written or read
+     */
+    public void testLargeFile() throws IOException {
+        StringBuffer sb = new StringBuffer();
+        while (sb.length() < 200000) {
+            sb.append(TEXT);
+        }
+        write(sb.toString().getBytes("UTF-8"));
+        assertEquals(sb.toString(), read("UTF-8"));
+    }
+
+    private String read(String encoding) throws IOException {
+        CharBuffer text = JavaSourceReader.read(file, encoding);
+        assertEquals(0, text.position());
+        return new String(text.array(), 0, text.limit());
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import junit.framework.TestCase;
+
+/**
+ * Test splitting javadoc comments with the {@link JavadocScanner}.
+ */
+public class TestJavadocScanner extends TestCase {
+
+    private JavadocScanner scanner;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestJavadocScanner(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        scanner = new JavadocScanner();
+    }
+
+    /**
+     * Test a comment on one line.
+     */
+    public void testOneLine() {
+        scanner.scan("/** A Javadoc comment */");
+        assertEquals(" A Javadoc comment ", scanner.getText());
+        assertEquals(0, scanner.getTagCount());
+    }
+
+    /**
+     * Test a comment with text and tags on several lines.
+     */
+    public void testTags() {
+        scanner.scan("/**\n"
+                + " * Text line.\n"
+                + " * more\n"
+                + " * @param a the a\n"
+                + " *   continued\n"
+                + " * @return r\n"
+                + " */");
+        assertEquals("\n Text line.\n more\n@param a the a\n"
+                + "   continued\n@return r", scanner.getText());
+        assertEquals(2, scanner.getTagCount());
+        assertEquals("param", scanner.getTagName(0));
+        assertEquals("a the a\n    continued\n", scanner.getTagData(0));
+        assertEquals("return", scanner.getTagName(1));
+        assertEquals("r\n ", scanner.getTagData(1));
+    }
+
+    /**
+     * Test tags without contents on their line.
+     */
+    public void testTagNameOnly() {
+        scanner.scan("/**\n * @deprecated\n * Use other.\n */");
+        assertEquals(1, scanner.getTagCount());
+        assertEquals("deprecated", scanner.getTagName(0));
+        assertEquals("Use other.", scanner.getTagData(0).trim());
+
+        scanner.scan("/** @deprecated */");
+        assertEquals("@deprecated ", scanner.getText());
+        assertEquals(1, scanner.getTagCount());
+        assertEquals("deprecated", scanner.getTagName(0));
+        assertEquals("", scanner.getTagData(0));
+
+        scanner.scan("/** @deprecated*/");
+        assertEquals("deprecated", scanner.getTagName(0));
+        assertEquals("", scanner.getTagData(0));
+    }
+
+    /**
+     * Test that a scan replaces the results of the one before.
+     */
+    public void testReuse() {
+        scanner.scan("/**\n * @a one\n * @b two\n * @c three\n */");
+        assertEquals(3, scanner.getTagCount());
+        scanner.scan("/**\n * @d four\n */");
+        assertEquals(1, scanner.getTagCount());
+        assertEquals("d", scanner.getTagName(0));
+        assertEquals("four\n ", scanner.getTagData(0));
+        scanner.scan("/** plain */");
+        assertEquals(0, scanner.getTagCount());
+        assertEquals(" plain ", scanner.getText());
+    }
+}
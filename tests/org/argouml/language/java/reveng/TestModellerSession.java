@@ -0,0 +1,132 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.Collection;
+
+import junit.framework.TestCase;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.argouml.model.Model;
+
+/**
+ * Test that the modellers of a {@link ModellerSession} share what they
+ * looked up, with the same model as separate modellers.
+ */
+public class TestModellerSession extends TestCase {
+
+    private ImportFixture importFixture;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestModellerSession(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        importFixture = new ImportFixture("", "Session.java");
+        importFixture.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        importFixture.tearDown();
+        super.tearDown();
+    }
+
+    /**
+     * Test modelling several compilation units in one session.
+     *
+     * @throws RecognitionException if a source can't be parsed
+     */
+    public void testSharedSession() throws RecognitionException {
+        ModellerSession session = new ModellerSession(
+                importFixture.getParsedModel(),
+                importFixture.getProfileJava(), false, false);
+        parse(new Modeller(session, "Sub.java"), SUB_SOURCE);
+        Object baseContext = session.getBaseContext();
+        assertNotNull(baseContext);
+        parse(new Modeller(session, "Base.java"), BASE_SOURCE);
+        assertSame(baseContext, session.getBaseContext());
+
+        Object pkg = Model.getFacade().lookupIn(
+                importFixture.getParsedModel(), "session");
+        assertNotNull("No package \"session\" found in model.", pkg);
+        assertSame(pkg, session.getPackage("session", false));
+
+        // the class that was referenced first is the one that is parsed
+        Object base = Model.getFacade().lookupIn(pkg, "Base");
+        Object sub = Model.getFacade().lookupIn(pkg, "Sub");
+        assertNotNull(base);
+        assertNotNull(sub);
+        Collection generalizations =
+            Model.getFacade().getGeneralizations(sub);
+        assertEquals(1, generalizations.size());
+        assertSame(base, Model.getFacade().getGeneral(
+                generalizations.iterator().next()));
+        assertEquals(1, Model.getFacade().getOperations(base).size());
+    }
+
+    /**
+     * Test that the classifiers that are modelled while the model events
+     * are suspended are remembered for the notification at the end of the
+     * batch.
+     *
+     * @throws RecognitionException if a source can't be parsed
+     */
+    public void testBatchChanges() throws RecognitionException {
+        ModellerSession session = new ModellerSession(
+                importFixture.getParsedModel(),
+                importFixture.getProfileJava(), false, false);
+        session.beginBatch(false);
+        parse(new Modeller(session, "Base.java"), BASE_SOURCE);
+        assertTrue(session.getChangedClassifiers().isEmpty());
+        session.endBatch();
+
+        session.beginBatch(true);
+        try {
+            parse(new Modeller(session, "Sub.java"), SUB_SOURCE);
+            Object pkg = Model.getFacade().lookupIn(
+                    importFixture.getParsedModel(), "session");
+            Object sub = Model.getFacade().lookupIn(pkg, "Sub");
+            assertTrue(session.getChangedClassifiers().contains(sub));
+        } finally {
+            session.endBatch();
+        }
+        assertTrue(session.getChangedClassifiers().isEmpty());
+    }
+
+    private static void parse(Modeller modeller, String source)
+        throws RecognitionException {
+        JavaLexer lexer = new JavaLexer(new ANTLRStringStream(source));
+        JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
+        parser.compilationUnit(modeller, lexer);
+    }
+
+    private static final String SUB_SOURCE =
+        "package session;\n"
+        + "public class Sub extends Base {\n"
+        + "}\n";
+
+    private static final String BASE_SOURCE =
+        "package session;\n"
+        + "public class Base {\n"
+        + "    public Base() {}\n"
+        + "}\n";
+}
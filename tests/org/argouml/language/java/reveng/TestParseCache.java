@@ -0,0 +1,158 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the {@link ParseCache}.
+ */
+public class TestParseCache extends TestCase {
+
+    private File directory;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestParseCache(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("TestParseCache", "");
+        directory.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Test that the key depends on the text, the parser mode and the level.
+     */
+    public void testKey() {
+        ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+        String key = cache.getKey(CharBuffer.wrap("class A {}"), 2, 2);
+        assertEquals(key, cache.getKey(CharBuffer.wrap("class A {}"), 2, 2));
+        assertFalse(key.equals(cache.getKey(CharBuffer.wrap("class B {}"),
+                2, 2)));
+        assertFalse(key.equals(cache.getKey(CharBuffer.wrap("class A {}"),
+                1, 2)));
+        assertFalse(key.equals(cache.getKey(CharBuffer.wrap("class A {}"),
+                2, 1)));
+    }
+
+    /**
+     * Test that a stored recording is loaded with the same events.
+     */
+    public void testStoreAndLoad() {
+        ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+        assertNull(cache.load("abc", "A.java"));
+        assertEquals(1, cache.getMisses());
+
+        cache.store("abc", createRecording());
+        RecordingModeller loaded = cache.load("abc", "A.java");
+        assertNotNull(loaded);
+        assertEquals(1, cache.getHits());
+
+        List<ModellerEvent> events = loaded.getEvents();
+        assertEquals(5, events.size());
+        assertEquals(ModellerEvent.CLASS, events.get(1).getKind());
+        assertEquals(ModellerEvent.BODY, events.get(3).getKind());
+        assertEquals(2, events.get(3).getOperation());
+        assertTrue(loaded.isSourceNeeded());
+    }
+
+    /**
+     * Test that an entry in an unknown format is discarded.
+     *
+     * @throws IOException if the entry can't be written
+     */
+    public void testDiscardUnknownFormat() throws IOException {
+        ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+        File entry = new File(directory, "abc.jpc");
+        OutputStream out = new FileOutputStream(entry);
+        try {
+            out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        } finally {
+            out.close();
+        }
+        assertNull(cache.load("abc", "A.java"));
+        assertFalse(entry.exists());
+    }
+
+    /**
+     * Test that the least recently used entries are evicted.
+     */
+    public void testEviction() {
+        ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+        cache.store("first", createRecording());
+        long size = new File(directory, "first.jpc").length();
+        new File(directory, "first.jpc").setLastModified(1000);
+
+        // room for two entries, the keys differ in length
+        cache = new ParseCache(directory, size * 5 / 2);
+        cache.store("second", createRecording());
+        cache.store("third", createRecording());
+
+        assertFalse(new File(directory, "first.jpc").exists());
+        assertTrue(new File(directory, "second.jpc").exists());
+        assertTrue(new File(directory, "third.jpc").exists());
+
+        // using an entry keeps it
+        assertNotNull(cache.load("second", "A.java"));
+        cache.store("fourth", createRecording());
+        assertTrue(new File(directory, "second.jpc").exists());
+        assertFalse(new File(directory, "third.jpc").exists());
+        assertTrue(new File(directory, "fourth.jpc").exists());
+    }
+
+    private RecordingModeller createRecording() {
+        RecordingModeller recorder = new RecordingModeller("A.java");
+        List<String> interfaces = new ArrayList<String>();
+        interfaces.add("java.io.Serializable");
+        List<ParameterDeclaration> parameters =
+            new ArrayList<ParameterDeclaration>();
+        parameters.add(new ParameterDeclaration((short) 0, "int", "i"));
+        recorder.record(new ModellerEvent(ModellerEvent.PACKAGE, "p"));
+        recorder.record(new ModellerEvent(ModellerEvent.CLASS, "A",
+                (short) 1, "Object", null, interfaces, null,
+                "/** The A. */", null, -1, true));
+        recorder.record(new ModellerEvent(ModellerEvent.OPERATION, "m",
+                (short) 1, "void", null, null, parameters, null, null, -1,
+                true));
+        recorder.record(new ModellerEvent(2, 40, 10));
+        recorder.record(new ModellerEvent(ModellerEvent.POP_CLASSIFIER,
+                null));
+        return recorder;
+    }
+}
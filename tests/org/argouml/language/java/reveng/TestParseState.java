@@ -0,0 +1,118 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.argouml.model.Model;
+
+/**
+ * Test that the {@link ParseState} keeps the features that are still in the
+ * source, and removes the others, when a class is imported again.
+ */
+public class TestParseState extends TestCase {
+
+    private ImportFixture importFixture;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestParseState(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        importFixture = new JavaImportFixture(FIRST_SOURCE, "Reimport.java");
+        importFixture.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        importFixture.tearDown();
+        super.tearDown();
+    }
+
+    /**
+     * Test importing a class again after some of its members changed.
+     *
+     * @throws RecognitionException if the source can't be parsed
+     */
+    public void testReimport() throws RecognitionException {
+        Object cls = getParsedClass();
+        List<Object> runs = getFeatures(cls, "run");
+        assertEquals(2, runs.size());
+        Object kept = getFeatures(cls, "kept").get(0);
+        assertEquals(1, getFeatures(cls, "removed").size());
+
+        Modeller modeller = new Modeller(importFixture.getParsedModel(),
+                importFixture.getProfileJava(), false, false,
+                "Reimport.java");
+        JavaLexer lexer = new JavaLexer(new ANTLRStringStream(SECOND_SOURCE));
+        JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
+        parser.compilationUnit(modeller, lexer);
+
+        assertSame(cls, getParsedClass());
+        assertEquals(runs, getFeatures(cls, "run"));
+        assertEquals(1, getFeatures(cls, "kept").size());
+        assertSame(kept, getFeatures(cls, "kept").get(0));
+        assertEquals(0, getFeatures(cls, "removed").size());
+        assertEquals(1, getFeatures(cls, "added").size());
+    }
+
+    private Object getParsedClass() {
+        Object pkg = Model.getFacade().lookupIn(
+                importFixture.getParsedModel(), "reimport");
+        assertNotNull("No package \"reimport\" found in model.", pkg);
+        Object cls = Model.getFacade().lookupIn(pkg, "Reimport");
+        assertNotNull("No class \"Reimport\" found in model.", cls);
+        return cls;
+    }
+
+    private List<Object> getFeatures(Object cls, String name) {
+        List<Object> features = new ArrayList<Object>();
+        for (Object feature : Model.getFacade().getFeatures(cls)) {
+            if (name.equals(Model.getFacade().getName(feature))
+                    && !Model.getFacade().isAMethod(feature)) {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    private static final String FIRST_SOURCE =
+        "package reimport;\n"
+        + "public class Reimport {\n"
+        + "    private int kept;\n"
+        + "    public void run() {}\n"
+        + "    public void run(int times) {}\n"
+        + "    public void removed() {}\n"
+        + "}\n";
+
+    private static final String SECOND_SOURCE =
+        "package reimport;\n"
+        + "public class Reimport {\n"
+        + "    private int kept;\n"
+        + "    public void run() {}\n"
+        + "    public void run(int times) {}\n"
+        + "    public void added() {}\n"
+        + "}\n";
+}
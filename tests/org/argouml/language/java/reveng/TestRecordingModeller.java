@@ -0,0 +1,189 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+
+/**
+ * Test that the {@link RecordingModeller} records the parser callbacks, so
+ * that they can be replayed in the same order. No model is needed for this.
+ */
+public class TestRecordingModeller extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestRecordingModeller(String str) {
+        super(str);
+    }
+
+    /**
+     * Test the recorded events of a simple class.
+     *
+     * @throws Exception if parsing fails
+     */
+    public void testRecordedEvents() throws Exception {
+        RecordingModeller recorder = parse(PARSERINPUT);
+        assertNull(recorder.getFailure());
+        List<Integer> kinds = new ArrayList<Integer>();
+        for (ModellerEvent event : recorder.getEvents()) {
+            kinds.add(event.getKind());
+        }
+        assertEquals(ModellerEvent.COMPONENT, kinds.get(0).intValue());
+        assertEquals(ModellerEvent.PACKAGE, kinds.get(1).intValue());
+        assertEquals(ModellerEvent.IMPORT, kinds.get(2).intValue());
+        assertTrue(kinds.contains(ModellerEvent.CLASS));
+        assertTrue(kinds.contains(ModellerEvent.ATTRIBUTE));
+        assertEquals(ModellerEvent.POP_CLASSIFIER,
+                kinds.get(kinds.size() - 1).intValue());
+    }
+
+    /**
+     * Test that a body event refers to the operation it belongs to.
+     *
+     * @throws Exception if parsing fails
+     */
+    public void testBodyRefersToOperation() throws Exception {
+        List<ModellerEvent> events = parse(PARSERINPUT).getEvents();
+        int bodies = 0;
+        for (ModellerEvent event : events) {
+            if (event.getKind() == ModellerEvent.BODY) {
+                int op = event.getOperation();
+                assertTrue(op >= 0);
+                assertEquals(ModellerEvent.OPERATION,
+                        events.get(op).getKind());
+                bodies++;
+            }
+        }
+        assertEquals(1, bodies);
+    }
+
+    /**
+     * Test that a body that is recorded as an offset into the source is
+     * replayed with the same text as a body that is recorded as text.
+     *
+     * @throws Exception if parsing fails
+     */
+    public void testBodyInSource() throws Exception {
+        RecordingModeller expected = parse(PARSERINPUT);
+        assertFalse(expected.isSourceNeeded());
+
+        char[] source = PARSERINPUT.toCharArray();
+        RecordingModeller recorder = new RecordingModeller("TestClass.java");
+        recorder.setSource(source, source.length);
+        parse(recorder, PARSERINPUT);
+        assertTrue(recorder.isSourceNeeded());
+
+        RecordingModeller replayed = new RecordingModeller("TestClass.java");
+        recorder.replay(replayed, source);
+        assertEquals(getBody(expected), getBody(replayed));
+        assertEquals("return count;\n", getBody(replayed));
+    }
+
+    /**
+     * Test that a released source text is recognized when it is read
+     * again, and a changed one is not.
+     *
+     * @throws Exception if parsing fails
+     */
+    public void testReleaseSource() throws Exception {
+        char[] source = PARSERINPUT.toCharArray();
+        RecordingModeller recorder = new RecordingModeller("TestClass.java");
+        recorder.setSource(source, source.length);
+        parse(recorder, PARSERINPUT);
+        assertTrue(recorder.isSameSource(null, 0));
+
+        recorder.releaseSource();
+        assertNull(recorder.getSource());
+        char[] again = PARSERINPUT.toCharArray();
+        assertTrue(recorder.isSameSource(again, again.length));
+        char[] changed = PARSERINPUT.replace("count;\n    }",
+                "total;\n    }").toCharArray();
+        assertEquals(again.length, changed.length);
+        assertFalse(recorder.isSameSource(changed, changed.length));
+        assertFalse(recorder.isSameSource(again, again.length - 1));
+    }
+
+    /**
+     * Test that replaying for the first pass skips the dependencies, and
+     * the features if they are not wanted.
+     *
+     * @throws Exception if parsing fails
+     */
+    public void testReplayFirstPass() throws Exception {
+        RecordingModeller recorder = parse(PARSERINPUT);
+        RecordingModeller replayed = new RecordingModeller("TestClass.java");
+        recorder.replayFirstPass(replayed, false);
+        for (ModellerEvent event : replayed.getEvents()) {
+            int kind = event.getKind();
+            assertTrue(kind != ModellerEvent.OPERATION
+                    && kind != ModellerEvent.BODY
+                    && kind != ModellerEvent.ATTRIBUTE
+                    && kind != ModellerEvent.CLASSIFIER_DEPENDENCY);
+        }
+        assertEquals(ModellerEvent.CLASS, replayed.getEvents().get(3)
+                .getKind());
+    }
+
+    private String getBody(RecordingModeller recorder) {
+        BodyRecorder bodies = new BodyRecorder();
+        recorder.replay(bodies, null);
+        return bodies.body;
+    }
+
+    /**
+     * Remembers the last body it gets.
+     */
+    private static class BodyRecorder extends RecordingModeller {
+        private String body;
+
+        BodyRecorder() {
+            super("TestClass.java");
+        }
+
+        @Override
+        public void addBodyToOperation(Object op, String theBody) {
+            body = theBody;
+        }
+    }
+
+    private RecordingModeller parse(String input) throws Exception {
+        return parse(new RecordingModeller("TestClass.java"), input);
+    }
+
+    private RecordingModeller parse(RecordingModeller recorder, String input)
+        throws Exception {
+        JavaLexer lexer = new JavaLexer(new ANTLRStringStream(input));
+        JavaParser parser = new JavaParser(new CommonTokenStream(lexer));
+        parser.setParserMode(JavaParser.MODE_IMPORT_PASS2);
+        parser.compilationUnit(recorder, lexer);
+        return recorder;
+    }
+
+    private static final String PARSERINPUT =
+        "package testpackage;\n"
+            + "import java.util.List;\n"
+            + "public class TestClass {\n"
+            + "    private int count;\n"
+            + "    public int getCount() {\n"
+            + "        return count;\n"
+            + "    }\n"
+            + "}\n";
+}
@@ -0,0 +1,106 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the {@link ResolutionCache}.
+ */
+public class TestResolutionCache extends TestCase {
+
+    private final Object outer = new Object();
+
+    private final Object inner = new Object();
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestResolutionCache(String str) {
+        super(str);
+    }
+
+    /**
+     * Test that equal context chains have equal scopes.
+     */
+    public void testScope() {
+        ResolutionCache.Scope scope = createContext(outer, inner).getScope();
+        assertEquals(scope, createContext(outer, inner).getScope());
+        assertEquals(scope.hashCode(),
+                createContext(outer, inner).getScope().hashCode());
+        assertFalse(scope.equals(createContext(inner, outer).getScope()));
+        assertFalse(scope.equals(createContext(null, inner).getScope()));
+    }
+
+    /**
+     * Test that resolutions are found, and counted, for equal scopes.
+     */
+    public void testGetAndPut() {
+        ResolutionCache cache = new ResolutionCache();
+        ResolutionCache.Scope scope = createContext(outer, null).getScope();
+        Object classifier = new Object();
+        assertNull(cache.get(scope, "a.B", false));
+        cache.put(scope, "a.B", false, classifier);
+        cache.put(scope, "C", true, null);
+
+        ResolutionCache.Scope other = createContext(outer, null).getScope();
+        assertSame(classifier, cache.get(other, "a.B", false));
+        assertNull(cache.get(other, "a.B", true));
+        assertSame(ResolutionCache.NOT_FOUND, cache.get(other, "C", true));
+        assertNull(cache.get(createContext(inner, null).getScope(), "C",
+                true));
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    /**
+     * Test that the entries of a simple name are removed when a classifier
+     * with that name is created.
+     */
+    public void testInvalidate() {
+        ResolutionCache cache = new ResolutionCache();
+        ResolutionCache.Scope scope = createContext(outer, null).getScope();
+        cache.put(scope, "a.B", false, new Object());
+        cache.put(scope, "B", true, null);
+        cache.put(scope, "C", false, null);
+        assertEquals(3, cache.size());
+
+        cache.invalidate("B");
+        assertEquals(1, cache.size());
+        assertNull(cache.get(scope, "a.B", false));
+        assertSame(ResolutionCache.NOT_FOUND, cache.get(scope, "C", false));
+    }
+
+    /**
+     * Test that a successful resolution removes the failed resolutions of
+     * the same name in other scopes.
+     */
+    public void testFoundRemovesNotFound() {
+        ResolutionCache cache = new ResolutionCache();
+        ResolutionCache.Scope scope1 = createContext(outer, null).getScope();
+        ResolutionCache.Scope scope2 = createContext(inner, null).getScope();
+        cache.put(scope1, "B", false, null);
+        cache.put(scope2, "B", false, new Object());
+        assertNull(cache.get(scope1, "B", false));
+        assertEquals(1, cache.size());
+    }
+
+    private Context createContext(Object first, Object second) {
+        Context context = new ClassifierContext(null, first);
+        if (second != null) {
+            context = new ClassifierContext(context, second);
+        }
+        return context;
+    }
+}
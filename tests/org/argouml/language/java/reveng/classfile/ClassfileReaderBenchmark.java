@@ -0,0 +1,129 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import antlr.ANTLRException;
+import antlr.CommonAST;
+
+/**
+ * Compares reading the classfiles of a jar with the {@link ClassfileParser}
+ * and with the {@link ClassfileReader} in both of its modes. This is not a
+ * unit test, run it with
+ * <pre>
+ * java org.argouml.language.java.reveng.classfile.ClassfileReaderBenchmark
+ *     [jar [rounds]]
+ * </pre>
+ * The default jar is the one of the ANTLR runtime. The classfiles are read
+ * into memory first, so only the parsing is measured.
+ */
+public final class ClassfileReaderBenchmark {
+
+    private ClassfileReaderBenchmark() {
+    }
+
+    /**
+     * @param args the jar and the number of rounds
+     * @throws Exception if the jar can't be read
+     */
+    public static void main(String[] args) throws Exception {
+        File jar = args.length > 0 ? new File(args[0])
+            : new File(CommonAST.class.getProtectionDomain().getCodeSource()
+                    .getLocation().toURI());
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<byte[]> classfiles = readClassfiles(jar);
+        System.out.println(jar + ": " + classfiles.size() + " classfiles, "
+                + rounds + " rounds");
+        for (int round = 0; round < rounds; round++) {
+            report("parser   ", runParser(classfiles));
+            report("full     ", runReader(classfiles, ClassfileReader.FULL));
+            report("structure", runReader(classfiles,
+                    ClassfileReader.STRUCTURE));
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / 1000000) + " ms");
+    }
+
+    private static long runParser(List<byte[]> classfiles) {
+        long start = System.nanoTime();
+        for (byte[] bytes : classfiles) {
+            ClassfileParser parser = new ClassfileParser(
+                    new SimpleByteLexer(new ByteArrayInputStream(bytes)));
+            try {
+                parser.classfile();
+            } catch (ANTLRException e) {
+                // e.g. constants of newer classfile versions
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runReader(List<byte[]> classfiles, int mode) {
+        long start = System.nanoTime();
+        ClassfileReader reader = new ClassfileReader(mode);
+        for (byte[] bytes : classfiles) {
+            try {
+                reader.parse(bytes, 0, bytes.length);
+            } catch (ANTLRException e) {
+                // e.g. constants of newer classfile versions
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<byte[]> readClassfiles(File f) throws IOException {
+        List<byte[]> classfiles = new ArrayList<byte[]>();
+        JarFile jar = new JarFile(f);
+        try {
+            for (Enumeration<JarEntry> e = jar.entries();
+                    e.hasMoreElements();) {
+                JarEntry entry = e.nextElement();
+                if (!entry.isDirectory()
+                        && entry.getName().endsWith(".class")) {
+                    classfiles.add(read(jar.getInputStream(entry)));
+                }
+            }
+        } finally {
+            jar.close();
+        }
+        return classfiles;
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Compares converting the descriptors of the classfiles of a jar with the
+ * lexers of {@link ParserUtils}, with the {@link SignatureConverter} and
+ * with the cached conversions of {@link ParserUtils}. This is not a unit
+ * test, run it with
+ * <pre>
+ * java org.argouml.language.java.reveng.classfile.ParserUtilsBenchmark
+ *     [jar [rounds]]
+ * </pre>
+ * The default jar is the rt.jar of the running JDK. The descriptors are
+ * those of the members the classfiles refer to, in the order they occur,
+ * so common descriptors repeat like in an import. The results of the
+ * lexers and the converter are compared, except for descriptors the
+ * lexers reject.
+ */
+public final class ParserUtilsBenchmark {
+
+    private ParserUtilsBenchmark() {
+    }
+
+    /**
+     * @param args the jar and the number of rounds
+     * @throws Exception if the jar can't be read
+     */
+    public static void main(String[] args) throws Exception {
+        File jar = args.length > 0 ? new File(args[0])
+            : new File(System.getProperty("java.home"), "lib/rt.jar");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<String> fields = new ArrayList<String>();
+        List<String> methods = new ArrayList<String>();
+        harvest(jar, fields, methods);
+        System.out.println(jar + ": " + fields.size() + " field and "
+                + methods.size() + " method descriptors, " + rounds
+                + " rounds");
+        compare(fields, methods);
+        for (int round = 0; round < rounds; round++) {
+            report("lexers   ", runLexers(fields, methods));
+            report("converter", runConverter(fields, methods));
+            ParserUtils.clearCaches();
+            report("cached   ", runCached(fields, methods));
+        }
+        System.out.println(ParserUtils.getCacheStatistics());
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / 1000000) + " ms");
+    }
+
+    private static void compare(List<String> fields, List<String> methods) {
+        int rejected = 0;
+        int different = 0;
+        for (String desc : fields) {
+            String expected;
+            try {
+                expected = ParserUtils.convertFieldDescriptor(
+                        new ParserUtils.FieldDescriptorLexer(desc).parse());
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                continue;
+            }
+            if (!expected.equals(
+                    SignatureConverter.convertFieldDescriptor(desc))) {
+                different++;
+                System.out.println("Different: " + desc);
+            }
+        }
+        for (String desc : methods) {
+            String[] expected;
+            try {
+                expected = lexMethodDescriptor(desc);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                continue;
+            }
+            if (!Arrays.equals(expected,
+                    SignatureConverter.convertMethodDescriptor(desc))) {
+                different++;
+                System.out.println("Different: " + desc);
+            }
+        }
+        System.out.println(rejected + " rejected by the lexers, "
+                + different + " converted differently");
+    }
+
+    private static long runLexers(List<String> fields, List<String> methods) {
+        long start = System.nanoTime();
+        for (String desc : fields) {
+            try {
+                ParserUtils.convertFieldDescriptor(
+                        new ParserUtils.FieldDescriptorLexer(desc).parse());
+            } catch (IllegalArgumentException e) {
+                // counted by compare
+            }
+        }
+        for (String desc : methods) {
+            try {
+                lexMethodDescriptor(desc);
+            } catch (IllegalArgumentException e) {
+                // counted by compare
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runConverter(List<String> fields,
+            List<String> methods) {
+        long start = System.nanoTime();
+        for (String desc : fields) {
+            SignatureConverter.convertFieldDescriptor(desc);
+        }
+        for (String desc : methods) {
+            SignatureConverter.convertMethodDescriptor(desc);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runCached(List<String> fields, List<String> methods) {
+        long start = System.nanoTime();
+        for (String desc : fields) {
+            ParserUtils.convertFieldDescriptor(desc);
+        }
+        for (String desc : methods) {
+            ParserUtils.convertMethodDescriptor(desc);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String[] lexMethodDescriptor(String desc) {
+        List<ParserUtils.Token> tokens =
+            new ParserUtils.MethodDescriptorLexer(desc).parse();
+        String[] result = new String[tokens.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tokens.get(i).getValue();
+        }
+        return result;
+    }
+
+    /**
+     * Collect the descriptors of the NameAndType constants of the
+     * classfiles of a jar.
+     */
+    private static void harvest(File f, List<String> fields,
+            List<String> methods) throws IOException {
+        JarFile jar = new JarFile(f);
+        try {
+            for (Enumeration<JarEntry> e = jar.entries();
+                    e.hasMoreElements();) {
+                JarEntry entry = e.nextElement();
+                if (!entry.isDirectory()
+                        && entry.getName().endsWith(".class")) {
+                    InputStream in = jar.getInputStream(entry);
+                    try {
+                        harvest(new DataInputStream(in), fields, methods);
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            jar.close();
+        }
+    }
+
+    private static void harvest(DataInputStream in, List<String> fields,
+            List<String> methods) throws IOException {
+        in.readInt(); // magic
+        in.readInt(); // version
+        int count = in.readUnsignedShort();
+        String[] strings = new String[count];
+        List<Integer> descriptors = new ArrayList<Integer>();
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case 1: // Utf8
+                strings[i] = in.readUTF();
+                break;
+            case 12: // NameAndType
+                in.readUnsignedShort();
+                descriptors.add(Integer.valueOf(in.readUnsignedShort()));
+                break;
+            case 5: // Long
+            case 6: // Double
+                in.readLong();
+                i++;
+                break;
+            case 3: // Integer
+            case 4: // Float
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                in.readInt();
+                break;
+            case 15: // MethodHandle
+                in.readUnsignedByte();
+                in.readUnsignedShort();
+                break;
+            default: // Class, String, MethodType, Module, Package
+                in.readUnsignedShort();
+            }
+        }
+        for (Integer index : descriptors) {
+            String desc = strings[index.intValue()];
+            if (desc.startsWith("(")) {
+                methods.add(desc);
+            } else {
+                fields.add(desc);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Test walking classfiles in directories and nested archives with the
+ * {@link ArchiveWalker}.
+ */
+public class TestArchiveWalker extends TestCase {
+
+    private File dir;
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestArchiveWalker(String str) {
+        super(str);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = File.createTempFile("TestArchiveWalker", "");
+        dir.delete();
+        dir.mkdir();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(dir);
+        super.tearDown();
+    }
+
+    /**
+     * Test that the classfiles of directories and of archives in archives
+     * are visited with their contents.
+     *
+     * @throws IOException if the files can't be written or read
+     */
+    public void testWalk() throws IOException {
+        File classes = new File(dir, "classes");
+        new File(classes, "p").mkdirs();
+        write(new File(classes, "p/B.class"), "B".getBytes());
+        write(new File(classes, "p/A.class"), "A".getBytes());
+        write(new File(classes, "p/readme.txt"), "text".getBytes());
+
+        byte[] jar = zip(new String[] {"q/C.class", "META-INF/MANIFEST.MF"},
+                new byte[][] {"C".getBytes(), "manifest".getBytes()});
+        byte[] war = zip(new String[] {
+            "WEB-INF/classes/r/D.class", "WEB-INF/lib/x.jar", "index.html",
+        }, new byte[][] {"D".getBytes(), jar, "html".getBytes()});
+        File ear = new File(dir, "app.ear");
+        write(ear, zip(new String[] {"web.war", "E.class"},
+                new byte[][] {war, "E".getBytes()}));
+
+        final List<String> names = new ArrayList<String>();
+        final List<String> contents = new ArrayList<String>();
+        ArchiveWalker walker = new ArchiveWalker(Arrays.asList(new File[] {
+            classes, ear,
+        }));
+        assertTrue(walker.walk(new ArchiveWalker.Visitor() {
+            public boolean visit(String name, InputStream in)
+                throws IOException {
+                names.add(name.substring(dir.getPath().length() + 1)
+                        .replace(File.separatorChar, '/'));
+                contents.add(new String(ArchiveWalker.readFully(in)));
+                return true;
+            }
+        }));
+        String web = "app.ear!/web.war!/";
+        assertEquals(Arrays.asList(new String[] {
+            "classes/p/A.class", "classes/p/B.class",
+            web + "WEB-INF/classes/r/D.class",
+            web + "WEB-INF/lib/x.jar!/q/C.class",
+            "app.ear!/E.class",
+        }), names);
+        assertEquals(Arrays.asList(new String[] {"A", "B", "D", "C", "E"}),
+                contents);
+
+        // a visitor may end the walk
+        names.clear();
+        assertFalse(walker.walk(new ArchiveWalker.Visitor() {
+            public boolean visit(String name, InputStream in) {
+                names.add(name);
+                return names.size() < 3;
+            }
+        }));
+        assertEquals(3, names.size());
+
+        // the archives are open until the walker is closed
+        walker.close();
+        names.clear();
+        assertTrue(walker.walk(new ArchiveWalker.Visitor() {
+            public boolean visit(String name, InputStream in) {
+                names.add(name);
+                return true;
+            }
+        }));
+        assertEquals(5, names.size());
+        walker.close();
+    }
+
+    /**
+     * Test that the classfiles that the filter rejects by name are not
+     * visited.
+     *
+     * @throws IOException if the files can't be written or read
+     */
+    public void testFilter() throws IOException {
+        byte[] jar = zip(new String[] {"q/C.class", "q/C$1.class"},
+                new byte[][] {"C".getBytes(), "C1".getBytes()});
+        File war = new File(dir, "app.war");
+        write(war, zip(new String[] {
+            "WEB-INF/classes/r/D.class", "WEB-INF/lib/x.jar",
+            "WEB-INF/classes/s/E.class",
+        }, new byte[][] {"D".getBytes(), jar, "E".getBytes()}));
+        File classes = new File(dir, "classes");
+        classes.mkdir();
+        write(new File(classes, "F.class"), "F".getBytes());
+        write(new File(classes, "F$1.class"), "F1".getBytes());
+
+        final List<String> contents = new ArrayList<String>();
+        ClassFilter filter = new ClassFilter(
+                Arrays.asList(new String[] {"q.**", "r.*", "F"}),
+                new ArrayList<String>(), false, true);
+        ArchiveWalker walker = new ArchiveWalker(Arrays.asList(new File[] {
+            war, classes,
+        }), filter);
+        assertTrue(walker.walk(new ArchiveWalker.Visitor() {
+            public boolean visit(String name, InputStream in)
+                throws IOException {
+                contents.add(new String(ArchiveWalker.readFully(in)));
+                return true;
+            }
+        }));
+        walker.close();
+        // the packages of files in directories are checked by their heads
+        assertEquals(Arrays.asList(new String[] {"D", "C", "F"}), contents);
+    }
+
+    /**
+     * Test reading streams completely.
+     *
+     * @throws IOException if the stream can't be read
+     */
+    public void testReadFully() throws IOException {
+        byte[] bytes = new byte[100000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        assertTrue(Arrays.equals(bytes, ArchiveWalker.readFully(
+                new ByteArrayInputStream(bytes))));
+    }
+
+    private static byte[] zip(String[] names, byte[][] contents)
+        throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream(bytes);
+        for (int i = 0; i < names.length; i++) {
+            zip.putNextEntry(new ZipEntry(names[i]));
+            zip.write(contents[i]);
+            zip.closeEntry();
+        }
+        zip.close();
+        return bytes.toByteArray();
+    }
+
+    private static void write(File f, byte[] bytes) throws IOException {
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+}
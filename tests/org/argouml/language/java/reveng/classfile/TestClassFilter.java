@@ -0,0 +1,109 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test selecting the classes of a classfile import with the
+ * {@link ClassFilter}.
+ */
+public class TestClassFilter extends TestCase {
+
+    private static final List<String> NONE = Collections.emptyList();
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestClassFilter(String str) {
+        super(str);
+    }
+
+    /**
+     * Test the package globs.
+     */
+    public void testPackages() {
+        ClassFilter filter = new ClassFilter(
+                Arrays.asList(new String[] {"com.example.api.**", "p.*"}),
+                Arrays.asList(new String[] {"com.example.api.impl.**"}),
+                false, false);
+        assertTrue(filter.acceptsEntry("com/example/api/A.class"));
+        assertTrue(filter.acceptsEntry("com/example/api/sub/B.class"));
+        assertFalse(filter.acceptsEntry("com/example/api/impl/C.class"));
+        assertFalse(filter.acceptsEntry("com/example/apix/D.class"));
+        assertTrue(filter.acceptsEntry("p/E.class"));
+        assertFalse(filter.acceptsEntry("p/q/F.class"));
+        assertTrue(filter.acceptsEntry("WEB-INF/classes/p/G.class"));
+        assertTrue(filter.acceptsEntry("META-INF/versions/11/p/H.class"));
+        assertFalse(filter.acceptsEntry("I.class"));
+
+        assertTrue(filter.accepts(header("com/example/api/A",
+                ClassfileParser.ACC_PUBLIC)));
+        assertFalse(filter.accepts(header("q/A",
+                ClassfileParser.ACC_PUBLIC)));
+    }
+
+    /**
+     * Test that the globs match names literally, except for the wildcards.
+     */
+    public void testToRegex() {
+        assertEquals("a\\.b\\.[^.]*", ClassFilter.toRegex("a.b.*"));
+        assertEquals("a\\..*", ClassFilter.toRegex("a.**"));
+        assertEquals("a\\$[^.]", ClassFilter.toRegex("a$?"));
+    }
+
+    /**
+     * Test filtering by the visibility of the classes.
+     */
+    public void testPublicOnly() {
+        ClassFilter filter = new ClassFilter(NONE, NONE, true, false);
+        assertTrue(filter.acceptsEntry("p/A$1.class"));
+        assertTrue(filter.accepts(header("p/A",
+                ClassfileParser.ACC_PUBLIC | ClassfileParser.ACC_SUPER)));
+        assertFalse(filter.accepts(header("p/B", ClassfileParser.ACC_SUPER)));
+    }
+
+    /**
+     * Test skipping the classes that the compiler generated.
+     */
+    public void testGenerated() {
+        ClassFilter filter = new ClassFilter(NONE, NONE, false, true);
+        assertTrue(filter.acceptsEntry("p/A.class"));
+        assertTrue(filter.acceptsEntry("p/A$Inner.class"));
+        assertFalse(filter.acceptsEntry("p/A$1.class"));
+        assertFalse(filter.acceptsEntry("p/A$1Local.class"));
+        assertFalse(filter.acceptsEntry("module-info.class"));
+        assertFalse(filter.acceptsEntry("p/package-info.class"));
+        assertFalse(filter.acceptsFileName("A$2.class"));
+
+        assertTrue(filter.accepts(header("p/A", 0)));
+        assertFalse(filter.accepts(header("p/A$1", 0)));
+        assertFalse(filter.accepts(header("p/B",
+                ClassfileParser.ACC_SYNTHETIC)));
+
+        filter = new ClassFilter(NONE, NONE, false, false);
+        assertTrue(filter.acceptsEntry("p/A$1.class"));
+        assertTrue(filter.accepts(header("p/B",
+                ClassfileParser.ACC_SYNTHETIC)));
+    }
+
+    private static ClassfileReader.Header header(String name, int flags) {
+        return new ClassfileReader.Header(name, "java/lang/Object",
+                Collections.<String>emptyList(), flags);
+    }
+}
@@ -0,0 +1,392 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import antlr.RecognitionException;
+import antlr.collections.AST;
+
+/**
+ * Test that the {@link ClassfileReader} builds the same AST as the
+ * {@link ClassfileParser}.
+ */
+public class TestClassfileReader extends TestCase {
+
+    /**
+     * A class with the members the AST is built of.
+     */
+    static class Sample<T extends Number> implements Runnable, Comparable {
+
+        private static final int CONSTANT = 42;
+
+        private List<T> values = new ArrayList<T>();
+
+        protected long count;
+
+        Sample(T value) throws IOException {
+            values.add(value);
+        }
+
+        public void run() {
+            count++;
+        }
+
+        public int compareTo(Object o) {
+            return values.isEmpty() ? CONSTANT : 0;
+        }
+
+        <E extends Exception> T first(int index, double[] weights) throws E {
+            return values.get(index);
+        }
+    }
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestClassfileReader(String str) {
+        super(str);
+    }
+
+    /**
+     * Test reading a class.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testClass() throws Exception {
+        byte[] bytes = getClassFile(Sample.class);
+        AST expected = parse(bytes);
+        ClassfileReader reader = new ClassfileReader();
+        assertTrees(expected,
+                reader.parse(new ByteArrayInputStream(bytes)));
+        // the buffers are reused
+        assertTrees(expected, reader.parse(ByteBuffer.wrap(bytes)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.flip();
+        assertTrees(expected, reader.parse(direct));
+    }
+
+    /**
+     * Test that the code of the methods doesn't change the AST.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testModes() throws Exception {
+        byte[] bytes = getClassFile(Sample.class);
+        ClassfileReader full = new ClassfileReader(ClassfileReader.FULL);
+        assertEquals(ClassfileReader.FULL, full.getMode());
+        assertEquals(ClassfileReader.STRUCTURE,
+                new ClassfileReader().getMode());
+        assertTrees(parse(bytes), full.parse(bytes, 0, bytes.length));
+    }
+
+    /**
+     * Test reading an interface.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testInterface() throws Exception {
+        byte[] bytes = getClassFile(Runnable.class);
+        assertTrees(parse(bytes),
+                new ClassfileReader().parse(bytes, 0, bytes.length));
+    }
+
+    /**
+     * Test reading the head of a class.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testReadHeader() throws Exception {
+        ClassfileReader.Header header = new ClassfileReader().readHeader(
+                new ByteArrayInputStream(getClassFile(Sample.class)));
+        assertEquals("org/argouml/language/java/reveng/classfile/"
+                + "TestClassfileReader$Sample", header.getName());
+        assertEquals("java/lang/Object", header.getSuperclassName());
+        assertEquals(Arrays.asList(new String[] {
+            "java/lang/Runnable", "java/lang/Comparable",
+        }), header.getInterfaceNames());
+
+        header = new ClassfileReader().readHeader(
+                new ByteArrayInputStream(getClassFile(Object.class)));
+        assertNull(header.getSuperclassName());
+    }
+
+    /**
+     * Test reading a classfile with the constants and attributes of newer
+     * classfile versions.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testModernClassfile() throws Exception {
+        byte[] bytes = getModernClassfile();
+        AST expected = parse(bytes);
+        assertTrees(expected, new ClassfileReader().parse(bytes, 0,
+                bytes.length));
+        assertTrees(expected, new ClassfileReader(ClassfileReader.FULL)
+                .parse(bytes, 0, bytes.length));
+
+        // only the SourceFile attribute is left of the class attributes
+        AST last = expected;
+        while (last.getNextSibling() != null) {
+            last = last.getNextSibling();
+        }
+        assertEquals(ClassfileTokenTypes.SOURCEFILE, last.getType());
+        assertEquals("A.java", last.getText());
+
+        ClassfileReader.Header header = new ClassfileReader().readHeader(
+                new ByteArrayInputStream(bytes));
+        assertEquals("p/A", header.getName());
+        assertEquals("java/lang/Object", header.getSuperclassName());
+        assertEquals(ClassfileParser.ACC_PUBLIC | ClassfileParser.ACC_SUPER,
+                header.getAccessFlags());
+    }
+
+    /**
+     * Test reading a module-info classfile, which has no superclass.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testModuleInfo() throws Exception {
+        byte[] bytes = getModuleInfo();
+        AST typeDef = new ClassfileReader().parse(bytes, 0, bytes.length);
+        while (typeDef.getType() != ClassfileTokenTypes.CLASS_DEF) {
+            typeDef = typeDef.getNextSibling();
+            assertNotNull("Missing CLASS_DEF", typeDef);
+        }
+        AST name = typeDef.getFirstChild().getNextSibling();
+        assertEquals("module-info", name.getText());
+        AST superclass = name.getNextSibling();
+        assertEquals(ClassfileTokenTypes.EXTENDS_CLAUSE,
+                superclass.getType());
+        assertNull(superclass.getFirstChild());
+
+        ClassfileReader.Header header = new ClassfileReader().readHeader(
+                new ByteArrayInputStream(bytes));
+        assertEquals("module-info", header.getName());
+        assertNull(header.getSuperclassName());
+    }
+
+    /**
+     * Test that invalid classfiles are rejected.
+     *
+     * @throws Exception if the classfile can't be read
+     */
+    public void testInvalid() throws Exception {
+        byte[] bytes = getClassFile(Sample.class);
+        ClassfileReader reader = new ClassfileReader();
+        try {
+            reader.parse(bytes, 0, bytes.length - 1);
+            fail("A truncated classfile should be rejected");
+        } catch (RecognitionException e) {
+            // expected
+        }
+        try {
+            reader.parse(bytes, 1, bytes.length - 1);
+            fail("A classfile without magic number should be rejected");
+        } catch (RecognitionException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @return a Java 17 classfile with the constant pool entries of Java 7
+     *         to 11, and the attributes of lambdas, nests, records and
+     *         sealed classes
+     */
+    private static byte[] getModernClassfile() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xcafebabe);
+        out.writeShort(0);
+        out.writeShort(61);
+
+        out.writeShort(22);
+        utf8(out, "p/A"); // 1
+        constant(out, 7, 1); // 2 Class
+        utf8(out, "java/lang/Object"); // 3
+        constant(out, 7, 3); // 4 Class
+        utf8(out, "run"); // 5
+        utf8(out, "()V"); // 6
+        constant(out, 12, 5, 6); // 7 NameAndType
+        out.writeByte(15); // 8 MethodHandle
+        out.writeByte(6);
+        out.writeShort(9);
+        constant(out, 10, 2, 7); // 9 Methodref
+        constant(out, 16, 6); // 10 MethodType
+        constant(out, 18, 0, 7); // 11 InvokeDynamic
+        constant(out, 17, 0, 7); // 12 Dynamic
+        constant(out, 19, 1); // 13 Module
+        constant(out, 20, 1); // 14 Package
+        utf8(out, "BootstrapMethods"); // 15
+        utf8(out, "NestMembers"); // 16
+        utf8(out, "Record"); // 17
+        utf8(out, "PermittedSubclasses"); // 18
+        utf8(out, "SourceFile"); // 19
+        utf8(out, "A.java"); // 20
+        utf8(out, "MethodParameters"); // 21
+
+        out.writeShort(0x21); // public super
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+
+        out.writeShort(1); // methods
+        out.writeShort(0x401); // public abstract
+        out.writeShort(5);
+        out.writeShort(6);
+        out.writeShort(1);
+        out.writeShort(21); // MethodParameters without parameters
+        out.writeInt(1);
+        out.writeByte(0);
+
+        out.writeShort(5); // attributes
+        out.writeShort(15); // BootstrapMethods
+        out.writeInt(8);
+        out.writeShort(1);
+        out.writeShort(8);
+        out.writeShort(1);
+        out.writeShort(10);
+        out.writeShort(16); // NestMembers
+        out.writeInt(4);
+        out.writeShort(1);
+        out.writeShort(2);
+        out.writeShort(17); // Record without components
+        out.writeInt(2);
+        out.writeShort(0);
+        out.writeShort(18); // PermittedSubclasses
+        out.writeInt(2);
+        out.writeShort(0);
+        out.writeShort(19); // SourceFile
+        out.writeInt(2);
+        out.writeShort(20);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the Java 9 classfile of a module without dependencies
+     */
+    private static byte[] getModuleInfo() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xcafebabe);
+        out.writeShort(0);
+        out.writeShort(53);
+
+        out.writeShort(6);
+        utf8(out, "module-info"); // 1
+        constant(out, 7, 1); // 2 Class
+        utf8(out, "m"); // 3
+        constant(out, 19, 3); // 4 Module
+        utf8(out, "Module"); // 5
+
+        out.writeShort(0x8000); // module
+        out.writeShort(2);
+        out.writeShort(0); // no superclass
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(0); // methods
+
+        out.writeShort(1); // attributes
+        out.writeShort(5); // Module
+        out.writeInt(16);
+        out.writeShort(4);
+        out.writeShort(0); // flags
+        out.writeShort(0); // version
+        for (int i = 0; i < 5; i++) {
+            out.writeShort(0); // requires, exports, opens, uses, provides
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String s)
+        throws IOException {
+        out.writeByte(1);
+        out.writeUTF(s);
+    }
+
+    private static void constant(DataOutputStream out, int tag,
+            int... indices) throws IOException {
+        out.writeByte(tag);
+        for (int index : indices) {
+            out.writeShort(index);
+        }
+    }
+
+    private static AST parse(byte[] bytes) throws Exception {
+        ClassfileParser parser = new ClassfileParser(
+                new SimpleByteLexer(new ByteArrayInputStream(bytes)));
+        parser.classfile();
+        return parser.getAST();
+    }
+
+    private static void assertTrees(AST expected, AST actual) {
+        assertTrees(expected, actual, false);
+    }
+
+    /**
+     * Compare the trees the {@link ClassfileTreeParser} reads. The nodes
+     * after a nested SIGNATURE node are not compared, since the
+     * ClassfileParser may link the following attributes of a field to it.
+     */
+    private static void assertTrees(AST expected, AST actual,
+            boolean nested) {
+        while (expected != null) {
+            assertNotNull("Missing node " + expected, actual);
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getText(), actual.getText());
+            if (expected instanceof ShortAST) {
+                assertEquals(((ShortAST) expected).getShortValue(),
+                        ((ShortAST) actual).getShortValue());
+            }
+            assertTrees(expected.getFirstChild(), actual.getFirstChild(),
+                    true);
+            if (nested
+                    && expected.getType() == ClassfileTokenTypes.SIGNATURE) {
+                return;
+            }
+            expected = expected.getNextSibling();
+            actual = actual.getNextSibling();
+        }
+        assertNull("Unexpected node " + actual, actual);
+    }
+
+    private static byte[] getClassFile(Class<?> c) throws IOException {
+        InputStream in = c.getResourceAsStream(
+                "/" + c.getName().replace('.', '/') + ".class");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
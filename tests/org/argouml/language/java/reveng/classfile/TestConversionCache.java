@@ -0,0 +1,65 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the {@link ConversionCache}.
+ */
+public class TestConversionCache extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestConversionCache(String str) {
+        super(str);
+    }
+
+    /**
+     * Test the lookups and their statistics.
+     */
+    public void testGet() {
+        ConversionCache<String> cache =
+            new ConversionCache<String>("test", 64);
+        assertNull(cache.get("I"));
+        cache.put("I", "int");
+        assertEquals("int", cache.get("I"));
+        assertEquals("int", cache.get("I"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, cache.getHitRate(), 0.001);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertNull(cache.get("I"));
+    }
+
+    /**
+     * Test that the cache is bounded.
+     */
+    public void testEviction() {
+        ConversionCache<String> cache =
+            new ConversionCache<String>("test", 64);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("L" + i + ";", String.valueOf(i));
+        }
+        assertTrue(cache.size() <= 64);
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+        // the last conversion is still there
+        assertEquals("999", cache.get("L999;"));
+    }
+}
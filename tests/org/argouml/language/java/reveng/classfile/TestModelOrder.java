@@ -0,0 +1,97 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test modelling classes in the order they are read with
+ * {@link ModelOrder}.
+ */
+public class TestModelOrder extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestModelOrder(String str) {
+        super(str);
+    }
+
+    /**
+     * Test that classes are kept until their supertypes are modelled.
+     */
+    public void testKept() {
+        ModelOrder order = new ModelOrder(headers(), 1000);
+        assertEquals(5, order.getRemaining());
+        assertOffer(order, 0);
+        assertFalse(order.isWanted(0));
+        assertOffer(order, 1, 1);
+        assertOffer(order, 2, 2);
+        assertOffer(order, 3);
+        assertOffer(order, 4, 4, 3, 0);
+        assertEquals(0, order.getRemaining());
+    }
+
+    /**
+     * Test that classes that can't be kept are left for the next walks.
+     */
+    public void testLimit() {
+        ModelOrder order = new ModelOrder(headers(), 0);
+        for (int i = 0; i < 5; i++) {
+            if (order.isWanted(i)) {
+                order.offer(i, new byte[1]);
+            }
+        }
+        assertEquals(2, order.getRemaining());
+        assertTrue(order.isWanted(0));
+        assertTrue(order.isWanted(3));
+
+        assertOffer(order, 0);
+        assertOffer(order, 3, 3);
+        assertOffer(order, 0, 0);
+        assertEquals(0, order.getRemaining());
+    }
+
+    private static void assertOffer(ModelOrder order, int index,
+            int... expected) {
+        byte[] bytes = new byte[] {(byte) index};
+        List<Integer> ready = order.offer(index, bytes);
+        assertEquals(expected.length, ready.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], ready.get(i).intValue());
+            assertEquals(expected[i], order.take(expected[i])[0]);
+        }
+    }
+
+    private static List<ClassfileReader.Header> headers() {
+        List<ClassfileReader.Header> headers =
+            new ArrayList<ClassfileReader.Header>();
+        headers.add(header("a/C", "a/B", "a/I"));
+        headers.add(header("a/B", "java/lang/Object"));
+        headers.add(header("a/D", "java/lang/Object"));
+        headers.add(header("a/I", null, "a/J"));
+        headers.add(header("a/J", null));
+        return headers;
+    }
+
+    private static ClassfileReader.Header header(String name,
+            String superclassName, String... interfaceNames) {
+        return new ClassfileReader.Header(name, superclassName,
+                Arrays.asList(interfaceNames), ClassfileParser.ACC_PUBLIC);
+    }
+}
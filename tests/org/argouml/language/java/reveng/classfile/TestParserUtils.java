@@ -98,6 +98,47 @@ public class TestParserUtils extends TestCase {
         assertEquals("void", result[0]);
     }
 
+    public void testParseMethodDescriptorReferences() {
+        String[] result = ParserUtils.convertMethodDescriptor(
+                "(Ljava/lang/String;I[Ljava/lang/Object;J)[Z");
+        assertEquals(5, result.length);
+        assertEquals("java.lang.String", result[0]);
+        assertEquals("int", result[1]);
+        assertEquals("java.lang.Object[]", result[2]);
+        assertEquals("long", result[3]);
+        assertEquals("boolean[]", result[4]);
+    }
+
+    public void testInvalidDescriptors() {
+        String[] invalid = {"", "L;", "Ljava/lang/String", "Q", "II"};
+        for (String desc : invalid) {
+            try {
+                ParserUtils.convertFieldDescriptor(desc);
+                fail(desc + " should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            ParserUtils.convertMethodDescriptor("(I");
+            fail("An unterminated method descriptor should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testCachedConversions() {
+        ParserUtils.clearCaches();
+        String type = ParserUtils.convertFieldDescriptor("Ljava/util/List;");
+        assertSame(type,
+            ParserUtils.convertFieldDescriptor("Ljava/util/List;"));
+        String[] result = ParserUtils.convertMethodDescriptor("(I)V");
+        result[0] = "changed";
+        // the cached conversion is not changed by the caller
+        assertEquals("int", ParserUtils.convertMethodDescriptor("(I)V")[0]);
+        assertTrue(ParserUtils.getCacheStatistics().indexOf("1 hits") >= 0);
+    }
+
     public void testConvertFieldTypeSignature() {
         assertEquals("java.lang.Comparable<?>",
             ParserUtils.convertFieldTypeSignature(
@@ -121,6 +162,9 @@ public class TestParserUtils extends TestCase {
             "java.lang.Map<byte[],java.lang.Map<E,E>[][]>.Inner<d.inner>.Inner2",
             ParserUtils.convertFieldTypeSignature(
                 "Ljava/lang/Map<[B[[Ljava/lang/Map<TE;TE;>;>.Inner<Ld.inner;>.Inner2;"));
+        assertEquals("java.util.Map<?,? extends java.lang.Number>",
+            ParserUtils.convertFieldTypeSignature(
+                "Ljava/util/Map<*+Ljava/lang/Number;>;"));
     }
 
     public void testConvertClassTypeSignature() {
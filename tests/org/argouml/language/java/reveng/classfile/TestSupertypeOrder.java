@@ -0,0 +1,68 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test ordering classes by their supertypes with {@link SupertypeOrder}.
+ */
+public class TestSupertypeOrder extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestSupertypeOrder(String str) {
+        super(str);
+    }
+
+    /**
+     * Test that supertypes come first, and that the order is kept
+     * otherwise.
+     */
+    public void testSort() {
+        List<ClassfileReader.Header> headers =
+            new ArrayList<ClassfileReader.Header>();
+        headers.add(header("a/C", "a/B", "a/I"));
+        headers.add(header("a/B", "java/lang/Object"));
+        headers.add(header("a/D", "java/lang/Object"));
+        headers.add(header("a/I", null, "a/J"));
+        headers.add(header("a/J", null));
+        int[] order = SupertypeOrder.sort(headers);
+        assertTrue(Arrays.equals(new int[] {1, 4, 3, 0, 2}, order));
+    }
+
+    /**
+     * Test that the classes of an invalid cycle are all ordered.
+     */
+    public void testCycle() {
+        List<ClassfileReader.Header> headers =
+            new ArrayList<ClassfileReader.Header>();
+        headers.add(header("a/A", "a/B"));
+        headers.add(header("a/B", "a/A"));
+        headers.add(header("a/C", "a/C"));
+        int[] order = SupertypeOrder.sort(headers);
+        assertTrue(Arrays.equals(new int[] {1, 0, 2}, order));
+    }
+
+    private static ClassfileReader.Header header(String name,
+            String superclassName, String... interfaceNames) {
+        return new ClassfileReader.Header(name, superclassName,
+                Arrays.asList(interfaceNames), ClassfileParser.ACC_PUBLIC);
+    }
+}
@@ -0,0 +1,109 @@
+/* $Id$
+ *******************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ArgoUML Java module developers
+ *******************************************************************************
+ */
+
+package org.argouml.language.java.reveng.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test decoding and sharing the strings of constants with the
+ * {@link SymbolTable}.
+ */
+public class TestSymbolTable extends TestCase {
+
+    /*
+     * @see junit.framework.TestCase#TestCase(String)
+     */
+    public TestSymbolTable(String str) {
+        super(str);
+    }
+
+    /**
+     * Test decoding modified UTF-8.
+     *
+     * @throws IOException if a string can't be encoded
+     */
+    public void testDecode() throws IOException {
+        String[] strings = {
+            "",
+            "java/lang/String",
+            "null\u0000char",
+            "\u00e4\u00f6\u00fc\u20ac",
+            "supplementary \ud834\udd1e",
+        };
+        for (String s : strings) {
+            byte[] bytes = encode(s);
+            assertEquals(s, SymbolTable.decode(bytes, 2, bytes.length - 2));
+        }
+    }
+
+    /**
+     * Test that invalid bytes are rejected.
+     */
+    public void testDecodeInvalid() {
+        byte[][] invalid = {
+            {0},
+            {(byte) 0xc3},
+            {(byte) 0xe2, (byte) 0x82, 'a'},
+            {(byte) 0xf0, (byte) 0x9d, (byte) 0x84, (byte) 0x9e},
+        };
+        for (byte[] bytes : invalid) {
+            try {
+                SymbolTable.decode(bytes, 0, bytes.length);
+                fail("Invalid modified UTF-8 should be rejected");
+            } catch (UTFDataFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Test that equal strings are shared.
+     *
+     * @throws IOException if a string can't be encoded
+     */
+    public void testGet() throws IOException {
+        SymbolTable table = new SymbolTable();
+        byte[] bytes = encode("java/lang/String");
+        String s = table.get(bytes, 2, bytes.length - 2);
+        assertEquals("java/lang/String", s);
+        assertSame(s, table.get(encode("java/lang/String"), 2,
+                bytes.length - 2));
+        assertEquals(1, table.size());
+
+        // enough to grow the table
+        for (int i = 0; i < 5000; i++) {
+            bytes = encode("name" + i);
+            assertEquals("name" + i, table.get(bytes, 2, bytes.length - 2));
+        }
+        assertEquals(5001, table.size());
+        bytes = encode("java/lang/String");
+        assertSame(s, table.get(bytes, 2, bytes.length - 2));
+    }
+
+    /**
+     * @return the length and the modified UTF-8 encoded bytes of a string
+     */
+    private static byte[] encode(String s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(s);
+        out.close();
+        return bytes.toByteArray();
+    }
+}